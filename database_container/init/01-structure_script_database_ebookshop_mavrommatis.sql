@@ -8,7 +8,7 @@ USE `ebookshop_mavrommatis`;
 SET FOREIGN_KEY_CHECKS = 0;
 
 CREATE TABLE book (
-  book_id INT NOT NULL AUTO_INCREMENT,
+  book_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence',
   title VARCHAR(255) NOT NULL COMMENT 'Title of the book',
   language VARCHAR(100) NOT NULL COMMENT 'Language the book is written in',
   genre VARCHAR(100) NOT NULL COMMENT 'Genre of the book, e.g. fantasy, drama, thriller',
@@ -25,8 +25,15 @@ CREATE TABLE book (
       ON UPDATE CASCADE,
   CONSTRAINT uq_book_unique_entry
     UNIQUE (isbn, author_id, is_collective)
-    COMMENT 'Ensures unique combination of ISBN, author, and collective status to prevent duplicates'
-) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4
+    COMMENT 'Ensures unique combination of ISBN, author, and collective status to prevent duplicates',
+  -- Search indexes: every filter of GET /api/books/search except the low-cardinality
+  -- is_collective flag leads at least one index; is_collective only trails them.
+  -- InnoDB appends book_id to each secondary index, which also serves the keyset order.
+  INDEX idx_book_genre_language_form (genre, language, literary_form, is_collective),
+  INDEX idx_book_language_form (language, literary_form, is_collective),
+  INDEX idx_book_form_collective (literary_form, is_collective),
+  INDEX idx_book_author (author_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
   COMMENT='Store main information about each book in the application';
 
 
@@ -41,6 +48,8 @@ CREATE TABLE book_details (
   created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT 'Timestamp when the record was created',
   updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Timestamp for the last update',
   PRIMARY KEY (book_id),
+  INDEX idx_book_details_publish_date (publish_date),
+  INDEX idx_book_details_pages (pages),
   CONSTRAINT fk_book_details_book
     FOREIGN KEY (book_id) REFERENCES book(book_id)
       ON DELETE CASCADE
@@ -49,7 +58,7 @@ CREATE TABLE book_details (
   COMMENT='Store additional details for each book';
 
 CREATE TABLE author (
-  author_id INT NOT NULL AUTO_INCREMENT,
+  author_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence',
   first_name VARCHAR(100) NOT NULL COMMENT 'Author’s first name',
   last_name VARCHAR(100) NOT NULL COMMENT 'Author’s last name',
   email VARCHAR(255) NOT NULL COMMENT 'Author email address, must be unique',
@@ -59,7 +68,7 @@ CREATE TABLE author (
   CONSTRAINT uq_author_email
     UNIQUE (email)
     COMMENT 'Ensures each author has a unique email address to prevent duplicates'
-) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
   COMMENT='Store basic information about each author';
 
 
@@ -122,14 +131,14 @@ CREATE TABLE book_reviews (
 
 
 CREATE TABLE customer (
-  customer_id INT NOT NULL AUTO_INCREMENT,
+  customer_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence',
   username VARCHAR(100) NOT NULL COMMENT 'Username of the customer, must be unique',
   password VARCHAR(100) NOT NULL COMMENT 'Hashed password for account security',
   email VARCHAR(255) NOT NULL COMMENT 'Customer email address, must be unique',
   created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT 'Timestamp when the record was created',
   updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Timestamp for the last update',
   PRIMARY KEY (customer_id)
-) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
   COMMENT='Store main account information for customers';
 
 CREATE TABLE customer_details (
@@ -146,4 +155,40 @@ CREATE TABLE customer_details (
       ON DELETE CASCADE
       ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
-  COMMENT='Store additional information for each customer';
\ No newline at end of file
+  COMMENT='Store additional information for each customer';
+
+
+-- Application support tables: they hold no catalog data, only what the application
+-- instances share for caching and id allocation.
+
+CREATE TABLE cache_invalidation_log (
+  invalidation_id BIGINT NOT NULL AUTO_INCREMENT COMMENT 'Position of the entry in the log',
+  kind VARCHAR(8) NOT NULL COMMENT 'EVICT, CLEAR or INSERT',
+  name VARCHAR(64) NOT NULL COMMENT 'Cache name (EVICT, CLEAR) or entity name (INSERT)',
+  entry_key INT COMMENT 'Evicted key or inserted id; NULL for CLEAR',
+  origin VARCHAR(64) NOT NULL COMMENT 'Id of the instance that wrote the entry',
+  created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT 'Timestamp when the entry was written',
+  PRIMARY KEY (invalidation_id),
+  KEY idx_cache_invalidation_created_at (created_at)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4
+  COMMENT='Cache invalidations committed by each application instance, read by the others';
+
+
+CREATE TABLE catalog_version (
+  catalog_version_id TINYINT UNSIGNED NOT NULL COMMENT 'Always 1: the table has a single row',
+  version BIGINT NOT NULL DEFAULT 0 COMMENT 'Incremented by every committed catalog write',
+  updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT 'Timestamp of the last increment',
+  PRIMARY KEY (catalog_version_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+  COMMENT='Global version of books, authors and their links, for version-keyed caches';
+
+-- The single row every instance increments on a catalog write and polls for changes.
+INSERT INTO catalog_version (catalog_version_id, version) VALUES (1, 0);
+
+
+CREATE TABLE id_sequence (
+  sequence_name VARCHAR(64) NOT NULL COMMENT 'Table the ids are allocated for: book, author or customer',
+  next_val BIGINT NOT NULL COMMENT 'Allocation position; the application takes ids above it in blocks of 50',
+  PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+  COMMENT='Only source of book, author and customer ids (no AUTO_INCREMENT); rows inserted outside the application must take their ids from here';
@@ -1,10 +1,10 @@
 -- Insert records into table: author
-INSERT INTO author (first_name, last_name, email) VALUES
-('George', 'Orwell', 'orwell@example.com'),
-('Virginia', 'Woolf', 'woolf@example.com'),
-('J.K.', 'Rowling', 'rowling@example.com'),
-('Jack', 'Mavros', 'mavros@example.com'),
-('Eleni', 'Middleton', 'middleton@example.com');
+INSERT INTO author (author_id, first_name, last_name, email) VALUES
+(1, 'George', 'Orwell', 'orwell@example.com'),
+(2, 'Virginia', 'Woolf', 'woolf@example.com'),
+(3, 'J.K.', 'Rowling', 'rowling@example.com'),
+(4, 'Jack', 'Mavros', 'mavros@example.com'),
+(5, 'Eleni', 'Middleton', 'middleton@example.com');
 
 -- Insert records into table: author_details
 INSERT INTO author_details (author_id, biography, birth_date, website) VALUES
@@ -15,9 +15,9 @@ INSERT INTO author_details (author_id, biography, birth_date, website) VALUES
 (5, 'A poet from Ioannina, Greece.', '1988-12-05', NULL);
 
 -- Insert records into table: customer
-INSERT INTO customer (username, password, email) VALUES
-('alice', 'password1', 'alice@example.com'),
-('bob', 'password2', 'bob@example.com');
+INSERT INTO customer (customer_id, username, password, email) VALUES
+(1, 'alice', 'password1', 'alice@example.com'),
+(2, 'bob', 'password2', 'bob@example.com');
 
 -- Insert records into table: customer_details
 INSERT INTO customer_details (customer_id, first_name, last_name, address, phone) VALUES
@@ -25,12 +25,12 @@ INSERT INTO customer_details (customer_id, first_name, last_name, address, phone
 (2, 'Bob', 'Jones', '456 Elm St, Oxford', '555-5678');
 
 -- Insert records into table: book
-INSERT INTO book (title, language, genre, literary_form, isbn, is_collective, author_id) VALUES
-('1984', 'English', 'Dystopian', 'Novel', '9780451524935', FALSE, 1),
-('Mrs Dalloway', 'English', 'Modernist', 'Novel', '9780156628709', FALSE, 2),
-('Harry Potter and the Philosopher''s Stone', 'English', 'Fantasy', 'Novel', '9780747532699', FALSE, 3),
-('Poetic Collection', 'English', 'Romance', 'Collection', '9780747531239', TRUE, 4),
-('Poetic Collection', 'English', 'Romance', 'Collection', '9780747531239', TRUE, 5);
+INSERT INTO book (book_id, title, language, genre, literary_form, isbn, is_collective, author_id) VALUES
+(1, '1984', 'English', 'Dystopian', 'Novel', '9780451524935', FALSE, 1),
+(2, 'Mrs Dalloway', 'English', 'Modernist', 'Novel', '9780156628709', FALSE, 2),
+(3, 'Harry Potter and the Philosopher''s Stone', 'English', 'Fantasy', 'Novel', '9780747532699', FALSE, 3),
+(4, 'Poetic Collection', 'English', 'Romance', 'Collection', '9780747531239', TRUE, 4),
+(5, 'Poetic Collection', 'English', 'Romance', 'Collection', '9780747531239', TRUE, 5);
 
 -- Insert records into table: book_details
 INSERT INTO book_details (book_id, publish_date, pages, summary, dimensions, cover_type, weight) VALUES
@@ -54,3 +54,12 @@ INSERT INTO book_reviews (book_id, customer_id, rating, comment) VALUES
 (3, 2, 4, 'Exciting and imaginative!'),
 (2, 1, 3, NULL),
 (4, 1, 5, 'Loved this collection!');
+
+-- Book, author and customer ids have no AUTO_INCREMENT: start the id blocks of the
+-- application above the explicit ids inserted above
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT 'book', COALESCE(MAX(book_id), 0) + 1 FROM book
+UNION ALL
+SELECT 'author', COALESCE(MAX(author_id), 0) + 1 FROM author
+UNION ALL
+SELECT 'customer', COALESCE(MAX(customer_id), 0) + 1 FROM customer;
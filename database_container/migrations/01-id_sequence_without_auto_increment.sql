@@ -0,0 +1,33 @@
+-- Brings a database created before id_sequence up to date; the init scripts only run on
+-- a fresh volume. Run it with the application stopped; it is safe to run more than once.
+-- Book, author and customer ids are allocated by the application from id_sequence, so
+-- the AUTO_INCREMENT of their keys is dropped and id_sequence starts above the existing ids.
+USE `ebookshop_mavrommatis`;
+
+CREATE TABLE IF NOT EXISTS id_sequence (
+  sequence_name VARCHAR(64) NOT NULL COMMENT 'Table the ids are allocated for: book, author or customer',
+  next_val BIGINT NOT NULL COMMENT 'Allocation position; the application takes ids above it in blocks of 50',
+  PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+  COMMENT='Only source of book, author and customer ids (no AUTO_INCREMENT); rows inserted outside the application must take their ids from here';
+
+-- The referencing foreign keys would otherwise block the change of the key columns
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE book MODIFY book_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence';
+ALTER TABLE author MODIFY author_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence';
+ALTER TABLE customer MODIFY customer_id INT NOT NULL COMMENT 'Allocated by the application from id_sequence';
+
+SET FOREIGN_KEY_CHECKS = 1;
+
+-- Never moves a sequence back, so ids already handed out are not allocated twice
+INSERT INTO id_sequence (sequence_name, next_val)
+SELECT seed.sequence_name, seed.next_val
+FROM (
+  SELECT 'book' AS sequence_name, COALESCE(MAX(book_id), 0) + 1 AS next_val FROM book
+  UNION ALL
+  SELECT 'author', COALESCE(MAX(author_id), 0) + 1 FROM author
+  UNION ALL
+  SELECT 'customer', COALESCE(MAX(customer_id), 0) + 1 FROM customer
+) AS seed
+ON DUPLICATE KEY UPDATE next_val = GREATEST(id_sequence.next_val, seed.next_val);
@@ -0,0 +1,12 @@
+package com.mavrommatis.ebookshop.ebookshop.config.batching;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable the cross-request id batching settings ({@link IdBatchingProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(IdBatchingProperties.class)
+public class IdBatchingConfig {
+}
@@ -0,0 +1,60 @@
+package com.mavrommatis.ebookshop.ebookshop.config.batching;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the cross-request id batching ({@code ebookshop.id-batching.*}).
+ * <p>
+ * {@link #window} and {@link #maxBatchSize} are the defaults; each loader (one per
+ * repository: {@code book}, {@code author}, {@code customer}) can override them under
+ * {@code ebookshop.id-batching.loaders.<name>.*}. A maximum batch size of 1 disables
+ * batching for that loader.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "ebookshop.id-batching")
+public class IdBatchingProperties {
+
+    /** How long the first id of a batch waits for more ids before the batch is loaded. */
+    private Duration window = Duration.ofMillis(2);
+
+    /** Number of distinct ids that loads a batch immediately, without waiting for the window. */
+    private int maxBatchSize = 32;
+
+    /** Per-loader overrides, keyed by loader name. */
+    private Map<String, Loader> loaders = new HashMap<>();
+
+    /**
+     * Overrides for one loader; null values fall back to the defaults.
+     */
+    @Data
+    public static class Loader {
+
+        private Duration window;
+
+        private Integer maxBatchSize;
+    }
+
+    /**
+     * @param name loader name
+     * @return the batching window of the loader
+     */
+    public Duration windowOf(String name) {
+        Loader loader = loaders.get(name);
+        return loader != null && loader.getWindow() != null ? loader.getWindow() : window;
+    }
+
+    /**
+     * @param name loader name
+     * @return the maximum batch size of the loader
+     */
+    public int maxBatchSizeOf(String name) {
+        Loader loader = loaders.get(name);
+        return loader != null && loader.getMaxBatchSize() != null ? loader.getMaxBatchSize() : maxBatchSize;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mavrommatis.ebookshop.ebookshop.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mavrommatis.ebookshop.ebookshop.support.CacheInvalidationLog;
+import com.mavrommatis.ebookshop.ebookshop.support.DegradedReads;
+import com.mavrommatis.ebookshop.ebookshop.support.HotKeyTracker;
+import com.mavrommatis.ebookshop.ebookshop.support.InvalidationLoggingCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.Duration;
+
+/**
+ * Configures the in-process cache of finished response DTOs.
+ * <p>
+ * Each cache is a bounded Caffeine cache, which evicts with W-TinyLFU once the maximum
+ * size is reached, so frequently read ids survive bursts of one-off lookups. Books and
+ * authors that are hot keys of the {@link HotKeyTracker} when they are cached weigh
+ * nothing, so they are pinned: only writes and the safety TTL remove them.
+ * The manager is wrapped in an {@link InvalidationLoggingCacheManager}: puts and
+ * evictions issued inside a transaction are applied only after it commits, so a
+ * rolled-back write never leaves a stale or phantom entry behind, and they are recorded
+ * in the cache invalidation log for the other instances. Each local cache is also
+ * {@link DegradedReads#tracking tracked} by {@link DegradedReads}, so the last known values
+ * it serves while the database is down are evicted and replaced along with the cache.
+ * </p>
+ * <p>
+ * For both to happen inside the write transaction, the transaction advice is ordered
+ * before (around) the caching advice; with equal default orders their nesting would be
+ * unspecified. This replaces the transaction setup of Spring Boot, with the same
+ * class-based proxies.
+ * </p>
+ * <ul>
+ *   <li>{@value #BOOKS} – {@code BookResponseDTO} by book id</li>
+ *   <li>{@value #AUTHORS} – {@code AuthorResponseDTO} by author id</li>
+ *   <li>{@value #BOOK_REVIEWS} – {@code BookReviewsResponseDTO} by review id</li>
+ *   <li>{@value #CATALOG_QUERIES} – list and search pages of books and authors, keyed by
+ *       the {@link com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion} and the
+ *       arguments; never evicted, entries of older versions age out</li>
+ * </ul>
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE)
+@EnableTransactionManagement(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 1)
+public class DtoCacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String AUTHORS = "authors";
+    public static final String BOOK_REVIEWS = "bookReviews";
+    public static final String CATALOG_QUERIES = "catalogQueries";
+
+    /**
+     * Builds the transaction-aware, invalidation-logging DTO cache manager.
+     *
+     * @param invalidationLog           log the cache changes are recorded in
+     * @param hotKeys                   tracker of the hot keys pinned in the caches
+     * @param degradedReads             degraded reads whose last known values follow the caches
+     * @param booksMaximumSize          maximum number of cached books
+     * @param authorsMaximumSize        maximum number of cached authors
+     * @param bookReviewsMaximumSize    maximum number of cached reviews
+     * @param catalogQueriesMaximumSize maximum number of cached catalog pages
+     * @param expireAfterWrite          safety TTL for every entry
+     * @return the cache manager
+     */
+    @Bean
+    public InvalidationLoggingCacheManager cacheManager(CacheInvalidationLog invalidationLog,
+                                                        HotKeyTracker hotKeys,
+                                                        DegradedReads degradedReads,
+                                                        @Value("${ebookshop.cache.books.maximum-size:10000}") long booksMaximumSize,
+                                                        @Value("${ebookshop.cache.authors.maximum-size:5000}") long authorsMaximumSize,
+                                                        @Value("${ebookshop.cache.book-reviews.maximum-size:20000}") long bookReviewsMaximumSize,
+                                                        @Value("${ebookshop.cache.catalog-queries.maximum-size:2000}") long catalogQueriesMaximumSize,
+                                                        @Value("${ebookshop.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return degradedReads.tracking(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        manager.setAllowNullValues(false);
+        manager.registerCustomCache(BOOKS, buildPinning(booksMaximumSize, expireAfterWrite, hotKeys, HotKeyTracker.BOOK));
+        manager.registerCustomCache(AUTHORS, buildPinning(authorsMaximumSize, expireAfterWrite, hotKeys, HotKeyTracker.AUTHOR));
+        manager.registerCustomCache(BOOK_REVIEWS, build(bookReviewsMaximumSize, expireAfterWrite));
+        manager.registerCustomCache(CATALOG_QUERIES, build(catalogQueriesMaximumSize, expireAfterWrite));
+        return new InvalidationLoggingCacheManager(manager, invalidationLog);
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> build(long maximumSize,
+                                                                                  Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Like {@link #build}, but the hot keys at the time an entry is written do not count
+     * towards the maximum size.
+     */
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> buildPinning(long maximumSize,
+                                                                                         Duration expireAfterWrite,
+                                                                                         HotKeyTracker hotKeys,
+                                                                                         String resource) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumSize)
+                .weigher((key, value) -> hotKeys.isHot(resource, key) ? 0 : 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
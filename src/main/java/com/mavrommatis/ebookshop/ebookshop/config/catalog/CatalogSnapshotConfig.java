@@ -0,0 +1,12 @@
+package com.mavrommatis.ebookshop.ebookshop.config.catalog;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable the catalog snapshot settings ({@link CatalogSnapshotProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+public class CatalogSnapshotConfig {
+}
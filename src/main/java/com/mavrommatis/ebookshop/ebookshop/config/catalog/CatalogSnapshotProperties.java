@@ -0,0 +1,31 @@
+package com.mavrommatis.ebookshop.ebookshop.config.catalog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory catalog snapshot ({@code ebookshop.catalog-snapshot.*}).
+ * <p>
+ * When enabled, book reads are served from an immutable copy of the catalog that is
+ * polled for changes every {@link #refreshInterval}. Reads may therefore lag writes by
+ * up to one interval.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "ebookshop.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+    /** Whether book reads are served from the snapshot instead of the database. */
+    private boolean enabled = false;
+
+    /** Delay between the end of one refresh and the start of the next. */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * How far before the previous poll changes are looked up again, so rows whose
+     * transaction committed after being stamped are not missed. Re-applied rows are skipped.
+     */
+    private Duration overlap = Duration.ofSeconds(5);
+}
@@ -0,0 +1,37 @@
+package com.mavrommatis.ebookshop.ebookshop.config.datasource;
+
+import com.mavrommatis.ebookshop.ebookshop.support.ReservingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration class to keep {@code ebookshop.datasource.nested-connection-reserve} pool
+ * connections for the id generator ({@link ReservingDataSource}); 0 leaves the pool as is.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor reservingDataSourcePostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        int poolSize = binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10);
+        Duration connectionTimeout = binder.bind("spring.datasource.hikari.connection-timeout", Duration.class)
+                .orElse(Duration.ofSeconds(30));
+        int reserve = binder.bind("ebookshop.datasource.nested-connection-reserve", Integer.class).orElse(2);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (reserve <= 0 || !(bean instanceof DataSource dataSource) || bean instanceof ReservingDataSource) {
+                    return bean;
+                }
+                return new ReservingDataSource(dataSource, poolSize, reserve, connectionTimeout);
+            }
+        };
+    }
+}
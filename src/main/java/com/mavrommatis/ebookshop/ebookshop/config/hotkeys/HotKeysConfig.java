@@ -0,0 +1,32 @@
+package com.mavrommatis.ebookshop.ebookshop.config.hotkeys;
+
+import com.mavrommatis.ebookshop.ebookshop.rest.HotKeyInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class to enable the hot-key settings ({@link HotKeysProperties}) and to
+ * count the REST requests by id with the {@link HotKeyInterceptor}.
+ */
+@Configuration
+@EnableConfigurationProperties(HotKeysProperties.class)
+public class HotKeysConfig implements WebMvcConfigurer {
+
+    private final HotKeyInterceptor hotKeyInterceptor;
+
+    /**
+     * Constructs a HotKeysConfig.
+     *
+     * @param hotKeyInterceptor interceptor counting the requested ids
+     */
+    public HotKeysConfig(HotKeyInterceptor hotKeyInterceptor) {
+        this.hotKeyInterceptor = hotKeyInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(hotKeyInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,38 @@
+package com.mavrommatis.ebookshop.ebookshop.config.hotkeys;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the hot-key detection ({@code ebookshop.hot-keys.*}).
+ * <p>
+ * Each tracked resource uses a count-min sketch of {@link #depth} × {@link #width} counters
+ * plus its {@link #topK} most requested ids, i.e. constant memory. The counters are halved
+ * every {@link #sampleSize} requests, so the hot keys follow the recent traffic.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "ebookshop.hot-keys")
+public class HotKeysProperties {
+
+    /** Whether requests by id are counted. */
+    private boolean enabled = true;
+
+    /** Counters per sketch row, rounded up to a power of two. */
+    private int width = 4096;
+
+    /** Rows of the sketch (at most 6); more rows, fewer overcounts. */
+    private int depth = 4;
+
+    /** Number of hot keys kept per resource. */
+    private int topK = 100;
+
+    /** Requests of a resource between two halvings of its counters. */
+    private int sampleSize = 100_000;
+
+    /** Whether hot keys stay in the response DTO caches when they are full. */
+    private boolean pinInCache = true;
+
+    /** File the hot keys are saved to on shutdown and read from at startup, for the warm-up; none when unset. */
+    private String file;
+}
@@ -0,0 +1,12 @@
+package com.mavrommatis.ebookshop.ebookshop.config.resilience;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable the degraded read settings ({@link DegradedReadsProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(DegradedReadsProperties.class)
+public class DegradedReadsConfig {
+}
@@ -0,0 +1,43 @@
+package com.mavrommatis.ebookshop.ebookshop.config.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the degraded mode of catalog reads ({@code ebookshop.degraded-reads.*}).
+ * <p>
+ * A database read that takes longer than {@link #timeout} or cannot get a connection counts
+ * as a failure; after {@link #failureThreshold} consecutive failures the circuit opens for
+ * {@link #openDuration}, during which reads do not touch the database at all.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "ebookshop.degraded-reads")
+public class DegradedReadsProperties {
+
+    /** Whether catalog reads fall back to their last known value when the database is unavailable. */
+    private boolean enabled = true;
+
+    /** Longest a request waits for a database read before the last known value is served. */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /** Consecutive failures that open the circuit. */
+    private int failureThreshold = 5;
+
+    /** How long the circuit stays open before one read is let through to probe the database. */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Threads running the guarded database reads, capped at the Hikari maximum pool size;
+     * reads beyond them and the queue fail fast without counting as failures.
+     */
+    private int loadThreads = 8;
+
+    /** Guarded reads of different keys waiting for a thread. */
+    private int queueCapacity = 100;
+
+    /** Maximum number of last known values kept per cache. */
+    private long staleMaximumSize = 50_000;
+}
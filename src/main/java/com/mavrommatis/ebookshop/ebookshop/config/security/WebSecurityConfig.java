@@ -14,6 +14,8 @@ import org.springframework.security.web.SecurityFilterChain;
  * <p>This configuration:
  * <ul>
  *   <li>Allows anonymous access to public pages: /, /login, /common/**.</li>
+ *   <li>Allows anonymous access to /actuator/health and its liveness and readiness groups,
+ *       so load balancer probes get the health status instead of a redirect to /login.</li>
  *   <li>Restricts /admin/** to users with role ADMIN.</li>
  *   <li>Restricts /user/** to users with roles CUSTOMER, EMPLOYEE, or ADMIN.</li>
  *   <li>Requires authentication for all other requests.</li>
@@ -35,6 +37,7 @@ public class WebSecurityConfig extends BaseSecurityConfig {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/", "/login", "/common/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/user/**").hasAnyRole("CUSTOMER", "EMPLOYEE", "ADMIN")
                         .anyRequest().authenticated()
@@ -0,0 +1,12 @@
+package com.mavrommatis.ebookshop.ebookshop.config.warmup;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class to enable the startup warm-up settings ({@link WarmupProperties}).
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+}
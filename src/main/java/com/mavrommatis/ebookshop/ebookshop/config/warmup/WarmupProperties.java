@@ -0,0 +1,47 @@
+package com.mavrommatis.ebookshop.ebookshop.config.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the startup warm-up ({@code ebookshop.warmup.*}).
+ * <p>
+ * The hot ids are taken from {@link #bookIds} / {@link #authorIds} when set, otherwise
+ * from the hot keys saved by the previous run ({@code ebookshop.hot-keys.file}) when
+ * present, otherwise from the {@link #accessLog} when set, otherwise from the database
+ * (most reviewed books, authors with the most books). At most {@link #topN} ids of each
+ * kind are warmed.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "ebookshop.warmup")
+public class WarmupProperties {
+
+    /** Whether the warm-up runs before the instance reports ready. */
+    private boolean enabled = true;
+
+    /** Maximum number of books and of authors to warm up. */
+    private int topN = 100;
+
+    /** Explicit list of hot book ids. */
+    private List<Integer> bookIds = new ArrayList<>();
+
+    /** Explicit list of hot author ids. */
+    private List<Integer> authorIds = new ArrayList<>();
+
+    /** Path of an access log whose {@code GET /api/books/{id}} and {@code /api/authors/{id}} lines are counted. */
+    private String accessLog;
+
+    /** Warm-up tasks run at the same time; keep it below the connection pool size. */
+    private int parallelism = 4;
+
+    /** Passes of HTTP requests over the hot ids, to get the web, mapping and JSON paths compiled. */
+    private int rounds = 3;
+
+    /** Upper bound of the whole warm-up; the instance reports ready when it expires even if unfinished. */
+    private Duration timeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,62 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookIdEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for set-based writes of author-book associations.
+ * <p>
+ * Associations are inserted with one multi-row {@code INSERT} statement instead of one
+ * statement per {@link AuthorBookEntity}. The statement bypasses the persistence context:
+ * callers validate the pairs first and must not hold the inserted associations as entities.
+ * </p>
+ */
+@Repository
+public class AuthorBookBulkRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs an AuthorBookBulkRepository with the shared entity manager.
+     *
+     * @param entityManager the JPA entity manager
+     */
+    public AuthorBookBulkRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Inserts the associations in the current transaction, with the same timestamps as a
+     * persisted {@link AuthorBookEntity}: the creation time and no update time.
+     *
+     * @param ids       keys of the associations; none of them may exist yet
+     * @param createdAt creation timestamp of every association
+     * @return number of inserted rows
+     */
+    public int insertAll(List<AuthorBookIdEntity> ids, LocalDateTime createdAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("insert into author_book (author_id, book_id, created_at, updated_at) values ");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, null)" : ", (?, ?, ?, null)");
+        }
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (AuthorBookIdEntity id : ids) {
+            query.setParameter(position++, id.getAuthorId());
+            query.setParameter(position++, id.getBookId());
+            query.setParameter(position++, createdAt);
+        }
+        // Without a query space Hibernate would evict the whole second-level cache
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(AuthorBookEntity.class);
+        return query.executeUpdate();
+    }
+}
@@ -2,9 +2,20 @@ package com.mavrommatis.ebookshop.ebookshop.dao;
 
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookIdEntity;
+import com.mavrommatis.ebookshop.ebookshop.support.TableFingerprint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for managing {@link AuthorBookEntity} persistence.
  * <p>
@@ -23,4 +34,60 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AuthorBookRepository extends JpaRepository<AuthorBookEntity, AuthorBookIdEntity> {
+
+    /**
+     * Keyset page over the composite primary key: associations positioned after
+     * {@code (authorId, bookId)}, ordered by author and then book.
+     *
+     * @param authorId author id of the last association of the previous page (0 for the first page)
+     * @param bookId   book id of the last association of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next associations after the given key
+     */
+    @Query("select ab from AuthorBookEntity ab " +
+           "where ab.id.authorId > :authorId " +
+           "   or (ab.id.authorId = :authorId and ab.id.bookId > :bookId) " +
+           "order by ab.id.authorId asc, ab.id.bookId asc")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<AuthorBookEntity> findPageAfter(@Param("authorId") int authorId,
+                                         @Param("bookId") int bookId,
+                                         Pageable pageable);
+
+    /**
+     * Retrieve the keys of every association for a full load of the catalog snapshot.
+     *
+     * @return all association keys
+     */
+    @Query("select ab.id from AuthorBookEntity ab")
+    List<AuthorBookIdEntity> findAllIds();
+
+    /**
+     * Retrieve the keys of the associations created or changed after the given time,
+     * for an incremental refresh of the catalog snapshot.
+     *
+     * @param since the watermark of the previous refresh
+     * @return the changed association keys
+     */
+    @Query("select ab.id from AuthorBookEntity ab where coalesce(ab.updatedAt, ab.createdAt) > :since")
+    List<AuthorBookIdEntity> findIdsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Row count and key checksum of the association table, compared with the catalog
+     * snapshot to detect deletes. The checksum of a key is {@code authorId * 65536 + bookId}.
+     *
+     * @return the fingerprint
+     */
+    @Query("select new com.mavrommatis.ebookshop.ebookshop.support.TableFingerprint("
+           + "count(ab), coalesce(sum(ab.id.authorId * 65536 + ab.id.bookId), 0L)) from AuthorBookEntity ab")
+    TableFingerprint findCatalogFingerprint();
+
+    /**
+     * Which of the given associations exist, in a single row-value {@code IN} query
+     * ({@code (author_id, book_id) in ((?, ?), ...)}).
+     *
+     * @param ids the association keys
+     * @return the existing ones, in no particular order
+     */
+    @Query("select ab.id from AuthorBookEntity ab where ab.id in :ids")
+    List<AuthorBookIdEntity> findExistingIds(@Param("ids") Collection<AuthorBookIdEntity> ids);
 }
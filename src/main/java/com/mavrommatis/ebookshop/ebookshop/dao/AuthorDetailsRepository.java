@@ -1,12 +1,26 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorDetailsEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 /**
  * Repository interface for managing AuthorDetails entities.
  * Each AuthorDetails record is linked to an Author via a shared primary key.
  */
 public interface AuthorDetailsRepository extends JpaRepository<AuthorDetailsEntity, Integer> {
-
+    /**
+     * Keyset page: author details with an author id greater than the given one, in ascending id order.
+     *
+     * @param authorId the id of the last row of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next rows after {@code authorId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<AuthorDetailsEntity> findByAuthorIdGreaterThanOrderByAuthorIdAsc(int authorId, Pageable pageable);
 }
@@ -1,12 +1,101 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for performing CRUD operations on Author entities.
  * Extends JpaRepository to provide standard database operations.
+ * <p>
+ * Read methods used to build author responses fetch-join the author details.
+ * </p>
  */
 public interface AuthorRepository extends JpaRepository<AuthorEntity, Integer> {
 
+    /**
+     * Retrieve the authors with the given ids together with their details in a single {@code IN} query.
+     * Order of the result is unspecified.
+     *
+     * @param ids the author identifiers
+     * @return the authors found
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "authorDetails")
+    List<AuthorEntity> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Keyset page: authors with an id greater than the given one, in ascending id order.
+     * Author details are fetched in the same query.
+     *
+     * @param authorId the id of the last author of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next authors after {@code authorId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "authorDetails")
+    List<AuthorEntity> findByAuthorIdGreaterThanOrderByAuthorIdAsc(int authorId, Pageable pageable);
+
+    /**
+     * Constructor projection of an author and its details straight into {@link AuthorResponseDTO},
+     * used by the read model when no managed entities are needed.
+     */
+    String RESPONSE_PROJECTION = "select new com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO("
+            + "a.authorId, a.firstName, a.lastName, a.email, a.createdAt, a.updatedAt,"
+            + " d.authorId, d.biography, d.birthDate, d.website)"
+            + " from AuthorEntity a left join a.authorDetails d";
+
+    /**
+     * Retrieve the authors with the given ids as response DTOs, without hydrating entities.
+     * Order of the result is unspecified.
+     *
+     * @param ids the author identifiers
+     * @return the authors found
+     */
+    @Query(RESPONSE_PROJECTION + " where a.authorId in :ids")
+    List<AuthorResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Keyset page of authors as response DTOs, without hydrating entities.
+     *
+     * @param afterId  the id of the last author of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next authors after {@code afterId}
+     */
+    @Query(RESPONSE_PROJECTION + " where a.authorId > :afterId order by a.authorId asc")
+    List<AuthorResponseDTO> findResponsesAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Aggregate validator of the author collection: the latest change to any author or
+     * author details, plus the number of author and details rows.
+     *
+     * @return the validator
+     */
+    @Query("select new com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion("
+            + "greatest(max(coalesce(a.updatedAt, a.createdAt)),"
+            + "         coalesce(max(coalesce(d.updatedAt, d.createdAt)), max(a.createdAt))),"
+            + " count(a) + count(d))"
+            + " from AuthorEntity a left join a.authorDetails d")
+    ResourceVersion findCollectionVersion();
+
+    /**
+     * Which of the given author ids exist, in a single {@code IN} query.
+     *
+     * @param ids the author identifiers
+     * @return the existing ones, in no particular order
+     */
+    @Query("select a.authorId from AuthorEntity a where a.authorId in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
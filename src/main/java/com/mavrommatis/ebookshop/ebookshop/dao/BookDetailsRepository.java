@@ -1,12 +1,26 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
 import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 /**
  * Repository interface for BookDetails.
  * BookDetails shares its primary key with Book (one-to-one relationship).
  */
 public interface BookDetailsRepository extends JpaRepository<BookDetailsEntity, Integer> {
-
+    /**
+     * Keyset page: book details with a book id greater than the given one, in ascending id order.
+     *
+     * @param bookId   the id of the last row of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next rows after {@code bookId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<BookDetailsEntity> findByBookIdGreaterThanOrderByBookIdAsc(int bookId, Pageable pageable);
 }
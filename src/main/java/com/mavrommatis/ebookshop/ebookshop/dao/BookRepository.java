@@ -1,12 +1,194 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogBookRow;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.TableFingerprint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for Book entities.
  * Provides methods for saving, updating, deleting and retrieving books.
+ * <p>
+ * Read methods used to build {@link com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO}s
+ * declare an entity graph that fetch-joins the author and the book details, so mapping
+ * a list of books never triggers one extra SELECT per row.
+ * </p>
+ * <p>
+ * Filtered searches use {@link BookSpecifications} through {@link JpaSpecificationExecutor}.
+ * </p>
  */
-public interface BookRepository extends JpaRepository<BookEntity, Integer> {
+public interface BookRepository extends JpaRepository<BookEntity, Integer>, JpaSpecificationExecutor<BookEntity> {
+
+    /**
+     * Retrieve the books with the given ids together with their author and details in a single
+     * {@code IN} query. Order of the result is unspecified.
+     * <p>
+     * The author's details are joined as well: {@code AuthorEntity.authorDetails} is the inverse
+     * side of its one-to-one, so Hibernate would otherwise load it with one query per author.
+     * </p>
+     *
+     * @param ids the book identifiers
+     * @return the books found
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"author", "author.authorDetails", "bookDetails"})
+    List<BookEntity> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Keyset page: books with an id greater than the given one, in ascending id order.
+     * Author and details are fetched in the same query.
+     *
+     * @param bookId   the id of the last book of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next books after {@code bookId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = {"author", "author.authorDetails", "bookDetails"})
+    List<BookEntity> findByBookIdGreaterThanOrderByBookIdAsc(int bookId, Pageable pageable);
+
+    /**
+     * Constructor projection of a book, its author and its details straight into {@link BookResponseDTO},
+     * used by the read model when no managed entities are needed.
+     */
+    String RESPONSE_PROJECTION = "select new com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO("
+            + "b.bookId, b.title, b.language, b.genre, b.literaryForm, b.isbn, b.isCollective,"
+            + " a.firstName, a.lastName,"
+            + " d.bookId, d.publishDate, d.pages, d.summary, d.dimensions, d.coverType, d.weight,"
+            + " b.createdAt, b.updatedAt)"
+            + " from BookEntity b join b.author a left join b.bookDetails d";
+
+    /**
+     * Retrieve the books with the given ids as response DTOs, without hydrating entities.
+     * Order of the result is unspecified.
+     *
+     * @param ids the book identifiers
+     * @return the books found
+     */
+    @Query(RESPONSE_PROJECTION + " where b.bookId in :ids")
+    List<BookResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Keyset page of books as response DTOs, without hydrating entities.
+     *
+     * @param afterId  the id of the last book of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next books after {@code afterId}
+     */
+    @Query(RESPONSE_PROJECTION + " where b.bookId > :afterId order by b.bookId asc")
+    List<BookResponseDTO> findResponsesAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Keyset page of the ids of an author's bibliography: the books they are the main author of
+     * plus the books linked to them through {@code author_book}, each id once.
+     * <p>
+     * Written as a {@code UNION} of two keyset branches rather than one {@code OR}, which MySQL
+     * can only answer by walking the whole book primary key: the first branch is a range of
+     * {@code idx_book_author} and the second one a range of the {@code author_book} primary key,
+     * both already in {@code book_id} order, so each reads at most {@code limit} rows.
+     * </p>
+     *
+     * @param authorId the author identifier
+     * @param afterId  the id of the last book of the previous page (0 for the first page)
+     * @param limit    maximum number of ids to return
+     * @return the next book ids of the author after {@code afterId}, in ascending order
+     */
+    @Query(value = "select ids.book_id from ("
+            + " (select b.book_id from book b"
+            + "   where b.author_id = :authorId and b.book_id > :afterId order by b.book_id limit :limit)"
+            + " union"
+            + " (select ab.book_id from author_book ab"
+            + "   where ab.author_id = :authorId and ab.book_id > :afterId order by ab.book_id limit :limit)"
+            + ") ids order by ids.book_id limit :limit",
+            nativeQuery = true)
+    List<Integer> findBibliographyIds(@Param("authorId") int authorId,
+                                      @Param("afterId") int afterId,
+                                      @Param("limit") int limit);
+
+    /**
+     * Aggregate validator of the book collection: the latest change to any book, author
+     * of a book or book details, plus the number of book and details rows.
+     *
+     * @return the validator
+     */
+    @Query("select new com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion("
+            + "greatest(max(coalesce(b.updatedAt, b.createdAt)), max(coalesce(a.updatedAt, a.createdAt)),"
+            + "         coalesce(max(coalesce(d.updatedAt, d.createdAt)), max(b.createdAt))),"
+            + " count(b) + count(d))"
+            + " from BookEntity b join b.author a left join b.bookDetails d")
+    ResourceVersion findCollectionVersion();
+
+    /**
+     * Constructor projection of a book into a {@link CatalogBookRow} of the catalog snapshot:
+     * the id of the main author followed by the columns of {@link #RESPONSE_PROJECTION}.
+     */
+    String CATALOG_PROJECTION = "select new com.mavrommatis.ebookshop.ebookshop.support.CatalogBookRow("
+            + "a.authorId,"
+            + " b.bookId, b.title, b.language, b.genre, b.literaryForm, b.isbn, b.isCollective,"
+            + " a.firstName, a.lastName,"
+            + " d.bookId, d.publishDate, d.pages, d.summary, d.dimensions, d.coverType, d.weight,"
+            + " b.createdAt, b.updatedAt)"
+            + " from BookEntity b join b.author a left join b.bookDetails d";
+
+    /**
+     * Retrieve every book for a full load of the catalog snapshot.
+     *
+     * @return all books with the id of their main author
+     */
+    @Query(CATALOG_PROJECTION)
+    List<CatalogBookRow> findCatalogRows();
+
+    /**
+     * Retrieve the books whose row, author or details changed after the given time,
+     * for an incremental refresh of the catalog snapshot.
+     *
+     * @param since the watermark of the previous refresh
+     * @return the changed books with the id of their main author
+     */
+    @Query(CATALOG_PROJECTION
+            + " where coalesce(b.updatedAt, b.createdAt) > :since"
+            + "    or coalesce(a.updatedAt, a.createdAt) > :since"
+            + "    or coalesce(d.updatedAt, d.createdAt) > :since")
+    List<CatalogBookRow> findCatalogRowsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Row count and id sum of the book table, compared with the catalog snapshot to detect deletes.
+     *
+     * @return the fingerprint
+     */
+    @Query("select new com.mavrommatis.ebookshop.ebookshop.support.TableFingerprint("
+            + "count(b), coalesce(sum(b.bookId), 0L)) from BookEntity b")
+    TableFingerprint findCatalogFingerprint();
+
+    /**
+     * Ids of the authors with the most books, used to pick the authors to warm up at startup.
+     *
+     * @param pageable limit of ids to fetch
+     * @return author ids, most published first
+     */
+    @Query("select b.author.authorId from BookEntity b group by b.author.authorId order by count(b) desc")
+    List<Integer> findMostPublishedAuthorIds(Pageable pageable);
 
+    /**
+     * Which of the given book ids exist, in a single {@code IN} query.
+     *
+     * @param ids the book identifiers
+     * @return the existing ones, in no particular order
+     */
+    @Query("select b.bookId from BookEntity b where b.bookId in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
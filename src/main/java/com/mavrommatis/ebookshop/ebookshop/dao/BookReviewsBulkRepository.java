@@ -0,0 +1,106 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsRequestDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookReviewsEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for set-based ingestion of book reviews.
+ * <p>
+ * Reviews are inserted with one multi-row {@code INSERT IGNORE} statement: rows that would
+ * break the {@code uq_review_per_book_per_customer} key or a foreign key are skipped by
+ * MySQL instead of failing the statement, so no row has to be checked beforehand. The
+ * statements bypass the persistence context: callers must not hold the inserted reviews
+ * as entities.
+ * </p>
+ */
+@Repository
+public class BookReviewsBulkRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a BookReviewsBulkRepository with the shared entity manager.
+     *
+     * @param entityManager the JPA entity manager
+     */
+    public BookReviewsBulkRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Inserts the reviews that break no constraint in the current transaction, with the same
+     * timestamps as a persisted {@link BookReviewsEntity}: the creation time and no update time.
+     * <p>
+     * The rows are one "simple insert", so InnoDB reserves one consecutive id per review up
+     * front; skipped reviews leave their id unused. The created reviews therefore all have
+     * ids from {@link #lastInsertId()} to {@code lastInsertId() + reviews.size() - 1}.
+     * </p>
+     *
+     * @param reviews   the reviews to insert; book and customer ids must not be {@code null}
+     * @param createdAt creation timestamp of every review
+     * @return number of inserted rows
+     */
+    public int insertIgnoreAll(List<BookReviewsRequestDTO> reviews, LocalDateTime createdAt) {
+        if (reviews.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(
+                "insert ignore into book_reviews (book_id, customer_id, rating, comment, created_at, updated_at) values ");
+        for (int i = 0; i < reviews.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, null)" : ", (?, ?, ?, ?, ?, null)");
+        }
+        Query query = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (BookReviewsRequestDTO review : reviews) {
+            query.setParameter(position++, review.getBookId());
+            query.setParameter(position++, review.getCustomerId());
+            query.setParameter(position++, review.getRating());
+            query.setParameter(position++, review.getComment());
+            query.setParameter(position++, createdAt);
+        }
+        // Without a query space Hibernate would evict the whole second-level cache
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(BookReviewsEntity.class);
+        return query.executeUpdate();
+    }
+
+    /**
+     * @return the id of the first row created by the last insert of the current connection
+     */
+    public int lastInsertId() {
+        return ((Number) entityManager.createNativeQuery("select last_insert_id()")
+                .getSingleResult()).intValue();
+    }
+
+    /**
+     * Finds the reviews of the given (book, customer) pairs, using the unique key.
+     *
+     * @param reviews the reviews whose pairs are looked up; ids must not be {@code null}
+     * @return one {@code [reviewId, bookId, customerId]} row per existing pair
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findIdsByBookAndCustomer(List<BookReviewsRequestDTO> reviews) {
+        if (reviews.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder(
+                "select review_id, book_id, customer_id from book_reviews where (book_id, customer_id) in (");
+        for (int i = 0; i < reviews.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        Query query = entityManager.createNativeQuery(sql.append(')').toString());
+        int position = 1;
+        for (BookReviewsRequestDTO review : reviews) {
+            query.setParameter(position++, review.getBookId());
+            query.setParameter(position++, review.getCustomerId());
+        }
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(BookReviewsEntity.class);
+        return query.getResultList();
+    }
+}
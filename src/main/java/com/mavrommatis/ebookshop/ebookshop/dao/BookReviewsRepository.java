@@ -1,9 +1,20 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsResponseDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookReviewsEntity;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing {@link BookReviewsEntity} persistence.
  * <p>
@@ -27,5 +38,61 @@ public interface BookReviewsRepository extends JpaRepository<BookReviewsEntity,
      * @param customerId the ID of the customer
      */
     boolean existsByBook_bookIdAndCustomer_customerId(Integer bookId, Integer customerId);
-}
 
+    /**
+     * Keyset page: reviews with an id greater than the given one, in ascending id order.
+     *
+     * @param reviewId the id of the last review of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next reviews after {@code reviewId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<BookReviewsEntity> findByReviewIdGreaterThanOrderByReviewIdAsc(int reviewId, Pageable pageable);
+
+    /**
+     * Constructor projection of a review straight into {@link BookReviewsResponseDTO},
+     * used by the read model when no managed entities are needed. Book and customer
+     * ids are read from the foreign key columns, so no join is issued.
+     */
+    String RESPONSE_PROJECTION = "select new com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsResponseDTO("
+            + "r.reviewId, r.book.bookId, r.customer.customerId, r.rating, r.comment, r.createdAt, r.updatedAt)"
+            + " from BookReviewsEntity r";
+
+    /**
+     * Retrieve a single review as a response DTO, without hydrating entities.
+     *
+     * @param id the review identifier
+     * @return the review, if found
+     */
+    @Query(RESPONSE_PROJECTION + " where r.reviewId = :id")
+    Optional<BookReviewsResponseDTO> findResponseById(@Param("id") int id);
+
+    /**
+     * Keyset page of reviews as response DTOs, without hydrating entities.
+     *
+     * @param afterId  the id of the last review of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next reviews after {@code afterId}
+     */
+    @Query(RESPONSE_PROJECTION + " where r.reviewId > :afterId order by r.reviewId asc")
+    List<BookReviewsResponseDTO> findResponsesAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Aggregate validator of the review collection: the latest change to any review,
+     * plus the number of reviews.
+     *
+     * @return the validator
+     */
+    @Query("select new com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion(max(coalesce(r.updatedAt, r.createdAt)), count(r))"
+            + " from BookReviewsEntity r")
+    ResourceVersion findCollectionVersion();
+
+    /**
+     * Ids of the books with the most reviews, used to pick the books to warm up at startup.
+     *
+     * @param pageable limit of ids to fetch
+     * @return book ids, most reviewed first
+     */
+    @Query("select r.book.bookId from BookReviewsEntity r group by r.book.bookId order by count(r) desc")
+    List<Integer> findMostReviewedBookIds(Pageable pageable);
+}
@@ -0,0 +1,100 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.BookSearchCriteria;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamic criteria for {@link BookRepository} searches.
+ * <p>
+ * Each filter except the collective flag maps to a column that leads one of the indexes
+ * declared on {@link BookEntity} and {@link BookDetailsEntity} (and in the schema script),
+ * so any combination with such a filter can be served from an index. The collective flag
+ * is a boolean matching about half of the books; it is only a trailing column of the
+ * composite indexes, and alone it is served by the keyset walk of the primary key. The
+ * details table is only joined when a publish date or page range is requested.
+ * </p>
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Builds the search predicate for the given criteria, positioned after a keyset cursor.
+     *
+     * @param criteria the requested filters; null fields are ignored
+     * @param afterId  the id of the last book of the previous page (0 for the first page)
+     * @return the specification
+     */
+    public static Specification<BookEntity> matching(BookSearchCriteria criteria, int afterId) {
+        return after(afterId).and(filtering(criteria));
+    }
+
+    /**
+     * Builds the keyset predicate: books with an id greater than the given one.
+     *
+     * @param afterId the id of the last book of the previous page (0 for the first page)
+     * @return the specification
+     */
+    public static Specification<BookEntity> after(int afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("bookId"), afterId);
+    }
+
+    /**
+     * Builds the filter predicates of the given criteria, without a keyset position.
+     *
+     * @param criteria the requested filters; null fields are ignored
+     * @return the specification
+     */
+    public static Specification<BookEntity> filtering(BookSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getGenre() != null) {
+                predicates.add(cb.equal(root.get("genre"), criteria.getGenre()));
+            }
+            if (criteria.getLanguage() != null) {
+                predicates.add(cb.equal(root.get("language"), criteria.getLanguage()));
+            }
+            if (criteria.getLiteraryForm() != null) {
+                predicates.add(cb.equal(root.get("literaryForm"), criteria.getLiteraryForm()));
+            }
+            if (criteria.getCollective() != null) {
+                predicates.add(cb.equal(root.get("isCollective"), criteria.getCollective()));
+            }
+            if (criteria.getAuthorId() != null) {
+                predicates.add(cb.equal(root.get("author").get("authorId"), criteria.getAuthorId()));
+            }
+
+            if (hasDetailsFilter(criteria)) {
+                Join<BookEntity, BookDetailsEntity> details = root.join("bookDetails", JoinType.INNER);
+                if (criteria.getPublishedFrom() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(details.get("publishDate"), criteria.getPublishedFrom()));
+                }
+                if (criteria.getPublishedTo() != null) {
+                    predicates.add(cb.lessThanOrEqualTo(details.get("publishDate"), criteria.getPublishedTo()));
+                }
+                if (criteria.getMinPages() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(details.get("pages"), criteria.getMinPages()));
+                }
+                if (criteria.getMaxPages() != null) {
+                    predicates.add(cb.lessThanOrEqualTo(details.get("pages"), criteria.getMaxPages()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasDetailsFilter(BookSearchCriteria criteria) {
+        return criteria.getPublishedFrom() != null || criteria.getPublishedTo() != null
+                || criteria.getMinPages() != null || criteria.getMaxPages() != null;
+    }
+}
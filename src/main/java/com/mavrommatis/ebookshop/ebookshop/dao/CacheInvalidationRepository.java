@@ -0,0 +1,45 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.entity.CacheInvalidationEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the cache invalidation log ({@link CacheInvalidationEntity}).
+ */
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEntity, Long> {
+
+    /**
+     * Entries after the given position, oldest first.
+     *
+     * @param invalidationId the position already read up to
+     * @param pageable       limit of entries to fetch
+     * @return the next entries
+     */
+    List<CacheInvalidationEntity> findByInvalidationIdGreaterThanOrderByInvalidationIdAsc(long invalidationId,
+                                                                                         Pageable pageable);
+
+    /**
+     * @return the position of the latest entry, or {@code null} if the log is empty
+     */
+    @Query("select max(c.invalidationId) from CacheInvalidationEntity c")
+    Long findLatestId();
+
+    /**
+     * Deletes the entries written before the given time.
+     *
+     * @param before the retention limit
+     * @return number of deleted entries
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidationEntity c where c.createdAt < :before")
+    int deleteWrittenBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,28 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.entity.CatalogVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Repository interface for the catalog version counter ({@link CatalogVersionEntity}).
+ */
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersionEntity, Byte> {
+
+    /**
+     * Increments the version in the current transaction; the row stays locked until it ends.
+     *
+     * @return number of updated rows, 1 if the row exists
+     */
+    @Modifying
+    @Query("update CatalogVersionEntity c set c.version = c.version + 1, c.updatedAt = current_timestamp"
+            + " where c.catalogVersionId = " + CatalogVersionEntity.ROW_ID)
+    int increment();
+
+    /**
+     * @return the current version, or {@code null} if the row is missing
+     */
+    @Query("select c.version from CatalogVersionEntity c where c.catalogVersionId = " + CatalogVersionEntity.ROW_ID)
+    Long findVersion();
+}
@@ -1,12 +1,26 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
 import com.mavrommatis.ebookshop.ebookshop.entity.CustomerDetailsEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 /**
  * Repository interface for CustomerDetails entities.
  * Contains personal information mapped one-to-one with Customer.
  */
 public interface CustomerDetailsRepository extends JpaRepository<CustomerDetailsEntity, Integer> {
-    
+    /**
+     * Keyset page: customer details with a customer id greater than the given one, in ascending id order.
+     *
+     * @param customerId the id of the last row of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next rows after {@code customerId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CustomerDetailsEntity> findByCustomerIdGreaterThanOrderByCustomerIdAsc(int customerId, Pageable pageable);
 }
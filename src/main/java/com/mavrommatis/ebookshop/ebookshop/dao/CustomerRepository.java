@@ -1,12 +1,78 @@
 package com.mavrommatis.ebookshop.ebookshop.dao;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.CustomerEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for Customer entities.
  * Provides access methods for user accounts, including email, username, etc.
+ * <p>
+ * Read methods used to build customer responses fetch-join the customer details.
+ * </p>
  */
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Integer> {
 
+    /**
+     * Retrieve the customers with the given ids together with their details in a single {@code IN} query.
+     * Order of the result is unspecified.
+     *
+     * @param ids the customer identifiers
+     * @return the customers found
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "customerDetails")
+    List<CustomerEntity> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Keyset page: customers with an id greater than the given one, in ascending id order.
+     * Customer details are fetched in the same query.
+     *
+     * @param customerId the id of the last customer of the previous page (0 for the first page)
+     * @param pageable   limit of rows to fetch
+     * @return the next customers after {@code customerId}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @EntityGraph(attributePaths = "customerDetails")
+    List<CustomerEntity> findByCustomerIdGreaterThanOrderByCustomerIdAsc(int customerId, Pageable pageable);
+
+    /**
+     * Constructor projection of a customer and its details straight into {@link CustomerResponseDTO},
+     * used by the read model when no managed entities are needed.
+     */
+    String RESPONSE_PROJECTION = "select new com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO("
+            + "c.customerId, c.username, c.email, c.createdAt, c.updatedAt,"
+            + " d.customerId, d.firstName, d.lastName, d.address, d.phone)"
+            + " from CustomerEntity c left join c.customerDetails d";
+
+    /**
+     * Retrieve the customers with the given ids as response DTOs, without hydrating entities.
+     * Order of the result is unspecified.
+     *
+     * @param ids the customer identifiers
+     * @return the customers found
+     */
+    @Query(RESPONSE_PROJECTION + " where c.customerId in :ids")
+    List<CustomerResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Keyset page of customers as response DTOs, without hydrating entities.
+     *
+     * @param afterId  the id of the last customer of the previous page (0 for the first page)
+     * @param pageable limit of rows to fetch
+     * @return the next customers after {@code afterId}
+     */
+    @Query(RESPONSE_PROJECTION + " where c.customerId > :afterId order by c.customerId asc")
+    List<CustomerResponseDTO> findResponsesAfter(@Param("afterId") int afterId, Pageable pageable);
 }
@@ -0,0 +1,107 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.support.FieldCatalog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Repository for sparse fieldset reads ({@code ?fields=}).
+ * <p>
+ * Builds a Criteria tuple query whose SELECT list and joins contain only the requested
+ * fields of a {@link FieldCatalog}, so large columns such as the book summary are only
+ * read from the database when a client asks for them. Rows are returned as maps shaped
+ * like the full response DTO.
+ * </p>
+ */
+@Repository
+public class FieldSelectionRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a FieldSelectionRepository with the shared entity manager.
+     *
+     * @param entityManager the JPA entity manager
+     */
+    public FieldSelectionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Keyset page of rows with an id greater than {@code afterId}, in ascending id order.
+     *
+     * @param catalog the field catalog of the resource
+     * @param fields  the resolved fields to select
+     * @param afterId the id of the last row of the previous page (0 for the first page)
+     * @param limit   maximum number of rows to fetch
+     * @return the selected rows
+     */
+    public List<Map<String, Object>> findPage(FieldCatalog catalog, List<String> fields, int afterId, int limit) {
+        return select(catalog, fields, (cb, id) -> cb.greaterThan(id, afterId), limit);
+    }
+
+    /**
+     * Single row by id.
+     *
+     * @param catalog the field catalog of the resource
+     * @param fields  the resolved fields to select
+     * @param id      the row identifier
+     * @return the selected row, if found
+     */
+    public Optional<Map<String, Object>> findById(FieldCatalog catalog, List<String> fields, int id) {
+        return select(catalog, fields, (cb, idPath) -> cb.equal(idPath, id), 1).stream().findFirst();
+    }
+
+    /**
+     * Rows with the given ids, in a single {@code IN} query, in ascending id order.
+     *
+     * @param catalog the field catalog of the resource
+     * @param fields  the resolved fields to select
+     * @param ids     the row identifiers
+     * @return the selected rows that exist
+     */
+    public List<Map<String, Object>> findAllById(FieldCatalog catalog, List<String> fields, Collection<Integer> ids) {
+        return select(catalog, fields, (cb, id) -> id.in(ids), ids.size());
+    }
+
+    private List<Map<String, Object>> select(FieldCatalog catalog, List<String> fields,
+                                             BiFunction<CriteriaBuilder, Expression<Integer>, Predicate> where,
+                                             int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(catalog.entityType());
+        FieldCatalog.Joins joins = new FieldCatalog.Joins(root);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(catalog.expression(field, cb, joins));
+        }
+        Expression<Integer> id = root.get(catalog.idField());
+        query.multiselect(selections)
+                .where(where.apply(cb, id))
+                .orderBy(cb.asc(id));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(catalog.toResponse(fields, row.toArray()));
+        }
+        return result;
+    }
+}
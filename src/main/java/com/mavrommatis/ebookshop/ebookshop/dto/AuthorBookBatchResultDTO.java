@@ -0,0 +1,71 @@
+package com.mavrommatis.ebookshop.ebookshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO returned by the batch connect endpoint of author-book associations.
+ * <p>
+ * Valid pairs are created; the others are listed in {@link #failures} with the reason,
+ * instead of failing the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthorBookBatchResultDTO {
+
+    /**
+     * Created associations, in request order.
+     */
+    private List<AuthorBookResponseDTO> created;
+
+    /**
+     * Requested pairs that were not created, in request order.
+     */
+    private List<Failure> failures;
+
+    /**
+     * Why a pair was not created.
+     */
+    public enum Reason {
+        /** No author exists with the author id. */
+        AUTHOR_NOT_FOUND,
+        /** No book exists with the book id. */
+        BOOK_NOT_FOUND,
+        /** The association already exists. */
+        ALREADY_EXISTS,
+        /** The pair was sent more than once; only its first occurrence is created. */
+        DUPLICATE_IN_REQUEST,
+        /** A concurrent request created the pair or deleted its author or book while it was written; it may be retried. */
+        CONCURRENT_CHANGE
+    }
+
+    /**
+     * A pair that was not created.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+
+        /**
+         * The requested author id.
+         */
+        private Integer authorId;
+
+        /**
+         * The requested book id.
+         */
+        private Integer bookId;
+
+        /**
+         * Why the pair was not created.
+         */
+        private Reason reason;
+    }
+}
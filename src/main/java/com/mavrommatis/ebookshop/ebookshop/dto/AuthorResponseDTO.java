@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -49,4 +50,15 @@ public class AuthorResponseDTO {
      * Associated details of the author, such as bio and birth date.
      */
     private AuthorDetailsDTO authorDetails;
+
+    /**
+     * Flat constructor used by JPQL constructor projections ({@code select new ...}).
+     * A {@code null} {@code detailsId} means the author has no details row.
+     */
+    public AuthorResponseDTO(int authorId, String firstName, String lastName, String email,
+                             LocalDateTime createdAt, LocalDateTime updatedAt,
+                             Integer detailsId, String biography, LocalDate birthDate, String website) {
+        this(authorId, firstName, lastName, email, createdAt, updatedAt,
+                detailsId == null ? null : new AuthorDetailsDTO(biography, birthDate, website));
+    }
 }
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -36,4 +38,25 @@ public class BookResponseDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /**
+     * Flat constructor used by JPQL constructor projections ({@code select new ...}),
+     * so read queries can build the response without hydrating entities.
+     * <p>
+     * The details columns come from a left join; a {@code null} {@code detailsId}
+     * means the book has no details row.
+     * </p>
+     */
+    public BookResponseDTO(int bookId, String title, String language, String genre,
+                           String literaryForm, String isbn, boolean isCollective,
+                           String authorFirstName, String authorLastName,
+                           Integer detailsId, LocalDate publishDate, Integer pages, String summary,
+                           String dimensions, String coverType, BigDecimal weight,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(bookId, title, language, genre, literaryForm, isbn, isCollective,
+                authorFirstName + ' ' + authorLastName,
+                detailsId == null ? null
+                        : new BookDetailsDTO(publishDate, pages, summary, dimensions, coverType, weight),
+                createdAt, updatedAt);
+    }
 }
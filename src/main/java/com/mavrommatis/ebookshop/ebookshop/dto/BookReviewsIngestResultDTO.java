@@ -0,0 +1,70 @@
+package com.mavrommatis.ebookshop.ebookshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO returned by the review ingestion endpoint.
+ * <p>
+ * Every submitted review gets one {@link Item}, in request order, telling whether it was
+ * created or why it was skipped, instead of failing the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookReviewsIngestResultDTO {
+
+    /**
+     * Outcome of each submitted review, in request order.
+     */
+    private List<Item> items;
+
+    /**
+     * Outcome of one submitted review.
+     */
+    public enum Status {
+        /** The review was created. */
+        CREATED,
+        /** The customer had already reviewed the book, or the pair was sent more than once. */
+        DUPLICATE,
+        /** The book or the customer does not exist. */
+        INVALID_FK,
+        /** Its chunk could not be classified and was rolled back; the review can be sent again. */
+        FAILED
+    }
+
+    /**
+     * The outcome of one submitted review.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        /**
+         * The submitted book id.
+         */
+        private Integer bookId;
+
+        /**
+         * The submitted customer id.
+         */
+        private Integer customerId;
+
+        /**
+         * Whether the review was created.
+         */
+        private Status status;
+
+        /**
+         * Id of the created review, or of the existing review for a duplicate;
+         * {@code null} for an invalid reference or a failed review.
+         */
+        private Integer reviewId;
+    }
+}
@@ -1,5 +1,9 @@
 package com.mavrommatis.ebookshop.ebookshop.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +13,7 @@ import lombok.NoArgsConstructor;
  * DTO for creating or updating a book review.
  * Client sends only the necessary fields:
  * bookId, customerId, rating, comment.
+ * The constraints are checked where the request is annotated with {@code @Valid}.
  */
 @Data
 @NoArgsConstructor
@@ -16,15 +21,23 @@ import lombok.NoArgsConstructor;
 @Builder
 public class BookReviewsRequestDTO {
 
+    /** Maximum length of a comment, in characters */
+    public static final int MAX_COMMENT_LENGTH = 2000;
+
     /** ID of the book being reviewed */
+    @NotNull
     private Integer bookId;
 
     /** ID of the customer submitting the review */
+    @NotNull
     private Integer customerId;
 
-    /** Numeric rating (e.g., 1–5) */
+    /** Numeric rating, from 1 to 5 */
+    @Min(1)
+    @Max(5)
     private int rating;
 
-    /** Optional comment */
+    /** Optional comment, up to {@value #MAX_COMMENT_LENGTH} characters */
+    @Size(max = MAX_COMMENT_LENGTH)
     private String comment;
 }
@@ -0,0 +1,67 @@
+package com.mavrommatis.ebookshop.ebookshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters accepted by the book search endpoint.
+ * Every field is optional; only the non-null ones are applied, combined with AND.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookSearchCriteria {
+
+    /**
+     * Exact genre (e.g. "Fantasy").
+     */
+    private String genre;
+
+    /**
+     * Exact language (e.g. "English").
+     */
+    private String language;
+
+    /**
+     * Exact literary form (e.g. "Novel").
+     */
+    private String literaryForm;
+
+    /**
+     * Whether the book is a collective work.
+     */
+    private Boolean collective;
+
+    /**
+     * ID of the main author.
+     */
+    private Integer authorId;
+
+    /**
+     * Earliest publish date, inclusive.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+
+    /**
+     * Latest publish date, inclusive.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+
+    /**
+     * Minimum number of pages, inclusive.
+     */
+    private Integer minPages;
+
+    /**
+     * Maximum number of pages, inclusive.
+     */
+    private Integer maxPages;
+}
@@ -0,0 +1,38 @@
+package com.mavrommatis.ebookshop.ebookshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO wrapping one page of a keyset (cursor) paginated listing.
+ * <p>
+ * Clients pass {@link #nextCursor} back as the {@code cursor} request parameter
+ * to fetch the following page; a {@code null} cursor marks the last page.
+ *
+ * @param <T> the type of the items in the page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+    /**
+     * Items of the current page, in ascending key order.
+     */
+    private List<T> items;
+
+    /**
+     * Opaque cursor pointing after the last item of this page, or {@code null} if there are no more items.
+     */
+    private String nextCursor;
+
+    /**
+     * Page size applied by the server after capping the requested size.
+     */
+    private int size;
+}
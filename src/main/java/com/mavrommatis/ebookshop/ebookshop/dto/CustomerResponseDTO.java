@@ -44,4 +44,16 @@ public class CustomerResponseDTO {
      * Detailed profile information of the customer.
      */
     private CustomerDetailsDTO customerDetails;
-}
\ No newline at end of file
+
+    /**
+     * Flat constructor used by JPQL constructor projections ({@code select new ...}).
+     * A {@code null} {@code detailsId} means the customer has no details row.
+     */
+    public CustomerResponseDTO(int customerId, String username, String email,
+                               LocalDateTime createdAt, LocalDateTime updatedAt,
+                               Integer detailsId, String firstName, String lastName,
+                               String address, String phone) {
+        this(customerId, username, email, createdAt, updatedAt,
+                detailsId == null ? null : new CustomerDetailsDTO(firstName, lastName, address, phone));
+    }
+}
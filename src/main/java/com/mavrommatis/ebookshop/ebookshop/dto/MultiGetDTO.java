@@ -0,0 +1,33 @@
+package com.mavrommatis.ebookshop.ebookshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO returned by the multi-get ({@code ?ids=}) endpoints.
+ * <p>
+ * Found items keep the order of the requested ids; ids that do not exist are
+ * listed in {@link #missingIds} instead of failing the whole request.
+ *
+ * @param <T> the type of the items
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiGetDTO<T> {
+
+    /**
+     * Found items, in the order their ids were requested (duplicates removed).
+     */
+    private List<T> items;
+
+    /**
+     * Requested ids for which no item exists, in request order.
+     */
+    private List<Integer> missingIds;
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,6 +18,8 @@ import java.util.List;
  * An author can have author details (1-1) and multiple books (1-many).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-author")
 @Table(name = "author")
 @Getter
 @Setter
@@ -25,9 +29,13 @@ public class AuthorEntity {
 
     /**
      * The primary key of the author.
+     * Allocated in blocks of 50 from {@code id_sequence}, the only source of these ids (the
+     * column has no {@code AUTO_INCREMENT}), so inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "author_id")
+    @TableGenerator(name = "author_id", table = "id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "author", allocationSize = 50)
     @Column(name = "author_id")
     private int authorId;
 
@@ -70,8 +78,11 @@ public class AuthorEntity {
 
     /**
      * One-to-many relation with BookEntity.
+     * The collection of book ids is kept in the second-level cache; it is evicted
+     * whenever a book's author changes (hibernate.cache.auto_evict_collection_cache).
      */
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-author-books")
     @JsonManagedReference
     private List<BookEntity> books = new ArrayList<>();
 
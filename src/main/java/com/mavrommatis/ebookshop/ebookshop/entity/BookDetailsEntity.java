@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,7 +19,12 @@ import java.time.LocalDateTime;
  * This entity is in a one-to-one relationship with {@link BookEntity}, sharing the same primary key.
  */
 @Entity
-@Table(name = "book_details")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-book-details")
+@Table(name = "book_details", indexes = {
+        @Index(name = "idx_book_details_publish_date", columnList = "publish_date"),
+        @Index(name = "idx_book_details_pages", columnList = "pages")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,6 +7,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,7 +20,14 @@ import java.util.List;
  * Additional information is handled via related entities such as BookDetailsEntity and AuthorBookEntity.
  */
 @Entity
-@Table(name = "book")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-book")
+@Table(name = "book", indexes = {
+        @Index(name = "idx_book_genre_language_form", columnList = "genre, language, literary_form, is_collective"),
+        @Index(name = "idx_book_language_form", columnList = "language, literary_form, is_collective"),
+        @Index(name = "idx_book_form_collective", columnList = "literary_form, is_collective"),
+        @Index(name = "idx_book_author", columnList = "author_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,9 +36,13 @@ public class BookEntity {
 
     /**
      * Unique identifier for the book (Primary Key).
+     * Allocated in blocks of 50 from {@code id_sequence}, the only source of these ids (the
+     * column has no {@code AUTO_INCREMENT}), so inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "book_id")
+    @TableGenerator(name = "book_id", table = "id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "book", allocationSize = 50)
     @Column(name = "book_id")
     private int bookId;
 
@@ -0,0 +1,95 @@
+package com.mavrommatis.ebookshop.ebookshop.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the cache invalidation log: a change that an instance made to its local
+ * caches, or a row it inserted, replayed by the other instances.
+ * <p>
+ * Entries are written in the transaction of the change they describe and are only
+ * visible to the other instances once it commits.
+ * </p>
+ */
+@Entity
+@Table(name = "cache_invalidation_log")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class CacheInvalidationEntity {
+
+    /**
+     * What the entry describes.
+     */
+    public enum Kind {
+        /** A single key of a cache was evicted or replaced. */
+        EVICT,
+        /** A whole cache was cleared. */
+        CLEAR,
+        /** A row was inserted; {@code name} is the entity name. */
+        INSERT
+    }
+
+    /**
+     * Position of the entry in the log.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "invalidation_id")
+    private long invalidationId;
+
+    /**
+     * What the entry describes.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 8)
+    private Kind kind;
+
+    /**
+     * Name of the cache (e.g. {@code books}), or of the entity for {@link Kind#INSERT}.
+     */
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    /**
+     * The cache key or row id; {@code null} for {@link Kind#CLEAR}.
+     */
+    @Column(name = "entry_key")
+    private Integer entryKey;
+
+    /**
+     * Id of the instance that wrote the entry.
+     */
+    @Column(name = "origin", nullable = false, length = 64)
+    private String origin;
+
+    /**
+     * Timestamp of when the entry was written, used for the propagation lag and for cleanup.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Constructor with fields.
+     */
+    public CacheInvalidationEntity(Kind kind, String name, Integer entryKey, String origin) {
+        this.kind = kind;
+        this.name = name;
+        this.entryKey = entryKey;
+        this.origin = origin;
+    }
+
+    /**
+     * Sets createdAt before persisting.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
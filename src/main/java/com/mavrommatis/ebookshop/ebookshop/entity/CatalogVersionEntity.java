@@ -0,0 +1,46 @@
+package com.mavrommatis.ebookshop.ebookshop.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row of {@code catalog_version}: a counter incremented by every committed
+ * write to the catalog (books, book details, authors, author details, author-book links).
+ */
+@Entity
+@Table(name = "catalog_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class CatalogVersionEntity {
+
+    /**
+     * Id of the only row, always {@link #ROW_ID}.
+     */
+    public static final byte ROW_ID = 1;
+
+    /**
+     * Primary key; the table has a single row.
+     */
+    @Id
+    @Column(name = "catalog_version_id")
+    private byte catalogVersionId;
+
+    /**
+     * Current version of the catalog.
+     */
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Timestamp of the last increment.
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -24,9 +24,13 @@ public class CustomerEntity {
 
     /**
      * Primary key for Customer entity.
+     * Allocated in blocks of 50 from {@code id_sequence}, the only source of these ids (the
+     * column has no {@code AUTO_INCREMENT}), so inserts can be JDBC-batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id")
+    @TableGenerator(name = "customer_id", table = "id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customer", allocationSize = 50)
     @Column(name = "customer_id")
     private int customerId;
 
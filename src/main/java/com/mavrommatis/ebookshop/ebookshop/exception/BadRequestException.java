@@ -0,0 +1,27 @@
+package com.mavrommatis.ebookshop.ebookshop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request parameter sent by the client cannot be used, e.g. a tampered cursor.
+ * Answered with 400 BAD REQUEST instead of the 500 of a plain {@link RuntimeException}.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * @param message description of the rejected parameter, e.g. {@code "Invalid cursor: abc"}
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * @param message description of the rejected parameter
+     * @param cause   the parsing failure
+     */
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
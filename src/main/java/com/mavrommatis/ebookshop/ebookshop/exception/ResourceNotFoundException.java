@@ -0,0 +1,19 @@
+package com.mavrommatis.ebookshop.ebookshop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a requested or referenced record does not exist.
+ * Answered with 404 NOT FOUND instead of the 500 of a plain {@link RuntimeException}.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ResourceNotFoundException extends RuntimeException {
+
+    /**
+     * @param message description of the missing record, e.g. {@code "Book not found: 42"}
+     */
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mavrommatis.ebookshop.ebookshop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the database cannot answer a read in time and no earlier value can be served.
+ * Answered with 503 SERVICE UNAVAILABLE, so clients and load balancers retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * @param message description of the read that could not be served
+     * @param cause   the database failure, or null when the circuit is open
+     */
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
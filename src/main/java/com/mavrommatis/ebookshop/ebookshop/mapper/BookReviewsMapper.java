@@ -29,7 +29,12 @@ public interface BookReviewsMapper {
 
     /**
      * Maps BookReviewsEntity to BookReviewResponseDTO.
+     * <p>
+     * - Book and customer ids are read from the associations.
+     * </p>
      */
+    @Mapping(target = "bookId", source = "book.bookId")
+    @Mapping(target = "customerId", source = "customer.customerId")
     BookReviewsResponseDTO toResponse(com.mavrommatis.ebookshop.ebookshop.entity.BookReviewsEntity entity);
 
     /**
@@ -1,7 +1,9 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.AuthorBookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -27,13 +29,17 @@ public class AuthorBookRestController {
     }
 
     /**
-     * Retrieve all author-book associations.
+     * Retrieve author-book associations one page at a time,
+     * ordered by author id and then book id.
      *
-     * @return a list of AuthorBookResponseDTO
+     * @param cursor the nextCursor of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @return a page of AuthorBookResponseDTO
      */
     @GetMapping
-    public List<AuthorBookResponseDTO> getAll() {
-        return authorBookService.findAll();
+    public CursorPageDTO<AuthorBookResponseDTO> getAll(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size) {
+        return authorBookService.findPage(cursor, size);
     }
 
     /**
@@ -69,16 +75,16 @@ public class AuthorBookRestController {
     /**
      * Connect multiple author-book associations in batch.
      * <p>
-     * Validates each pair, persists the link only if both Author and Book exist,
-     * and returns the list of created associations.
+     * Creates every valid pair and reports the others (unknown author or book, existing
+     * association, pair repeated in the request) instead of failing the whole batch.
      * </p>
      *
      * @param requests list of composite key DTOs to connect
-     * @return list of created AuthorBookResponseDTO
+     * @return the created associations and the rejected pairs
      */
     @PostMapping("/connect/batch")
     @ResponseStatus(HttpStatus.CREATED)
-    public List<AuthorBookResponseDTO> connectAll(@RequestBody List<AuthorBookRequestDTO> requests) {
+    public AuthorBookBatchResultDTO connectAll(@RequestBody List<AuthorBookRequestDTO> requests) {
         return authorBookService.connectAll(requests);
     }
 
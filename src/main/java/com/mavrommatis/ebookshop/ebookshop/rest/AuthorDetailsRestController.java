@@ -1,6 +1,7 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.AuthorDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -33,13 +34,16 @@ public class AuthorDetailsRestController {
     }
 
     /**
-     * Retrieve all author details records.
+     * Retrieve author details records one page at a time, in ascending author id order.
      *
-     * @return a list of {@link AuthorDetailsDTO} for all authors
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @return a {@link CursorPageDTO} of {@link AuthorDetailsDTO}
      */
     @GetMapping
-    public List<AuthorDetailsDTO> findAll() {
-        return authorDetailsService.findAll();
+    public CursorPageDTO<AuthorDetailsDTO> findAll(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
+        return authorDetailsService.findPage(cursor, size);
     }
 
     /**
@@ -2,13 +2,21 @@ package com.mavrommatis.ebookshop.ebookshop.rest;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.AuthorService;
+import com.mavrommatis.ebookshop.ebookshop.service.BookService;
+import com.mavrommatis.ebookshop.ebookshop.support.JsonResponseCache;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing authors via DTOs.
@@ -23,38 +31,137 @@ import java.util.List;
 public class AuthorRestController {
 
     private final AuthorService authorService;
+    private final BookService bookService;
+    private final JsonResponseCache jsonCache;
 
     /**
-     * Constructor-based injection of the author service.
+     * Constructor-based injection of the author and book services.
      *
      * @param authorService the service handling author business logic
+     * @param bookService   the service handling book reads for an author's bibliography
+     * @param jsonCache     cache of the serialized single-author bodies
      */
     @Autowired
-    public AuthorRestController(AuthorService authorService) {
+    public AuthorRestController(AuthorService authorService, BookService bookService, JsonResponseCache jsonCache) {
         this.authorService = authorService;
+        this.bookService   = bookService;
+        this.jsonCache     = jsonCache;
     }
 
     /**
-     * Retrieve all authors.
+     * Retrieve authors one page at a time, in ascending id order.
      *
-     * @return 200 OK with a list of {@link AuthorResponseDTO}
+     * <p>
+     * Supports conditional GET: the ETag of every page is the catalog version, which every
+     * author write increments, and a matching {@code If-None-Match} gets 304 without any query.
+     * </p>
+     *
+     * @param cursor  the {@code nextCursor} of the previous page; omit for the first page
+     * @param size    requested page size (capped by the server)
+     * @param request the current request, used to evaluate conditional headers
+     * @return 200 OK with a {@link CursorPageDTO} of {@link AuthorResponseDTO},
+     *         or 304 NOT MODIFIED
      */
     @GetMapping
-    public List<AuthorResponseDTO> findAll() {
-        return authorService.findAll();
+    public CursorPageDTO<AuthorResponseDTO> findAll(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    WebRequest request) {
+        ResourceVersion version = authorService.findCollectionVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return authorService.findPage(cursor, size);
+    }
+
+    /**
+     * Retrieve authors one page at a time with only the requested fields,
+     * e.g. {@code ?fields=authorId,email}.
+     *
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial author objects
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public CursorPageDTO<Map<String, Object>> findAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam List<String> fields) {
+        return authorService.findPage(cursor, size, fields);
+    }
+
+    /**
+     * Retrieve several authors by id in one call, e.g. {@code ?ids=3,1,2}.
+     * Items come back in request order; unknown ids are listed in {@code missingIds}.
+     *
+     * @param ids comma-separated author ids
+     * @return a {@link MultiGetDTO} of {@link AuthorResponseDTO}
+     */
+    @GetMapping(params = "ids")
+    public MultiGetDTO<AuthorResponseDTO> findAllById(@RequestParam List<Integer> ids) {
+        return authorService.findAllById(ids);
+    }
+
+    /**
+     * Retrieve several authors by id in one call with only the requested fields,
+     * e.g. {@code ?ids=3,1,2&fields=authorId,email}.
+     *
+     * @param ids    comma-separated author ids
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link MultiGetDTO} of partial author objects
+     */
+    @GetMapping(params = {"ids", "fields"})
+    public MultiGetDTO<Map<String, Object>> findAllById(@RequestParam List<Integer> ids,
+                                                        @RequestParam List<String> fields) {
+        return authorService.findAllById(ids, fields);
     }
 
     /**
      * Retrieve a specific author by ID.
      *
+     * <p>
+     * The JSON of the {@link AuthorResponseDTO} is written from the {@link JsonResponseCache},
+     * which also supports conditional GET: a matching {@code If-None-Match} gets 304, without
+     * any query when the author is cached.
+     * </p>
+     *
      * @param authorId the ID of the author to retrieve
+     * @param request  the current request, used to evaluate conditional headers
      * @return 200 OK with the {@link AuthorResponseDTO} if found,
+     *         304 NOT MODIFIED if the client's copy is current,
      *         or 404 NOT FOUND if no such author exists
      */
     @GetMapping("/{authorId}")
-    public ResponseEntity<AuthorResponseDTO> findById(@PathVariable Integer authorId) {
+    public ResponseEntity<byte[]> findById(@PathVariable Integer authorId, WebRequest request) {
         AuthorResponseDTO dto = authorService.findById(authorId);
-        return ResponseEntity.ok(dto);
+        return jsonCache.ok(dto, request);
+    }
+
+    /**
+     * Retrieve a specific author with only the requested fields.
+     *
+     * @param authorId the author identifier
+     * @param fields   comma-separated response field names; dotted names select nested fields
+     * @return the partial author object
+     */
+    @GetMapping(value = "/{authorId}", params = "fields")
+    public Map<String, Object> findById(@PathVariable Integer authorId, @RequestParam List<String> fields) {
+        return authorService.findById(authorId, fields);
+    }
+
+    /**
+     * Retrieve an author's bibliography one page at a time: the books they are the
+     * main author of and the books they co-authored, each listed once.
+     *
+     * @param authorId the ID of the author
+     * @param cursor   the {@code nextCursor} of the previous page; omit for the first page
+     * @param size     requested page size (capped by the server)
+     * @return 200 OK with a {@link CursorPageDTO} of {@link BookResponseDTO}
+     */
+    @GetMapping("/{authorId}/books")
+    public CursorPageDTO<BookResponseDTO> findBooks(@PathVariable Integer authorId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        return bookService.findBibliography(authorId, cursor, size);
     }
 
     /**
@@ -104,9 +211,7 @@ public class AuthorRestController {
      */
     @PostMapping("/batch")
     public List<AuthorResponseDTO> batchSave(@RequestBody List<AuthorRequestDTO> requests) {
-        return requests.stream()
-                .map(authorService::save)
-                .toList();
+        return authorService.saveAll(requests);
     }
 
     /**
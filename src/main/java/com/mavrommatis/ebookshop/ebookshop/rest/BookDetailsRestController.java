@@ -1,6 +1,7 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.BookDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.BookDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -30,13 +31,16 @@ public class BookDetailsRestController {
     }
 
     /**
-     * Retrieve all book details.
+     * Retrieve book details records one page at a time, in ascending book id order.
      *
-     * @return list of {@link BookDetailsDTO}
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @return a {@link CursorPageDTO} of {@link BookDetailsDTO}
      */
     @GetMapping
-    public List<BookDetailsDTO> findAll() {
-        return bookDetailsService.findAll();
+    public CursorPageDTO<BookDetailsDTO> findAll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return bookDetailsService.findPage(cursor, size);
     }
 
     /**
@@ -2,13 +2,20 @@ package com.mavrommatis.ebookshop.ebookshop.rest;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.BookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookSearchCriteria;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.BookService;
+import com.mavrommatis.ebookshop.ebookshop.support.JsonResponseCache;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing books via DTOs.
@@ -19,37 +26,131 @@ import java.util.List;
 public class BookRestController {
 
     private final BookService bookService;
+    private final JsonResponseCache jsonCache;
 
     /**
      * Constructor-based injection of BookService.
      *
      * @param bookService service handling book operations
+     * @param jsonCache   cache of the serialized single-book bodies
      */
     @Autowired
-    public BookRestController(BookService bookService) {
+    public BookRestController(BookService bookService, JsonResponseCache jsonCache) {
         this.bookService = bookService;
+        this.jsonCache   = jsonCache;
     }
 
     /**
-     * Retrieve all books.
+     * Retrieve books one page at a time, in ascending id order.
+     * <p>
+     * Supports conditional GET: the ETag of every page is the catalog version, which every
+     * write to books, their authors or details increments, and a matching
+     * {@code If-None-Match} gets 304 without any query.
+     * </p>
      *
-     * @return list of {@link BookResponseDTO}
+     * @param cursor  the {@code nextCursor} of the previous page; omit for the first page
+     * @param size    requested page size (capped by the server)
+     * @param request the current request, used to evaluate conditional headers
+     * @return a {@link CursorPageDTO} of {@link BookResponseDTO}, or no body with 304 Not Modified
      */
     @GetMapping
-    public List<BookResponseDTO> findAll() {
-        return bookService.findAll();
+    public CursorPageDTO<BookResponseDTO> findAll(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest request) {
+        ResourceVersion version = bookService.findCollectionVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return bookService.findPage(cursor, size);
+    }
+
+    /**
+     * Retrieve books one page at a time with only the requested fields,
+     * e.g. {@code ?fields=bookId,title,authorName}.
+     *
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial book objects
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public CursorPageDTO<Map<String, Object>> findAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam List<String> fields) {
+        return bookService.findPage(cursor, size, fields);
+    }
+
+    /**
+     * Retrieve several books by id in one call, e.g. {@code ?ids=3,1,2}.
+     * Items come back in request order; unknown ids are listed in {@code missingIds}.
+     *
+     * @param ids comma-separated book ids
+     * @return a {@link MultiGetDTO} of {@link BookResponseDTO}
+     */
+    @GetMapping(params = "ids")
+    public MultiGetDTO<BookResponseDTO> findAllById(@RequestParam List<Integer> ids) {
+        return bookService.findAllById(ids);
+    }
+
+    /**
+     * Retrieve several books by id in one call with only the requested fields,
+     * e.g. {@code ?ids=3,1,2&fields=bookId,title}.
+     *
+     * @param ids    comma-separated book ids
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link MultiGetDTO} of partial book objects
+     */
+    @GetMapping(params = {"ids", "fields"})
+    public MultiGetDTO<Map<String, Object>> findAllById(@RequestParam List<Integer> ids,
+                                                        @RequestParam List<String> fields) {
+        return bookService.findAllById(ids, fields);
+    }
+
+    /**
+     * Search books by genre, language, literary form, collective flag, author,
+     * publish date range and page range, e.g.
+     * {@code /api/books/search?genre=Fantasy&language=English&minPages=300}.
+     *
+     * @param criteria the filters, bound from query parameters; all optional
+     * @param cursor   the {@code nextCursor} of the previous page; omit for the first page
+     * @param size     requested page size (capped by the server)
+     * @return a {@link CursorPageDTO} of matching {@link BookResponseDTO}
+     */
+    @GetMapping("/search")
+    public CursorPageDTO<BookResponseDTO> search(BookSearchCriteria criteria,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return bookService.search(criteria, cursor, size);
     }
 
     /**
      * Retrieve a single book by its ID.
+     * <p>
+     * The JSON of the {@link BookResponseDTO} is written from the {@link JsonResponseCache},
+     * which also supports conditional GET: a matching {@code If-None-Match} gets 304, without
+     * any query when the book is cached.
+     * </p>
      *
-     * @param bookId the book identifier
-     * @return the {@link BookResponseDTO} of the found book
+     * @param bookId  the book identifier
+     * @param request the current request, used to evaluate conditional headers
+     * @return the JSON of the found book, or no body with 304 Not Modified
      */
     @GetMapping("/{bookId}")
-    public ResponseEntity<BookResponseDTO> findById(@PathVariable Integer bookId) {
+    public ResponseEntity<byte[]> findById(@PathVariable Integer bookId, WebRequest request) {
         BookResponseDTO dto = bookService.findById(bookId);
-        return ResponseEntity.ok(dto);
+        return jsonCache.ok(dto, request);
+    }
+
+    /**
+     * Retrieve a specific book with only the requested fields.
+     *
+     * @param bookId the book identifier
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return the partial book object
+     */
+    @GetMapping(value = "/{bookId}", params = "fields")
+    public Map<String, Object> findById(@PathVariable Integer bookId, @RequestParam List<String> fields) {
+        return bookService.findById(bookId, fields);
     }
 
     /**
@@ -99,9 +200,7 @@ public class BookRestController {
      */
     @PostMapping("/batch")
     public List<BookResponseDTO> saveAll(@RequestBody List<BookRequestDTO> requests) {
-        return requests.stream()
-                .map(bookService::save)
-                .toList();
+        return bookService.saveAll(requests);
     }
 
     /**
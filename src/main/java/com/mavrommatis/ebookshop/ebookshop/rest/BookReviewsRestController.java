@@ -1,11 +1,18 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.BookReviewsService;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,24 +35,49 @@ public class BookReviewsRestController {
     }
 
     /**
-     * Return all book reviews.
+     * Return book reviews one page at a time, in ascending id order.
      *
-     * @return a list of BookReviewResponseDTO
+     * Answers 304 when the collection has not changed since the client's copy. The validator
+     * is an aggregate over the whole table, so it is only computed for requests that carry
+     * {@code If-None-Match} or {@code If-Modified-Since}; clients start revalidating with the
+     * {@code Date} of their copy and get the ETag with the first conditional response.
+     *
+     * @param cursor  the nextCursor of the previous page; omit for the first page
+     * @param size    requested page size (capped by the server)
+     * @param request the current request, used to evaluate conditional headers
+     * @return a page of BookReviewResponseDTO, or no body with 304 Not Modified
      */
     @GetMapping
-    public List<BookReviewsResponseDTO> getAll() {
-        return bookReviewService.findAll();
+    public CursorPageDTO<BookReviewsResponseDTO> getAll(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        WebRequest request) {
+        if (isConditional(request)) {
+            ResourceVersion version = bookReviewService.findCollectionVersion();
+            if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+                return null;
+            }
+        }
+        return bookReviewService.findPage(cursor, size);
     }
 
     /**
      * Return a single book review by its ID.
      *
+     * Answers 304 when the review has not changed since the client's copy, judged by the
+     * timestamps of the cached response, so a revalidation needs no query of its own.
+     *
      * @param reviewsId the review’s ID
-     * @return the matching BookReviewResponseDTO
+     * @param request   the current request, used to evaluate conditional headers
+     * @return the matching BookReviewResponseDTO, or no body with 304 Not Modified
      */
     @GetMapping("/{reviewsId}")
-    public BookReviewsResponseDTO getById(@PathVariable Integer reviewsId) {
-        return bookReviewService.findById(reviewsId);
+    public BookReviewsResponseDTO getById(@PathVariable Integer reviewsId, WebRequest request) {
+        BookReviewsResponseDTO review = bookReviewService.findById(reviewsId);
+        ResourceVersion version = ResourceVersion.ofResponse(review.getCreatedAt(), review.getUpdatedAt());
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return review;
     }
 
     /**
@@ -100,6 +132,24 @@ public class BookReviewsRestController {
         return bookReviewService.saveAll(requests);
     }
 
+    /**
+     * Ingest a batch of book reviews in one pass.
+     * <p>
+     * Creates every review that breaks no constraint and reports the others (existing review,
+     * pair repeated in the request, unknown book or customer) instead of failing the whole batch.
+     * The reviews are validated before anything is written: a null review, a missing id,
+     * a rating outside 1–5 or a too long comment is answered with 400 BAD REQUEST.
+     * </p>
+     *
+     * @param requests list of review DTOs to ingest
+     * @return the outcome of each review, in request order
+     */
+    @PostMapping("/batch/ingest")
+    public BookReviewsIngestResultDTO ingestBatch(
+            @RequestBody List<@NotNull @Valid BookReviewsRequestDTO> requests) {
+        return bookReviewService.ingestAll(requests);
+    }
+
     /**
      * Delete multiple book reviews in batch.
      *
@@ -110,4 +160,9 @@ public class BookReviewsRestController {
     public void deleteBatch(@RequestBody List<Integer> ids) {
         bookReviewService.deleteAllById(ids);
     }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
 }
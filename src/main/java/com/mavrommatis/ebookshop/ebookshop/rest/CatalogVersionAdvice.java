@@ -0,0 +1,47 @@
+package com.mavrommatis.ebookshop.ebookshop.rest;
+
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sends the {@link CatalogVersion} known when a response is written as
+ * {@value #HEADER}, so clients can tell whether the catalog changed between two responses.
+ */
+@RestControllerAdvice
+public class CatalogVersionAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Catalog-Version";
+
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Constructs a CatalogVersionAdvice.
+     *
+     * @param catalogVersion the version sent with every response
+     */
+    public CatalogVersionAdvice(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        response.getHeaders().set(HEADER, Long.toString(catalogVersion.current()));
+        return body;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerDetailsDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.CustomerDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,13 +32,16 @@ public class CustomerDetailsRestController {
     }
 
     /**
-     * Retrieve all customer detail records.
+     * Retrieve customer details records one page at a time, in ascending customer id order.
      *
-     * @return list of {@link CustomerDetailsDTO}
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @return a {@link CursorPageDTO} of {@link CustomerDetailsDTO}
      */
     @GetMapping
-    public List<CustomerDetailsDTO> findAll() {
-        return customerDetailsService.findAll();
+    public CursorPageDTO<CustomerDetailsDTO> findAll(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return customerDetailsService.findPage(cursor, size);
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.mavrommatis.ebookshop.ebookshop.rest;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing customers via DTOs.
@@ -32,13 +35,58 @@ public class CustomerRestController {
     }
 
     /**
-     * Retrieve all customers.
+     * Retrieve customers one page at a time, in ascending id order.
      *
-     * @return list of {@link CustomerResponseDTO}
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @return a {@link CursorPageDTO} of {@link CustomerResponseDTO}
      */
     @GetMapping
-    public List<CustomerResponseDTO> findAll() {
-        return customerService.findAll();
+    public CursorPageDTO<CustomerResponseDTO> findAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
+        return customerService.findPage(cursor, size);
+    }
+
+    /**
+     * Retrieve customers one page at a time with only the requested fields,
+     * e.g. {@code ?fields=customerId,email}.
+     *
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size   requested page size (capped by the server)
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial customer objects
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public CursorPageDTO<Map<String, Object>> findAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam List<String> fields) {
+        return customerService.findPage(cursor, size, fields);
+    }
+
+    /**
+     * Retrieve several customers by id in one call, e.g. {@code ?ids=3,1,2}.
+     * Items come back in request order; unknown ids are listed in {@code missingIds}.
+     *
+     * @param ids comma-separated customer ids
+     * @return a {@link MultiGetDTO} of {@link CustomerResponseDTO}
+     */
+    @GetMapping(params = "ids")
+    public MultiGetDTO<CustomerResponseDTO> findAllById(@RequestParam List<Integer> ids) {
+        return customerService.findAllById(ids);
+    }
+
+    /**
+     * Retrieve several customers by id in one call with only the requested fields,
+     * e.g. {@code ?ids=3,1,2&fields=customerId,email}.
+     *
+     * @param ids    comma-separated customer ids
+     * @param fields comma-separated response field names; dotted names select nested fields
+     * @return a {@link MultiGetDTO} of partial customer objects
+     */
+    @GetMapping(params = {"ids", "fields"})
+    public MultiGetDTO<Map<String, Object>> findAllById(@RequestParam List<Integer> ids,
+                                                        @RequestParam List<String> fields) {
+        return customerService.findAllById(ids, fields);
     }
 
     /**
@@ -53,6 +101,18 @@ public class CustomerRestController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Retrieve a specific customer with only the requested fields.
+     *
+     * @param customerId the customer identifier
+     * @param fields     comma-separated response field names; dotted names select nested fields
+     * @return the partial customer object
+     */
+    @GetMapping(value = "/{customerId}", params = "fields")
+    public Map<String, Object> findById(@PathVariable Integer customerId, @RequestParam List<String> fields) {
+        return customerService.findById(customerId, fields);
+    }
+
     /**
      * Create a new customer.
      *
@@ -97,9 +157,7 @@ public class CustomerRestController {
      */
     @PostMapping("/batch")
     public List<CustomerResponseDTO> saveAllCustomers(@RequestBody List<CustomerRequestDTO> requests) {
-        return requests.stream()
-                .map(customerService::save)
-                .toList();
+        return customerService.saveAll(requests);
     }
 
     /**
@@ -0,0 +1,60 @@
+package com.mavrommatis.ebookshop.ebookshop.rest;
+
+import com.mavrommatis.ebookshop.ebookshop.support.HotKeyTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Counts the book, author and customer ids of the {@code GET} requests in the
+ * {@link HotKeyTracker}, from the {@code bookId}, {@code authorId} and {@code customerId}
+ * path variables of the matched endpoint.
+ */
+@Component
+public class HotKeyInterceptor implements HandlerInterceptor {
+
+    private static final Map<String, String> RESOURCES = Map.of(
+            "bookId", HotKeyTracker.BOOK,
+            "authorId", HotKeyTracker.AUTHOR,
+            "customerId", HotKeyTracker.CUSTOMER);
+
+    private final HotKeyTracker tracker;
+
+    /**
+     * Constructs a HotKeyInterceptor.
+     *
+     * @param tracker the tracker the ids are counted in
+     */
+    public HotKeyInterceptor(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!tracker.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return true;
+        }
+        variables.forEach((name, value) -> {
+            String resource = RESOURCES.get(name);
+            if (resource != null) {
+                try {
+                    tracker.record(resource, Integer.parseInt(value));
+                } catch (NumberFormatException e) {
+                    // not an id; the endpoint answers 400
+                }
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mavrommatis.ebookshop.ebookshop.rest;
+
+import com.mavrommatis.ebookshop.ebookshop.support.DegradedReads;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Labels responses that contain values served by {@link DegradedReads} while the database
+ * was unavailable: {@code Warning: 110 - "Response is Stale"}, and {@code Age} with the
+ * seconds since the oldest of them was loaded.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(DegradedReads.STALE_SINCE_ATTRIBUTE) instanceof Long since) {
+            long age = Math.max(0, (System.currentTimeMillis() - since) / 1000);
+            response.getHeaders().set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(age));
+        }
+        return body;
+    }
+}
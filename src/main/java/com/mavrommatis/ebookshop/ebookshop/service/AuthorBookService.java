@@ -1,7 +1,10 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
 
 import java.util.List;
 
@@ -21,6 +24,16 @@ public interface AuthorBookService {
      */
     List<AuthorBookResponseDTO> findAll();
 
+    /**
+     * Retrieve one page of author-book associations ordered by author id and then book id, using keyset pagination.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link AuthorBookResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
+     */
+    CursorPageDTO<AuthorBookResponseDTO> findPage(String cursor, Integer size);
+
     /**
      * Retrieve a specific author-book association by composite key.
      *
@@ -42,15 +55,15 @@ public interface AuthorBookService {
     /**
      * Create multiple author-book associations in batch.
      * <p>
-     * Validates each pair, persists the link only if both Author and Book exist,
-     * and returns the list of created associations.
+     * Pairs whose author or book does not exist, that already exist, or that are repeated
+     * in the request are not created and are reported with the reason; the other pairs
+     * are created.
      * </p>
      *
      * @param dtos list of {@link AuthorBookRequestDTO} to create
-     * @return list of {@link AuthorBookResponseDTO} of the created relationships
-     * @throws RuntimeException if any referenced Author or Book does not exist
+     * @return the created relationships and the rejected pairs
      */
-    List<AuthorBookResponseDTO> connectAll(List<AuthorBookRequestDTO> dtos);
+    AuthorBookBatchResultDTO connectAll(List<AuthorBookRequestDTO> dtos);
 
     /**
      * Delete an existing author-book association.
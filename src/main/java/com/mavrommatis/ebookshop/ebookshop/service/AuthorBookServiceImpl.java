@@ -1,20 +1,36 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorBookBulkRepository;
 import com.mavrommatis.ebookshop.ebookshop.dao.AuthorBookRepository;
 import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
 import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookIdEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.AuthorBookMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,34 +45,55 @@ import java.util.stream.Collectors;
 @Service
 public class AuthorBookServiceImpl implements AuthorBookService {
 
-    private final AuthorBookRepository repository;
-    private final AuthorBookMapper     mapper;
-    private final AuthorRepository     authorRepository;
-    private final BookRepository       bookRepository;
+    private final AuthorBookRepository     repository;
+    private final AuthorBookBulkRepository bulkRepository;
+    private final AuthorBookMapper         mapper;
+    private final AuthorRepository         authorRepository;
+    private final BookRepository           bookRepository;
+    private final CursorPaginator          paginator;
+    private final IdExistenceFilter        idFilter;
+    private final CatalogVersion           catalogVersion;
+    private final ChunkedWriter            chunkedWriter;
 
     /**
      * Constructs a new AuthorBookServiceImpl with the necessary dependencies.
      *
      * @param repository        repository for AuthorBookEntity persistence
+     * @param bulkRepository    multi-row inserts of associations
      * @param mapper            mapper for converting between DTOs and entities
      * @param authorRepository  repository for AuthorEntity lookup
      * @param bookRepository    repository for BookEntity lookup
+     * @param paginator         helper for keyset pagination
+     * @param idFilter          filter of ids known not to exist
+     * @param catalogVersion    version of the catalog, bumped by every write
+     * @param chunkedWriter     runs bulk writes in one transaction per chunk
      */
     @Autowired
-    public AuthorBookServiceImpl(AuthorBookRepository repository,
-                                 AuthorBookMapper     mapper,
-                                 AuthorRepository     authorRepository,
-                                 BookRepository       bookRepository) {
+    public AuthorBookServiceImpl(AuthorBookRepository     repository,
+                                 AuthorBookBulkRepository bulkRepository,
+                                 AuthorBookMapper         mapper,
+                                 AuthorRepository         authorRepository,
+                                 BookRepository           bookRepository,
+                                 CursorPaginator          paginator,
+                                 IdExistenceFilter        idFilter,
+                                 CatalogVersion           catalogVersion,
+                                 ChunkedWriter            chunkedWriter) {
         this.repository       = repository;
+        this.bulkRepository   = bulkRepository;
         this.mapper           = mapper;
         this.authorRepository = authorRepository;
         this.bookRepository   = bookRepository;
+        this.paginator        = paginator;
+        this.idFilter         = idFilter;
+        this.catalogVersion   = catalogVersion;
+        this.chunkedWriter    = chunkedWriter;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
     public List<AuthorBookResponseDTO> findAll() {
         return repository.findAll().stream()
                 .map(mapper::toResponse)
@@ -65,12 +102,31 @@ public class AuthorBookServiceImpl implements AuthorBookService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The cursor encodes the composite key {@code (authorId, bookId)} of the last association.
+     * </p>
      */
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AuthorBookResponseDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int[] after  = paginator.decode(cursor, 2);
+        List<AuthorBookEntity> rows = repository.findPageAfter(
+                after[0], after[1], paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::toResponse,
+                ab -> new int[]{ab.getId().getAuthorId(), ab.getId().getBookId()});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
     public AuthorBookResponseDTO findById(Integer authorId, Integer bookId) {
+        requireKnownIds(authorId, bookId);
         AuthorBookIdEntity id = new AuthorBookIdEntity(authorId, bookId);
         AuthorBookEntity entity = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException(
+                .orElseThrow(() -> new ResourceNotFoundException(
                         "Association not found: authorId=" + authorId + ", bookId=" + bookId));
         return mapper.toResponse(entity);
     }
@@ -86,13 +142,14 @@ public class AuthorBookServiceImpl implements AuthorBookService {
     @Transactional
     public AuthorBookResponseDTO connect(AuthorBookRequestDTO dto) {
         // 1. Ensure author exists
+        requireKnownIds(dto.getAuthorId(), dto.getBookId());
         AuthorEntity author = authorRepository.findById(dto.getAuthorId())
-                .orElseThrow(() -> new RuntimeException(
+                .orElseThrow(() -> new ResourceNotFoundException(
                         "Author not found: " + dto.getAuthorId()));
 
         // 2. Ensure book exists
         BookEntity book = bookRepository.findById(dto.getBookId())
-                .orElseThrow(() -> new RuntimeException(
+                .orElseThrow(() -> new ResourceNotFoundException(
                         "Book not found: " + dto.getBookId()));
 
         // 3. Prevent duplicate association
@@ -106,43 +163,136 @@ public class AuthorBookServiceImpl implements AuthorBookService {
         // 4. Build & persist the association entity
         AuthorBookEntity entity = new AuthorBookEntity(author, book);
         AuthorBookEntity saved  = repository.save(entity);
+        catalogVersion.bump();
         return mapper.toResponse(saved);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Validates each pair in the list:
-     * - both Author and Book must exist
-     * - the association must not already exist
-     * Persists the link if valid, and returns the list of created associations.
+     * Pairs are handled by the {@link ChunkedWriter}, one transaction per chunk. Each chunk
+     * is validated with three set queries (existing authors, existing books and existing
+     * associations, each with one {@code IN} list) and its valid pairs are written with one
+     * multi-row {@code INSERT}, instead of four statements per pair.
+     * </p>
+     * <p>
+     * A pair created or an author or book deleted by a concurrent request after the
+     * validation makes the insert fail; the chunk is then rolled back and its pairs are
+     * validated and written again one by one, and a pair that still fails is reported as
+     * {@link AuthorBookBatchResultDTO.Reason#CONCURRENT_CHANGE CONCURRENT_CHANGE}.
      * </p>
      */
     @Override
-    @Transactional
-    public List<AuthorBookResponseDTO> connectAll(List<AuthorBookRequestDTO> dtos) {
-        return dtos.stream().map(dto -> {
-            // validate existence
-            AuthorEntity author = authorRepository.findById(dto.getAuthorId())
-                    .orElseThrow(() -> new RuntimeException(
-                            "Author not found: " + dto.getAuthorId()));
-            BookEntity book = bookRepository.findById(dto.getBookId())
-                    .orElseThrow(() -> new RuntimeException(
-                            "Book not found: " + dto.getBookId()));
-
-            // prevent duplicate
-            AuthorBookIdEntity pk = new AuthorBookIdEntity(dto.getAuthorId(), dto.getBookId());
-            if (repository.existsById(pk)) {
-                throw new RuntimeException(
-                        "Association already exists: authorId=" + dto.getAuthorId() +
-                                ", bookId=" + dto.getBookId());
+    public AuthorBookBatchResultDTO connectAll(List<AuthorBookRequestDTO> dtos) {
+        Set<AuthorBookIdEntity> seen = new HashSet<>();
+        Function<List<AuthorBookRequestDTO>, List<PairOutcome>> writer = chunk -> connectChunk(chunk, seen);
+        List<PairOutcome> outcomes = chunkedWriter.write(dtos, writer, chunkedWriter.oneByOne(writer,
+                chunk -> chunk.stream()
+                        .map(dto -> PairOutcome.rejected(dto, AuthorBookBatchResultDTO.Reason.CONCURRENT_CHANGE))
+                        .toList()));
+
+        List<AuthorBookResponseDTO> created = new ArrayList<>();
+        List<AuthorBookBatchResultDTO.Failure> failures = new ArrayList<>();
+        for (PairOutcome outcome : outcomes) {
+            if (outcome.created() != null) {
+                created.add(outcome.created());
+            } else {
+                failures.add(outcome.failure());
+            }
+        }
+        return new AuthorBookBatchResultDTO(created, failures);
+    }
+
+    /**
+     * Validates and inserts one chunk of {@link #connectAll(List)}.
+     *
+     * @param chunk the requested pairs of the chunk
+     * @param seen  pairs created by the previous chunks, to report duplicates; the pairs of
+     *              this chunk are added once they are inserted
+     * @return the outcome of each pair of the chunk, in order
+     * @throws ChunkedWriter.RejectedChunkException if the insert breaks a key or a foreign key
+     */
+    private List<PairOutcome> connectChunk(List<AuthorBookRequestDTO> chunk, Set<AuthorBookIdEntity> seen) {
+        Set<Integer> authorIds = new HashSet<>();
+        Set<Integer> bookIds = new HashSet<>();
+        for (AuthorBookRequestDTO dto : chunk) {
+            if (dto.getAuthorId() != null && idFilter.mightExist(AuthorEntity.class, dto.getAuthorId())) {
+                authorIds.add(dto.getAuthorId());
+            }
+            if (dto.getBookId() != null && idFilter.mightExist(BookEntity.class, dto.getBookId())) {
+                bookIds.add(dto.getBookId());
+            }
+        }
+        Set<Integer> authors = authorIds.isEmpty()
+                ? Collections.<Integer>emptySet()
+                : new HashSet<>(authorRepository.findExistingIds(authorIds));
+        Set<Integer> books = bookIds.isEmpty()
+                ? Collections.<Integer>emptySet()
+                : new HashSet<>(bookRepository.findExistingIds(bookIds));
+
+        Set<AuthorBookIdEntity> candidates = new HashSet<>();
+        for (AuthorBookRequestDTO dto : chunk) {
+            if (authors.contains(dto.getAuthorId()) && books.contains(dto.getBookId())) {
+                candidates.add(new AuthorBookIdEntity(dto.getAuthorId(), dto.getBookId()));
+            }
+        }
+        Set<AuthorBookIdEntity> existing = candidates.isEmpty()
+                ? Collections.<AuthorBookIdEntity>emptySet()
+                : new HashSet<>(repository.findExistingIds(candidates));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PairOutcome> outcomes = new ArrayList<>(chunk.size());
+        Set<AuthorBookIdEntity> accepted = new LinkedHashSet<>();
+        for (AuthorBookRequestDTO dto : chunk) {
+            AuthorBookBatchResultDTO.Reason reason = rejection(dto, authors, books, existing, seen, accepted);
+            if (reason != null) {
+                outcomes.add(PairOutcome.rejected(dto, reason));
+            } else {
+                outcomes.add(new PairOutcome(
+                        new AuthorBookResponseDTO(dto.getAuthorId(), dto.getBookId(), now, null), null));
+            }
+        }
+        if (!accepted.isEmpty()) {
+            try {
+                bulkRepository.insertAll(new ArrayList<>(accepted), now);
+            } catch (DataIntegrityViolationException e) {
+                throw new ChunkedWriter.RejectedChunkException(
+                        "Associations changed concurrently since the validation: " + e.getMostSpecificCause().getMessage());
             }
+            catalogVersion.bump();
+            seen.addAll(accepted);
+        }
+        return outcomes;
+    }
 
-            // map & save
-            AuthorBookEntity entity = new AuthorBookEntity(author, book);
-            AuthorBookEntity saved  = repository.save(entity);
-            return mapper.toResponse(saved);
-        }).collect(Collectors.toList());
+    /**
+     * Why a pair of {@link #connectAll(List)} cannot be created, if it cannot.
+     *
+     * @param dto      the requested pair
+     * @param authors  existing author ids of the chunk
+     * @param books    existing book ids of the chunk
+     * @param existing existing associations of the chunk
+     * @param seen     pairs created by the previous chunks
+     * @param accepted pairs accepted so far in the chunk; the pair is added if it is accepted
+     * @return the reason, or {@code null} if the pair is valid
+     */
+    private static AuthorBookBatchResultDTO.Reason rejection(AuthorBookRequestDTO dto,
+                                                             Set<Integer> authors,
+                                                             Set<Integer> books,
+                                                             Set<AuthorBookIdEntity> existing,
+                                                             Set<AuthorBookIdEntity> seen,
+                                                             Set<AuthorBookIdEntity> accepted) {
+        if (!authors.contains(dto.getAuthorId())) {
+            return AuthorBookBatchResultDTO.Reason.AUTHOR_NOT_FOUND;
+        }
+        if (!books.contains(dto.getBookId())) {
+            return AuthorBookBatchResultDTO.Reason.BOOK_NOT_FOUND;
+        }
+        AuthorBookIdEntity id = new AuthorBookIdEntity(dto.getAuthorId(), dto.getBookId());
+        if (existing.contains(id)) {
+            return AuthorBookBatchResultDTO.Reason.ALREADY_EXISTS;
+        }
+        return !seen.contains(id) && accepted.add(id) ? null : AuthorBookBatchResultDTO.Reason.DUPLICATE_IN_REQUEST;
     }
 
     /**
@@ -152,10 +302,11 @@ public class AuthorBookServiceImpl implements AuthorBookService {
     public void deleteById(Integer authorId, Integer bookId) {
         AuthorBookIdEntity id = new AuthorBookIdEntity(authorId, bookId);
         if (!repository.existsById(id)) {
-            throw new RuntimeException(
+            throw new ResourceNotFoundException(
                     "Association not found: authorId=" + authorId + ", bookId=" + bookId);
         }
         repository.deleteById(id);
+        catalogVersion.bump();
     }
 
     /**
@@ -167,7 +318,7 @@ public class AuthorBookServiceImpl implements AuthorBookService {
         for (AuthorBookRequestDTO dto : dtos) {
             AuthorBookIdEntity id = new AuthorBookIdEntity(dto.getAuthorId(), dto.getBookId());
             if (!repository.existsById(id)) {
-                throw new RuntimeException(
+                throw new ResourceNotFoundException(
                         "Association not found: authorId=" + dto.getAuthorId() + ", bookId=" + dto.getBookId());
             }
         }
@@ -175,5 +326,33 @@ public class AuthorBookServiceImpl implements AuthorBookService {
             AuthorBookIdEntity id = new AuthorBookIdEntity(dto.getAuthorId(), dto.getBookId());
             repository.deleteById(id);
         });
+        catalogVersion.bump();
+    }
+
+    /**
+     * Rejects an author or book id that is known not to exist, without querying the database.
+     *
+     * @param authorId the author id
+     * @param bookId   the book id
+     */
+    private void requireKnownIds(Integer authorId, Integer bookId) {
+        if (!idFilter.mightExist(AuthorEntity.class, authorId)) {
+            throw new ResourceNotFoundException("Author not found: " + authorId);
+        }
+        if (!idFilter.mightExist(BookEntity.class, bookId)) {
+            throw new ResourceNotFoundException("Book not found: " + bookId);
+        }
+    }
+
+    /**
+     * Outcome of one requested pair of {@link #connectAll(List)}: either the created
+     * association or the failure.
+     */
+    private record PairOutcome(AuthorBookResponseDTO created, AuthorBookBatchResultDTO.Failure failure) {
+
+        static PairOutcome rejected(AuthorBookRequestDTO dto, AuthorBookBatchResultDTO.Reason reason) {
+            return new PairOutcome(null,
+                    new AuthorBookBatchResultDTO.Failure(dto.getAuthorId(), dto.getBookId(), reason));
+        }
     }
 }
@@ -1,6 +1,8 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
 import java.util.List;
 
 /**
@@ -11,11 +13,14 @@ import java.util.List;
 public interface AuthorDetailsService {
 
     /**
-     * Retrieve all author‐detail records.
+     * Retrieve one page of author details records in ascending author id order, using keyset pagination.
      *
-     * @return a list of {@link AuthorDetailsDTO}
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link AuthorDetailsDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<AuthorDetailsDTO> findAll();
+    CursorPageDTO<AuthorDetailsDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a single author‐detail record by author ID.
@@ -1,9 +1,16 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
 import com.mavrommatis.ebookshop.ebookshop.dao.AuthorDetailsRepository;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.AuthorMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,72 +25,99 @@ public class AuthorDetailsServiceImpl implements AuthorDetailsService {
 
     private final AuthorDetailsRepository repository;
     private final AuthorMapper mapper;
+    private final IdExistenceFilter idFilter;
+    private final CatalogVersion catalogVersion;
+    private final CursorPaginator paginator;
 
     /**
      * Constructor injection of repository and mapper.
      *
-     * @param repository the DAO for AuthorDetailsEntity
-     * @param mapper     the mapper for DTO ⇄ Entity conversions
+     * @param repository     the DAO for AuthorDetailsEntity
+     * @param mapper         the mapper for DTO ⇄ Entity conversions
+     * @param idFilter       filter of ids known not to exist
+     * @param catalogVersion version of the catalog, bumped by every write
+     * @param paginator      helper for keyset pagination
      */
     public AuthorDetailsServiceImpl(AuthorDetailsRepository repository,
-                                    AuthorMapper mapper) {
-        this.repository = repository;
-        this.mapper     = mapper;
+                                    AuthorMapper mapper,
+                                    IdExistenceFilter idFilter,
+                                    CatalogVersion catalogVersion,
+                                    CursorPaginator paginator) {
+        this.repository     = repository;
+        this.mapper         = mapper;
+        this.idFilter       = idFilter;
+        this.catalogVersion = catalogVersion;
+        this.paginator      = paginator;
     }
 
     @Override
-    public List<AuthorDetailsDTO> findAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AuthorDetailsDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<AuthorDetailsEntity> rows = repository.findByAuthorIdGreaterThanOrderByAuthorIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::toDto, d -> new int[]{d.getAuthorId()});
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AuthorDetailsDTO findById(Integer authorId) {
+        if (!idFilter.mightExist(AuthorDetailsEntity.class, authorId)) {
+            throw new ResourceNotFoundException("AuthorDetails not found: " + authorId);
+        }
         AuthorDetailsEntity entity = repository.findById(authorId)
-                .orElseThrow(() -> new RuntimeException("AuthorDetails not found: " + authorId));
+                .orElseThrow(() -> new ResourceNotFoundException("AuthorDetails not found: " + authorId));
         return mapper.toDto(entity);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.AUTHORS, allEntries = true)
     public AuthorDetailsDTO save(AuthorDetailsDTO dto) {
         // Map DTO → Entity
         AuthorDetailsEntity entity = mapper.toEntity(dto);
         // Persist (insert or update)
         AuthorDetailsEntity saved = repository.save(entity);
+        catalogVersion.bump();
         // Map back → DTO
         return mapper.toDto(saved);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.AUTHORS, allEntries = true)
     public List<AuthorDetailsDTO> saveAll(List<AuthorDetailsDTO> dtos) {
         List<AuthorDetailsEntity> entities = dtos.stream()
                 .map(mapper::toEntity)
                 .collect(Collectors.toList());
         List<AuthorDetailsEntity> saved = repository.saveAll(entities);
+        catalogVersion.bump();
         return saved.stream()
                 .map(mapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @CacheEvict(cacheNames = DtoCacheConfig.AUTHORS, key = "#authorId")
     public void deleteById(Integer authorId) {
-        if (!repository.existsById(authorId)) {
-            throw new RuntimeException("AuthorDetails not found: " + authorId);
+        if (!idFilter.mightExist(AuthorDetailsEntity.class, authorId) || !repository.existsById(authorId)) {
+            throw new ResourceNotFoundException("AuthorDetails not found: " + authorId);
         }
         repository.deleteById(authorId);
+        catalogVersion.bump();
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.AUTHORS, allEntries = true)
     public void deleteAllById(List<Integer> authorIds) {
         for (Integer id : authorIds) {
-            if (!repository.existsById(id)) {
-                throw new RuntimeException("AuthorDetails not found: " + id);
+            if (!idFilter.mightExist(AuthorDetailsEntity.class, id) || !repository.existsById(id)) {
+                throw new ResourceNotFoundException("AuthorDetails not found: " + id);
             }
         }
         repository.deleteAllById(authorIds);
+        catalogVersion.bump();
     }
 }
@@ -2,7 +2,12 @@ package com.mavrommatis.ebookshop.ebookshop.service;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing Author operations via DTOs.
@@ -13,11 +18,14 @@ import java.util.List;
 public interface AuthorService {
 
     /**
-     * Retrieve all authors.
+     * Retrieve one page of authors in ascending id order, using keyset pagination.
      *
-     * @return list of {@link AuthorResponseDTO}
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link AuthorResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<AuthorResponseDTO> findAll();
+    CursorPageDTO<AuthorResponseDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a specific author by ID.
@@ -28,6 +36,56 @@ public interface AuthorService {
      */
     AuthorResponseDTO findById(Integer id);
 
+    /**
+     * Retrieve an aggregate validator of all authors for conditional GETs of the collection,
+     * without a query: the current catalog version.
+     *
+     * @return the {@link ResourceVersion} of the collection
+     */
+    ResourceVersion findCollectionVersion();
+
+    /**
+     * Retrieve several authors by id in one call.
+     *
+     * @param ids the author identifiers; duplicates are ignored
+     * @return the found authors in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested
+     */
+    MultiGetDTO<AuthorResponseDTO> findAllById(List<Integer> ids);
+
+    /**
+     * Retrieve several authors by id in one call, containing only the requested fields.
+     *
+     * @param ids    the author identifiers; duplicates are ignored
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the found partial author objects in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested, or a field is unknown
+     */
+    MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields);
+
+    /**
+     * Retrieve one page of authors containing only the requested fields (sparse fieldset).
+     * Only the columns and joins needed for those fields are read from the database.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @param fields requested response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial author objects
+     * @throws BadRequestException if the cursor is malformed or a field is unknown
+     */
+    CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields);
+
+    /**
+     * Retrieve a specific author containing only the requested fields (sparse fieldset).
+     *
+     * @param id     the unique identifier of the author
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the partial author object
+     * @throws BadRequestException if a field is unknown
+     * @throws RuntimeException if no author is found with the given ID
+     */
+    Map<String, Object> findById(Integer id, List<String> fields);
+
     /**
      * Create a new author.
      *
@@ -36,6 +94,14 @@ public interface AuthorService {
      */
     AuthorResponseDTO save(AuthorRequestDTO dto);
 
+    /**
+     * Create several authors, in one transaction per chunk of requests.
+     *
+     * @param dtos the {@link AuthorRequestDTO} of each author
+     * @return a {@link AuthorResponseDTO} of each created author, in request order
+     */
+    List<AuthorResponseDTO> saveAll(List<AuthorRequestDTO> dtos);
+
     /**
      * Update an existing author.
      *
@@ -1,17 +1,42 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
 import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.FieldSelectionRepository;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorDetailsEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.AuthorMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.DegradedReads;
+import com.mavrommatis.ebookshop.ebookshop.support.FieldCatalog;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoader;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoaders;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import com.mavrommatis.ebookshop.ebookshop.support.IdListLookup;
+import com.mavrommatis.ebookshop.ebookshop.support.RequestCoalescer;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Service implementation for {@link AuthorService}, handling business logic
@@ -20,40 +45,197 @@ import java.util.stream.Collectors;
 @Service
 public class AuthorServiceImpl implements AuthorService {
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, named as in {@link AuthorResponseDTO}.
+     */
+    private static final FieldCatalog FIELDS = FieldCatalog.of(AuthorEntity.class, "authorId")
+            .attribute("firstName")
+            .attribute("lastName")
+            .attribute("email")
+            .attribute("createdAt")
+            .attribute("updatedAt")
+            .joined("authorDetails.biography", "authorDetails", JoinType.LEFT, "biography")
+            .joined("authorDetails.birthDate", "authorDetails", JoinType.LEFT, "birthDate")
+            .joined("authorDetails.website", "authorDetails", JoinType.LEFT, "website");
+
     private final AuthorRepository authorRepository;
     private final AuthorMapper authorMapper;
+    private final CursorPaginator paginator;
+    private final FieldSelectionRepository fieldSelection;
+    private final IdListLookup idListLookup;
+    private final RequestCoalescer coalescer;
+    private final IdBatchLoader<AuthorResponseDTO> byIdLoader;
+    private final IdExistenceFilter idFilter;
+    private final DegradedReads degradedReads;
+    private final CatalogVersion catalogVersion;
+    private final ChunkedWriter chunkedWriter;
+    private final CacheManager cacheManager;
+    private final boolean projectionEnabled;
 
     /**
      * Constructs an AuthorServiceImpl with the given repository and mapper.
      *
-     * @param authorRepository repository for Author entities
-     * @param authorMapper     mapper for converting between Author DTOs and entities
+     * @param authorRepository  repository for Author entities
+     * @param authorMapper      mapper for converting between Author DTOs and entities
+     * @param paginator         helper for keyset pagination
+     * @param fieldSelection    repository for sparse fieldset reads
+     * @param idListLookup      helper for multi-get reads
+     * @param coalescer         single-flight loader for reads by id
+     * @param idBatchLoaders    factory of the micro-batching loader for reads by id
+     * @param idFilter          filter of ids known not to exist
+     * @param degradedReads     fallback to last known values when the database is unavailable
+     * @param catalogVersion    version of the catalog, bumped by every write
+     * @param chunkedWriter     runs bulk creates in one transaction per chunk
+     * @param cacheManager      manager of the response DTO caches
+     * @param projectionEnabled whether reads project straight into response DTOs
+     *                          instead of mapping managed entities
      */
     @Autowired
     public AuthorServiceImpl(AuthorRepository authorRepository,
-                             AuthorMapper authorMapper) {
-        this.authorRepository = authorRepository;
-        this.authorMapper     = authorMapper;
+                             AuthorMapper authorMapper,
+                             CursorPaginator paginator,
+                             FieldSelectionRepository fieldSelection,
+                             IdListLookup idListLookup,
+                             RequestCoalescer coalescer,
+                             IdBatchLoaders idBatchLoaders,
+                             IdExistenceFilter idFilter,
+                             DegradedReads degradedReads,
+                             CatalogVersion catalogVersion,
+                             ChunkedWriter chunkedWriter,
+                             CacheManager cacheManager,
+                             @Value("${ebookshop.read-model.projection-enabled:true}") boolean projectionEnabled) {
+        this.authorRepository  = authorRepository;
+        this.authorMapper      = authorMapper;
+        this.paginator         = paginator;
+        this.fieldSelection    = fieldSelection;
+        this.idListLookup      = idListLookup;
+        this.coalescer         = coalescer;
+        this.byIdLoader        = idBatchLoaders.create("author",
+                ids -> projectionEnabled
+                        ? authorRepository.findResponsesByIdIn(ids)
+                        : authorRepository.findAllById(ids).stream().map(authorMapper::toResponse).toList(),
+                AuthorResponseDTO::getAuthorId,
+                id -> new ResourceNotFoundException("Author not found: " + id));
+        this.idFilter          = idFilter;
+        this.degradedReads     = degradedReads;
+        this.catalogVersion    = catalogVersion;
+        this.chunkedWriter     = chunkedWriter;
+        this.cacheManager      = cacheManager;
+        this.projectionEnabled = projectionEnabled;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Pages are cached in the {@value DtoCacheConfig#CATALOG_QUERIES} cache under the current
+     * {@link CatalogVersion}, so any catalog write invalidates them.
+     * </p>
      */
     @Override
-    public List<AuthorResponseDTO> findAll() {
-        return authorRepository.findAll().stream()
-                .map(authorMapper::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'authors.page', #cursor, #size}")
+    public CursorPageDTO<AuthorResponseDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        if (projectionEnabled) {
+            List<AuthorResponseDTO> rows = authorRepository.findResponsesAfter(afterId, paginator.seekLimit(pageSize));
+            return paginator.toPage(rows, pageSize, Function.identity(), a -> new int[]{a.getAuthorId()});
+        }
+        List<AuthorEntity> rows = authorRepository.findByAuthorIdGreaterThanOrderByAuthorIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, authorMapper::toResponse, a -> new int[]{a.getAuthorId()});
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The finished DTO is cached in the {@value DtoCacheConfig#AUTHORS} cache. On a miss,
+     * concurrent calls for the same id share one load through the {@link RequestCoalescer},
+     * and loads of different ids arriving within the batching window are merged into one
+     * {@code IN} query by the {@link IdBatchLoader}, which also opens the read-only transaction.
+     * </p>
+     * <p>
+     * The load goes through {@link DegradedReads}: when the database is slow or down, the
+     * last value loaded for the id is served (and not cached) while it is retried in the background.
+     * </p>
      */
     @Override
+    @Cacheable(cacheNames = DtoCacheConfig.AUTHORS, key = "#id", unless = "@degradedReads.servedStale()")
     public AuthorResponseDTO findById(Integer id) {
-        AuthorEntity entity = authorRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Author not found: " + id));
-        return authorMapper.toResponse(entity);
+        if (!idFilter.mightExist(AuthorEntity.class, id)) {
+            throw new ResourceNotFoundException("Author not found: " + id);
+        }
+        return degradedReads.read(DtoCacheConfig.AUTHORS, id,
+                () -> coalescer.load("author", id, () -> byIdLoader.load(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The version is read before the page, so the page is at least as new as its validator.
+     * </p>
+     */
+    @Override
+    public ResourceVersion findCollectionVersion() {
+        return ResourceVersion.ofCatalog(catalogVersion.current());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<AuthorResponseDTO> findAllById(List<Integer> ids) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<AuthorResponseDTO> found = projectionEnabled
+                ? authorRepository.findResponsesByIdIn(distinct)
+                : authorRepository.findAllById(distinct).stream().map(authorMapper::toResponse).toList();
+        return idListLookup.collect(distinct, found, AuthorResponseDTO::getAuthorId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<Map<String, Object>> found = fieldSelection.findAllById(FIELDS, FIELDS.resolve(fields), distinct);
+        return idListLookup.collect(distinct, found, row -> (Integer) row.get(FIELDS.idField()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pages are cached in the {@value DtoCacheConfig#CATALOG_QUERIES} cache under the current
+     * {@link CatalogVersion}, so any catalog write invalidates them.
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'authors.fields', #cursor, #size, #fields}")
+    public CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields) {
+        List<String> selected = FIELDS.resolve(fields);
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<Map<String, Object>> rows = fieldSelection.findPage(FIELDS, selected, afterId, pageSize + 1);
+        return paginator.toPage(rows, pageSize, Function.identity(),
+                row -> new int[]{(Integer) row.get(FIELDS.idField())});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(Integer id, List<String> fields) {
+        if (!idFilter.mightExist(AuthorEntity.class, id)) {
+            throw new ResourceNotFoundException("Author not found: " + id);
+        }
+        return fieldSelection.findById(FIELDS, FIELDS.resolve(fields), id)
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found: " + id));
     }
 
     /**
@@ -61,25 +243,46 @@ public class AuthorServiceImpl implements AuthorService {
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = DtoCacheConfig.AUTHORS, key = "#result.authorId")
     public AuthorResponseDTO save(AuthorRequestDTO dto) {
-        AuthorEntity author = authorMapper.toEntity(dto);
-        if (dto.getAuthorDetails() != null) {
-            AuthorDetailsEntity details = authorMapper.toEntity(dto.getAuthorDetails());
-            details.setAuthor(author);
-            author.setAuthorDetails(details);
-        }
-        AuthorEntity saved = authorRepository.save(author);
+        AuthorEntity saved = authorRepository.save(toEntity(dto));
+        catalogVersion.bump();
         return authorMapper.toResponse(saved);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Authors are inserted by the {@link ChunkedWriter}: one transaction and a few JDBC
+     * batches per chunk instead of a transaction and two statements per author. The created
+     * authors are not put in the {@value DtoCacheConfig#AUTHORS} cache.
+     * </p>
+     */
+    @Override
+    public List<AuthorResponseDTO> saveAll(List<AuthorRequestDTO> dtos) {
+        return chunkedWriter.write(dtos, chunk -> {
+            List<AuthorEntity> authors = chunk.stream().map(this::toEntity).toList();
+            authorRepository.saveAll(authors);
+            catalogVersion.bump();
+            return authors.stream().map(authorMapper::toResponse).toList();
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Book DTOs embed the author name, so the book cache is cleared as well.
+     * </p>
      */
     @Override
     @Transactional
+    @Caching(
+            put = @CachePut(cacheNames = DtoCacheConfig.AUTHORS, key = "#id"),
+            evict = @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true)
+    )
     public AuthorResponseDTO update(Integer id, AuthorRequestDTO dto) {
-        if (!authorRepository.existsById(id)) {
-            throw new RuntimeException("Cannot update. Author not found: " + id);
+        if (!idFilter.mightExist(AuthorEntity.class, id) || !authorRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Cannot update. Author not found: " + id);
         }
         AuthorEntity existing = authorRepository.findById(id).get();
         existing.setFirstName(dto.getFirstName());
@@ -98,31 +301,64 @@ public class AuthorServiceImpl implements AuthorService {
             }
         }
         AuthorEntity updated = authorRepository.save(existing);
+        catalogVersion.bump();
         return authorMapper.toResponse(updated);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Books of the author and their reviews are removed by cascade, so those caches are cleared too.
+     * </p>
      */
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheConfig.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true),
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
+    })
     public void deleteById(Integer id) {
-        if (!authorRepository.existsById(id)) {
-            throw new RuntimeException("Author not found: " + id);
+        if (!idFilter.mightExist(AuthorEntity.class, id) || !authorRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Author not found: " + id);
         }
         authorRepository.deleteById(id);
+        catalogVersion.bump();
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Evictions are registered inside the transaction and applied on commit.
+     * </p>
      */
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true),
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
+    })
     public void deleteAllById(List<Integer> ids) {
         for (Integer id : ids) {
-            if (!authorRepository.existsById(id)) {
-                throw new RuntimeException("Author not found: " + id);
+            if (!idFilter.mightExist(AuthorEntity.class, id) || !authorRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Author not found: " + id);
             }
         }
         authorRepository.deleteAllById(ids);
+        catalogVersion.bump();
+        Cache authors = cacheManager.getCache(DtoCacheConfig.AUTHORS);
+        ids.forEach(authors::evict);
+    }
+
+    /**
+     * Maps a request to a new author with its details.
+     */
+    private AuthorEntity toEntity(AuthorRequestDTO dto) {
+        AuthorEntity author = authorMapper.toEntity(dto);
+        if (dto.getAuthorDetails() != null) {
+            AuthorDetailsEntity details = authorMapper.toEntity(dto.getAuthorDetails());
+            details.setAuthor(author);
+            author.setAuthorDetails(details);
+        }
+        return author;
     }
 }
@@ -1,6 +1,8 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.BookDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
 
 import java.util.List;
 
@@ -10,10 +12,14 @@ import java.util.List;
 public interface BookDetailsService {
 
     /**
-     * Retrieve all book details.
-     * @return list of {@link BookDetailsDTO}
+     * Retrieve one page of book details records in ascending book id order, using keyset pagination.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link BookDetailsDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<BookDetailsDTO> findAll();
+    CursorPageDTO<BookDetailsDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a specific book details record.
@@ -1,9 +1,16 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
 import com.mavrommatis.ebookshop.ebookshop.dao.BookDetailsRepository;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.BookMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,28 +26,46 @@ public class BookDetailsServiceImpl implements BookDetailsService {
 
     private final BookDetailsRepository repo;
     private final BookMapper mapper;
+    private final IdExistenceFilter idFilter;
+    private final CatalogVersion catalogVersion;
+    private final CursorPaginator paginator;
 
     /**
      * Constructs a new BookDetailsServiceImpl with required dependencies.
      *
-     * @param repo   the repository used for BookDetails persistence operations
-     * @param mapper the mapper for converting between DTOs and entities
+     * @param repo           the repository used for BookDetails persistence operations
+     * @param mapper         the mapper for converting between DTOs and entities
+     * @param idFilter       filter of ids known not to exist
+     * @param catalogVersion version of the catalog, bumped by every write
+     * @param paginator      helper for keyset pagination
      */
-    public BookDetailsServiceImpl(BookDetailsRepository repo, BookMapper mapper) {
-        this.repo   = repo;
-        this.mapper = mapper;
+    public BookDetailsServiceImpl(BookDetailsRepository repo,
+                                  BookMapper mapper,
+                                  IdExistenceFilter idFilter,
+                                  CatalogVersion catalogVersion,
+                                  CursorPaginator paginator) {
+        this.repo           = repo;
+        this.mapper         = mapper;
+        this.idFilter       = idFilter;
+        this.catalogVersion = catalogVersion;
+        this.paginator      = paginator;
     }
 
     /**
-     * Retrieves all book details records.
+     * Retrieves one page of book details records after the cursor's book id.
      *
-     * @return a list of {@link BookDetailsDTO} for every record in the database
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link BookDetailsDTO}
      */
     @Override
-    public List<BookDetailsDTO> findAll() {
-        return repo.findAll().stream()
-                .map(mapper::bookDetailsEntityToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDetailsDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<BookDetailsEntity> rows = repo.findByBookIdGreaterThanOrderByBookIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::bookDetailsEntityToDto, d -> new int[]{d.getBookId()});
     }
 
     /**
@@ -51,9 +76,13 @@ public class BookDetailsServiceImpl implements BookDetailsService {
      * @throws RuntimeException if no record is found for the given id
      */
     @Override
+    @Transactional(readOnly = true)
     public BookDetailsDTO findById(Integer id) {
+        if (!idFilter.mightExist(BookDetailsEntity.class, id)) {
+            throw new ResourceNotFoundException("BookDetails not found: " + id);
+        }
         BookDetailsEntity entity = repo.findById(id)
-                .orElseThrow(() -> new RuntimeException("BookDetails not found: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("BookDetails not found: " + id));
         return mapper.bookDetailsEntityToDto(entity);
     }
 
@@ -69,9 +98,11 @@ public class BookDetailsServiceImpl implements BookDetailsService {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true)
     public BookDetailsDTO save(BookDetailsDTO dto) {
         BookDetailsEntity entity = mapper.bookDetailsDtoToEntity(dto);
         BookDetailsEntity saved = repo.save(entity);
+        catalogVersion.bump();
         return mapper.bookDetailsEntityToDto(saved);
     }
 
@@ -83,11 +114,13 @@ public class BookDetailsServiceImpl implements BookDetailsService {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true)
     public List<BookDetailsDTO> saveAll(List<BookDetailsDTO> dtos) {
         List<BookDetailsEntity> entities = dtos.stream()
                 .map(mapper::bookDetailsDtoToEntity)
                 .collect(Collectors.toList());
         List<BookDetailsEntity> saved = repo.saveAll(entities);
+        catalogVersion.bump();
         return saved.stream()
                 .map(mapper::bookDetailsEntityToDto)
                 .collect(Collectors.toList());
@@ -100,11 +133,13 @@ public class BookDetailsServiceImpl implements BookDetailsService {
      * @throws RuntimeException if no record exists for the given id
      */
     @Override
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, key = "#id")
     public void deleteById(Integer id) {
-        if (!repo.existsById(id)) {
-            throw new RuntimeException("BookDetails not found: " + id);
+        if (!idFilter.mightExist(BookDetailsEntity.class, id) || !repo.existsById(id)) {
+            throw new ResourceNotFoundException("BookDetails not found: " + id);
         }
         repo.deleteById(id);
+        catalogVersion.bump();
     }
 
     /**
@@ -115,12 +150,14 @@ public class BookDetailsServiceImpl implements BookDetailsService {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, allEntries = true)
     public void deleteAllById(List<Integer> ids) {
         for (Integer id : ids) {
-            if (!repo.existsById(id)) {
-                throw new RuntimeException("BookDetails not found: " + id);
+            if (!idFilter.mightExist(BookDetailsEntity.class, id) || !repo.existsById(id)) {
+                throw new ResourceNotFoundException("BookDetails not found: " + id);
             }
         }
         repo.deleteAllById(ids);
+        catalogVersion.bump();
     }
 }
@@ -1,7 +1,11 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 
 import java.util.List;
 
@@ -14,11 +18,14 @@ import java.util.List;
 public interface BookReviewsService {
 
     /**
-     * Retrieve all book reviews.
+     * Retrieve one page of book reviews in ascending id order, using keyset pagination.
      *
-     * @return list of {@link BookReviewsResponseDTO}
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link BookReviewsResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<BookReviewsResponseDTO> findAll();
+    CursorPageDTO<BookReviewsResponseDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a single book review by its ID.
@@ -29,6 +36,13 @@ public interface BookReviewsService {
      */
     BookReviewsResponseDTO findById(Integer id);
 
+    /**
+     * Retrieve an aggregate validator of all reviews for conditional GETs of the collection.
+     *
+     * @return the {@link ResourceVersion} of the collection
+     */
+    ResourceVersion findCollectionVersion();
+
     /**
      * Create a new book review.
      *
@@ -66,6 +80,20 @@ public interface BookReviewsService {
      */
     List<BookReviewsResponseDTO> saveAll(List<BookReviewsRequestDTO> dtos);
 
+    /**
+     * Ingest a batch of book reviews, such as a partner review feed, in one pass.
+     * <p>
+     * Unlike {@link #saveAll(List)}, the batch is not rejected as a whole: each review is
+     * created, or skipped as a duplicate (the customer already reviewed the book, or the
+     * pair is repeated in the batch) or as an invalid reference (unknown book or customer).
+     * A review whose chunk could not be classified is reported as failed and can be sent again.
+     *
+     * @param dtos list of review DTOs to ingest
+     * @return the outcome of each review, in request order
+     * @throws BadRequestException if the list or one of its reviews is null
+     */
+    BookReviewsIngestResultDTO ingestAll(List<BookReviewsRequestDTO> dtos);
+
     /**
      * Delete multiple book reviews by their IDs.
      *
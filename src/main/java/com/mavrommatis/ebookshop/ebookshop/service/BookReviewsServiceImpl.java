@@ -1,15 +1,39 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookReviewsBulkRepository;
 import com.mavrommatis.ebookshop.ebookshop.dao.BookReviewsRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookReviewsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.CustomerEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.BookReviewsMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -20,47 +44,99 @@ import java.util.stream.Collectors;
 public class BookReviewsServiceImpl implements BookReviewsService {
 
     private final BookReviewsRepository repository;
+    private final BookReviewsBulkRepository bulkRepository;
     private final BookReviewsMapper mapper;
+    private final CursorPaginator paginator;
+    private final IdExistenceFilter idFilter;
+    private final ChunkedWriter chunkedWriter;
+    private final CacheManager cacheManager;
+    private final boolean projectionEnabled;
 
     /**
      * Constructs a new BookReviewServiceImpl with required dependencies.
      *
-     * @param repository repository for BookReviewsEntity persistence
-     * @param mapper     mapper for converting between DTOs and entities
+     * @param repository        repository for BookReviewsEntity persistence
+     * @param bulkRepository    repository for set-based ingestion of reviews
+     * @param mapper            mapper for converting between DTOs and entities
+     * @param paginator         helper for keyset pagination
+     * @param idFilter          filter of ids known not to exist
+     * @param chunkedWriter     writer of the ingestion chunks
+     * @param cacheManager      manager of the response DTO caches
+     * @param projectionEnabled whether reads project straight into response DTOs
+     *                          instead of mapping managed entities
      */
     @Autowired
     public BookReviewsServiceImpl(BookReviewsRepository repository,
-                                  BookReviewsMapper mapper) {
-        this.repository = repository;
-        this.mapper     = mapper;
+                                  BookReviewsBulkRepository bulkRepository,
+                                  BookReviewsMapper mapper,
+                                  CursorPaginator paginator,
+                                  IdExistenceFilter idFilter,
+                                  ChunkedWriter chunkedWriter,
+                                  CacheManager cacheManager,
+                                  @Value("${ebookshop.read-model.projection-enabled:true}") boolean projectionEnabled) {
+        this.repository        = repository;
+        this.bulkRepository    = bulkRepository;
+        this.mapper            = mapper;
+        this.paginator         = paginator;
+        this.idFilter          = idFilter;
+        this.chunkedWriter     = chunkedWriter;
+        this.cacheManager      = cacheManager;
+        this.projectionEnabled = projectionEnabled;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<BookReviewsResponseDTO> findAll() {
-        return repository.findAll().stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookReviewsResponseDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        if (projectionEnabled) {
+            List<BookReviewsResponseDTO> rows = repository.findResponsesAfter(afterId, paginator.seekLimit(pageSize));
+            return paginator.toPage(rows, pageSize, Function.identity(), r -> new int[]{r.getReviewId()});
+        }
+        List<BookReviewsEntity> rows = repository.findByReviewIdGreaterThanOrderByReviewIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::toResponse, r -> new int[]{r.getReviewId()});
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DtoCacheConfig.BOOK_REVIEWS, key = "#id")
     public BookReviewsResponseDTO findById(Integer id) {
+        if (!idFilter.mightExist(BookReviewsEntity.class, id)) {
+            throw new ResourceNotFoundException("Review not found: " + id);
+        }
+        if (projectionEnabled) {
+            return repository.findResponseById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Review not found: " + id));
+        }
         BookReviewsEntity entity = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Review not found: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found: " + id));
         return mapper.toResponse(entity);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion findCollectionVersion() {
+        return repository.findCollectionVersion();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = DtoCacheConfig.BOOK_REVIEWS, key = "#result.reviewId")
     public BookReviewsResponseDTO save(BookReviewsRequestDTO dto) {
+        requireKnownReferences(dto);
         BookReviewsEntity entity = mapper.toEntity(dto);
         BookReviewsEntity saved = repository.save(entity);
         return mapper.toResponse(saved);
@@ -75,9 +151,13 @@ public class BookReviewsServiceImpl implements BookReviewsService {
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = DtoCacheConfig.BOOK_REVIEWS, key = "#id")
     public BookReviewsResponseDTO update(Integer id, BookReviewsRequestDTO dto) {
+        if (!idFilter.mightExist(BookReviewsEntity.class, id)) {
+            throw new ResourceNotFoundException("Cannot update. Review not found: " + id);
+        }
         BookReviewsEntity existing = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Cannot update. Review not found: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Cannot update. Review not found: " + id));
 
         // Ownership check
         if (existing.getCustomer().getCustomerId() != dto.getCustomerId()) {
@@ -96,9 +176,10 @@ public class BookReviewsServiceImpl implements BookReviewsService {
      * {@inheritDoc}
      */
     @Override
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, key = "#id")
     public void deleteById(Integer id) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Review not found: " + id);
+        if (!idFilter.mightExist(BookReviewsEntity.class, id) || !repository.existsById(id)) {
+            throw new ResourceNotFoundException("Review not found: " + id);
         }
         repository.deleteById(id);
     }
@@ -114,6 +195,7 @@ public class BookReviewsServiceImpl implements BookReviewsService {
     public List<BookReviewsResponseDTO> saveAll(List<BookReviewsRequestDTO> dtos) {
         // Προέλεγχος σε κάθε DTO
         for (BookReviewsRequestDTO dto : dtos) {
+            requireKnownReferences(dto);
             if (repository.existsByBook_bookIdAndCustomer_customerId(dto.getBookId(), dto.getCustomerId())) {
                 throw new RuntimeException(
                         "Cannot create review: customer " + dto.getCustomerId() +
@@ -133,19 +215,180 @@ public class BookReviewsServiceImpl implements BookReviewsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reviews are handled by the {@link ChunkedWriter}, one transaction per chunk, and rely on
+     * the schema instead of checking each review first: a chunk is written with one multi-row
+     * {@code INSERT IGNORE}, which skips duplicates and unknown books or customers, and one
+     * set query on the unique key then tells created reviews (ids reserved by the insert)
+     * from existing ones (older ids) and from skipped references (no row). When every review
+     * of a chunk is created, their ids follow from the insert and the query is skipped.
+     * </p>
+     * <p>
+     * If the created reviews do not match the ids reserved by the insert, the chunk is rolled
+     * back and its reviews are reported as {@link BookReviewsIngestResultDTO.Status#FAILED FAILED},
+     * while the chunks before and after it are kept.
+     * </p>
+     */
+    @Override
+    public BookReviewsIngestResultDTO ingestAll(List<BookReviewsRequestDTO> dtos) {
+        if (dtos == null || dtos.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Reviews must not be null");
+        }
+        Map<ReviewKey, BookReviewsIngestResultDTO.Item> firsts = new HashMap<>();
+        List<BookReviewsIngestResultDTO.Item> items = chunkedWriter.write(dtos,
+                chunk -> ingestChunk(chunk, firsts),
+                chunk -> chunk.stream()
+                        .map(dto -> new BookReviewsIngestResultDTO.Item(dto.getBookId(), dto.getCustomerId(),
+                                BookReviewsIngestResultDTO.Status.FAILED, null))
+                        .toList());
+        return new BookReviewsIngestResultDTO(items);
+    }
+
+    /**
+     * Inserts and classifies one chunk of {@link #ingestAll(List)}.
+     *
+     * @param chunk  the submitted reviews of the chunk
+     * @param firsts outcome of the first occurrence of every pair submitted in the chunks
+     *               written so far; the pairs of this chunk are added once it is classified
+     * @return the outcome of each review of the chunk, in order
+     * @throws ChunkedWriter.RejectedChunkException if the created reviews do not match the
+     *                                              ids reserved by the insert
+     */
+    private List<BookReviewsIngestResultDTO.Item> ingestChunk(List<BookReviewsRequestDTO> chunk,
+                                                              Map<ReviewKey, BookReviewsIngestResultDTO.Item> firsts) {
+        List<BookReviewsIngestResultDTO.Item> items = new ArrayList<>(chunk.size());
+        Map<ReviewKey, BookReviewsIngestResultDTO.Item> added = new HashMap<>();
+        List<BookReviewsRequestDTO> inserts = new ArrayList<>();
+        for (BookReviewsRequestDTO dto : chunk) {
+            ReviewKey key = new ReviewKey(dto.getBookId(), dto.getCustomerId());
+            if (firsts.containsKey(key) || added.containsKey(key)) {
+                // Repeated pair, resolved once its first occurrence is
+                items.add(null);
+                continue;
+            }
+            BookReviewsIngestResultDTO.Item item =
+                    new BookReviewsIngestResultDTO.Item(dto.getBookId(), dto.getCustomerId(), null, null);
+            added.put(key, item);
+            items.add(item);
+            if (hasKnownReferences(dto)) {
+                inserts.add(dto);
+            } else {
+                item.setStatus(BookReviewsIngestResultDTO.Status.INVALID_FK);
+            }
+        }
+
+        int inserted = bulkRepository.insertIgnoreAll(inserts, LocalDateTime.now());
+        int firstId = inserted == 0 ? 0 : bulkRepository.lastInsertId();
+        Map<ReviewKey, Integer> ids = new HashMap<>();
+        if (inserted == inserts.size()) {
+            for (int i = 0; i < inserted; i++) {
+                ids.put(new ReviewKey(inserts.get(i).getBookId(), inserts.get(i).getCustomerId()), firstId + i);
+            }
+        } else {
+            for (Object[] row : bulkRepository.findIdsByBookAndCustomer(inserts)) {
+                ids.put(new ReviewKey(((Number) row[1]).intValue(), ((Number) row[2]).intValue()),
+                        ((Number) row[0]).intValue());
+            }
+        }
+
+        int created = 0;
+        for (BookReviewsRequestDTO dto : inserts) {
+            ReviewKey key = new ReviewKey(dto.getBookId(), dto.getCustomerId());
+            BookReviewsIngestResultDTO.Item item = added.get(key);
+            Integer id = ids.get(key);
+            if (id == null) {
+                item.setStatus(BookReviewsIngestResultDTO.Status.INVALID_FK);
+            } else if (inserted > 0 && id >= firstId && id - firstId < inserts.size()) {
+                item.setStatus(BookReviewsIngestResultDTO.Status.CREATED);
+                item.setReviewId(id);
+                created++;
+            } else {
+                item.setStatus(BookReviewsIngestResultDTO.Status.DUPLICATE);
+                item.setReviewId(id);
+            }
+        }
+        if (created != inserted) {
+            // The reserved ids were not consecutive: created and existing reviews cannot be told apart
+            throw new ChunkedWriter.RejectedChunkException(
+                    "Inserted " + inserted + " reviews but found " + created + " in the reserved id range");
+        }
+        for (BookReviewsIngestResultDTO.Item item : added.values()) {
+            if (item.getStatus() == BookReviewsIngestResultDTO.Status.CREATED) {
+                idFilter.recordInsert(BookReviewsEntity.class, item.getReviewId());
+            }
+        }
+        firsts.putAll(added);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (items.get(i) == null) {
+                BookReviewsRequestDTO dto = chunk.get(i);
+                BookReviewsIngestResultDTO.Item first = firsts.get(new ReviewKey(dto.getBookId(), dto.getCustomerId()));
+                BookReviewsIngestResultDTO.Status status = first.getStatus() == BookReviewsIngestResultDTO.Status.INVALID_FK
+                        ? BookReviewsIngestResultDTO.Status.INVALID_FK
+                        : BookReviewsIngestResultDTO.Status.DUPLICATE;
+                items.set(i, new BookReviewsIngestResultDTO.Item(
+                        dto.getBookId(), dto.getCustomerId(), status, first.getReviewId()));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Whether both references of a review may exist, according to the {@link IdExistenceFilter}.
+     *
+     * @param dto the review to check
+     * @return {@code false} if an id is missing or known not to exist
+     */
+    private boolean hasKnownReferences(BookReviewsRequestDTO dto) {
+        return dto.getBookId() != null
+                && dto.getCustomerId() != null
+                && idFilter.mightExist(BookEntity.class, dto.getBookId())
+                && idFilter.mightExist(CustomerEntity.class, dto.getCustomerId());
+    }
+
+    /**
+     * Rejects a review whose book or customer is known not to exist, before any insert is attempted.
+     *
+     * @param dto the review to check
+     */
+    private void requireKnownReferences(BookReviewsRequestDTO dto) {
+        if (!idFilter.mightExist(BookEntity.class, dto.getBookId())) {
+            throw new ResourceNotFoundException("Book not found: " + dto.getBookId());
+        }
+        if (!idFilter.mightExist(CustomerEntity.class, dto.getCustomerId())) {
+            throw new ResourceNotFoundException("Customer not found: " + dto.getCustomerId());
+        }
+    }
+
 
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Evictions are registered inside the transaction and applied on commit.
+     * </p>
      */
     @Override
     @Transactional
     public void deleteAllById(List<Integer> ids) {
         for (Integer id : ids) {
-            if (!repository.existsById(id)) {
-                throw new RuntimeException("Review not found: " + id);
+            if (!idFilter.mightExist(BookReviewsEntity.class, id) || !repository.existsById(id)) {
+                throw new ResourceNotFoundException("Review not found: " + id);
             }
         }
         repository.deleteAllById(ids);
+        Cache reviews = cacheManager.getCache(DtoCacheConfig.BOOK_REVIEWS);
+        ids.forEach(reviews::evict);
+    }
+
+    /**
+     * Key of the {@code uq_review_per_book_per_customer} constraint.
+     *
+     * @param bookId     the reviewed book id
+     * @param customerId the reviewing customer id
+     */
+    private record ReviewKey(Integer bookId, Integer customerId) {
     }
 }
@@ -2,7 +2,13 @@ package com.mavrommatis.ebookshop.ebookshop.service;
 
 import com.mavrommatis.ebookshop.ebookshop.dto.BookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookSearchCriteria;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing Book operations via DTOs.
@@ -13,11 +19,14 @@ import java.util.List;
 public interface BookService {
 
     /**
-     * Retrieve all books from the database.
+     * Retrieve one page of books in ascending id order, using keyset pagination.
      *
-     * @return a list of {@link BookResponseDTO} representing all books
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link BookResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<BookResponseDTO> findAll();
+    CursorPageDTO<BookResponseDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a specific book by its ID.
@@ -28,6 +37,80 @@ public interface BookService {
      */
     BookResponseDTO findById(Integer id);
 
+    /**
+     * Retrieve an aggregate validator of all books for conditional GETs of the collection,
+     * without a query: the catalog version of the snapshot being served, or the current one.
+     *
+     * @return the {@link ResourceVersion} of the collection
+     */
+    ResourceVersion findCollectionVersion();
+
+    /**
+     * Retrieve several books by id in one call.
+     *
+     * @param ids the book identifiers; duplicates are ignored
+     * @return the found books in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested
+     */
+    MultiGetDTO<BookResponseDTO> findAllById(List<Integer> ids);
+
+    /**
+     * Retrieve several books by id in one call, containing only the requested fields.
+     *
+     * @param ids    the book identifiers; duplicates are ignored
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the found partial book objects in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested, or a field is unknown
+     */
+    MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields);
+
+    /**
+     * Retrieve one page of books containing only the requested fields (sparse fieldset).
+     * Only the columns and joins needed for those fields are read from the database.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @param fields requested response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial book objects
+     * @throws BadRequestException if the cursor is malformed or a field is unknown
+     */
+    CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields);
+
+    /**
+     * Retrieve a specific book containing only the requested fields (sparse fieldset).
+     *
+     * @param id     the unique identifier of the book
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the partial book object
+     * @throws BadRequestException if a field is unknown
+     * @throws RuntimeException if no book is found with the given ID
+     */
+    Map<String, Object> findById(Integer id, List<String> fields);
+
+    /**
+     * Search books by the given filters, one page at a time in ascending id order.
+     *
+     * @param criteria the filters to apply; null fields are ignored
+     * @param cursor   opaque cursor returned with the previous page, or null for the first page
+     * @param size     requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of matching {@link BookResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
+     */
+    CursorPageDTO<BookResponseDTO> search(BookSearchCriteria criteria, String cursor, Integer size);
+
+    /**
+     * Retrieve one page of an author's bibliography: primary and co-authored books,
+     * each listed once, in ascending id order.
+     *
+     * @param authorId the author identifier
+     * @param cursor   opaque cursor returned with the previous page, or null for the first page
+     * @param size     requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link BookResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
+     * @throws RuntimeException if no author is found with the given ID
+     */
+    CursorPageDTO<BookResponseDTO> findBibliography(Integer authorId, String cursor, Integer size);
+
     /**
      * Create a new book in the system.
      *
@@ -36,6 +119,15 @@ public interface BookService {
      */
     BookResponseDTO save(BookRequestDTO dto);
 
+    /**
+     * Create several books, in one transaction per chunk of requests.
+     *
+     * @param dtos the {@link BookRequestDTO} of each book
+     * @return a {@link BookResponseDTO} of each created book, in request order
+     * @throws RuntimeException if an author is not found; no book is created then
+     */
+    List<BookResponseDTO> saveAll(List<BookRequestDTO> dtos);
+
     /**
      * Update an existing book.
      *
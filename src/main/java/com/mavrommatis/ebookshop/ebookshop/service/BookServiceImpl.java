@@ -1,18 +1,57 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
 import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
 import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookSpecifications;
+import com.mavrommatis.ebookshop.ebookshop.dao.FieldSelectionRepository;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookSearchCriteria;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.BookMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogSnapshot;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogSnapshotHolder;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.DegradedReads;
+import com.mavrommatis.ebookshop.ebookshop.support.FieldCatalog;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoader;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoaders;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import com.mavrommatis.ebookshop.ebookshop.support.IdListLookup;
+import com.mavrommatis.ebookshop.ebookshop.support.RequestCoalescer;
+import com.mavrommatis.ebookshop.ebookshop.support.ResourceVersion;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service implementation for {@link BookService}, handling business logic
@@ -21,44 +60,319 @@ import java.util.List;
 @Service
 public class BookServiceImpl implements BookService {
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, named as in {@link BookResponseDTO}.
+     */
+    private static final FieldCatalog FIELDS = FieldCatalog.of(BookEntity.class, "bookId")
+            .attribute("title")
+            .attribute("language")
+            .attribute("genre")
+            .attribute("literaryForm")
+            .attribute("isbn")
+            .attribute("collective", "isCollective")
+            .computed("authorName", (cb, joins) -> {
+                From<?, ?> author = joins.join("author", JoinType.INNER);
+                return cb.concat(cb.concat(author.<String>get("firstName"), " "), author.<String>get("lastName"));
+            })
+            .joined("details.publishDate", "bookDetails", JoinType.LEFT, "publishDate")
+            .joined("details.pages", "bookDetails", JoinType.LEFT, "pages")
+            .joined("details.summary", "bookDetails", JoinType.LEFT, "summary")
+            .joined("details.dimensions", "bookDetails", JoinType.LEFT, "dimensions")
+            .joined("details.coverType", "bookDetails", JoinType.LEFT, "coverType")
+            .joined("details.weight", "bookDetails", JoinType.LEFT, "weight")
+            .attribute("createdAt")
+            .attribute("updatedAt");
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final BookMapper bookMapper;
+    private final CursorPaginator paginator;
+    private final FieldSelectionRepository fieldSelection;
+    private final IdListLookup idListLookup;
+    private final RequestCoalescer coalescer;
+    private final IdBatchLoader<BookResponseDTO> byIdLoader;
+    private final IdExistenceFilter idFilter;
+    private final CatalogSnapshotHolder catalog;
+    private final DegradedReads degradedReads;
+    private final CatalogVersion catalogVersion;
+    private final ChunkedWriter chunkedWriter;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate readOnly;
+    private final boolean projectionEnabled;
 
     /**
      * Constructor for dependency injection.
      *
-     * @param bookRepository    repository for persisting books
-     * @param authorRepository  repository for fetching authors
-     * @param bookMapper        mapper for converting between DTOs and entities
+     * @param bookRepository     repository for persisting books
+     * @param authorRepository   repository for fetching authors
+     * @param bookMapper         mapper for converting between DTOs and entities
+     * @param paginator          helper for keyset pagination
+     * @param fieldSelection     repository for sparse fieldset reads
+     * @param idListLookup       helper for multi-get reads
+     * @param coalescer          single-flight loader for reads by id
+     * @param idBatchLoaders     factory of the micro-batching loader for reads by id
+     * @param idFilter           filter of ids known not to exist
+     * @param catalog            in-memory catalog snapshot, when enabled
+     * @param degradedReads      fallback to last known values when the database is unavailable
+     * @param catalogVersion     version of the catalog, bumped by every write
+     * @param chunkedWriter      runs bulk creates in one transaction per chunk
+     * @param cacheManager       manager of the response DTO caches
+     * @param transactionManager transaction manager used for the read-only transactions of
+     *                           the reads that can be served from the catalog snapshot
+     * @param projectionEnabled  whether reads project straight into response DTOs
+     *                           instead of mapping managed entities
      */
     @Autowired
     public BookServiceImpl(BookRepository bookRepository,
                            AuthorRepository authorRepository,
-                           BookMapper bookMapper) {
-        this.bookRepository   = bookRepository;
-        this.authorRepository = authorRepository;
-        this.bookMapper       = bookMapper;
+                           BookMapper bookMapper,
+                           CursorPaginator paginator,
+                           FieldSelectionRepository fieldSelection,
+                           IdListLookup idListLookup,
+                           RequestCoalescer coalescer,
+                           IdBatchLoaders idBatchLoaders,
+                           IdExistenceFilter idFilter,
+                           CatalogSnapshotHolder catalog,
+                           DegradedReads degradedReads,
+                           CatalogVersion catalogVersion,
+                           ChunkedWriter chunkedWriter,
+                           CacheManager cacheManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ebookshop.read-model.projection-enabled:true}") boolean projectionEnabled) {
+        this.bookRepository    = bookRepository;
+        this.authorRepository  = authorRepository;
+        this.bookMapper        = bookMapper;
+        this.paginator         = paginator;
+        this.fieldSelection    = fieldSelection;
+        this.idListLookup      = idListLookup;
+        this.coalescer         = coalescer;
+        this.byIdLoader        = idBatchLoaders.create("book",
+                ids -> projectionEnabled
+                        ? bookRepository.findResponsesByIdIn(ids)
+                        : bookRepository.findAllById(ids).stream().map(bookMapper::toResponse).toList(),
+                BookResponseDTO::getBookId,
+                id -> new ResourceNotFoundException("Book not found: " + id));
+        this.idFilter          = idFilter;
+        this.catalog           = catalog;
+        this.degradedReads     = degradedReads;
+        this.catalogVersion    = catalogVersion;
+        this.chunkedWriter     = chunkedWriter;
+        this.cacheManager      = cacheManager;
+        this.readOnly          = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.projectionEnabled = projectionEnabled;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Served from the {@link CatalogSnapshotHolder catalog snapshot} when it is enabled;
+     * otherwise pages are cached in the {@value DtoCacheConfig#CATALOG_QUERIES} cache under the
+     * current {@link CatalogVersion}, so any catalog write invalidates them, and read in a
+     * read-only transaction.
+     * </p>
      */
     @Override
-    public List<BookResponseDTO> findAll() {
-        return bookRepository.findAll().stream()
-                .map(bookMapper::toResponse)
-                .toList();
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'books.page', #cursor, #size}",
+            condition = "!@catalogSnapshotHolder.serving()")
+    public CursorPageDTO<BookResponseDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            List<BookResponseDTO> rows = snapshot.booksAfter(afterId, pageSize + 1);
+            return paginator.toPage(rows, pageSize, Function.identity(), b -> new int[]{b.getBookId()});
+        }
+        return readOnly.execute(status -> {
+            if (projectionEnabled) {
+                List<BookResponseDTO> rows = bookRepository.findResponsesAfter(afterId, paginator.seekLimit(pageSize));
+                return paginator.toPage(rows, pageSize, Function.identity(), b -> new int[]{b.getBookId()});
+            }
+            List<BookEntity> rows = bookRepository.findByBookIdGreaterThanOrderByBookIdAsc(
+                    afterId, paginator.seekLimit(pageSize));
+            return paginator.toPage(rows, pageSize, bookMapper::toResponse, b -> new int[]{b.getBookId()});
+        });
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The finished DTO is cached in the {@value DtoCacheConfig#BOOKS} cache. On a miss,
+     * concurrent calls for the same id share one load through the {@link RequestCoalescer},
+     * and loads of different ids arriving within the batching window are merged into one
+     * {@code IN} query by the {@link IdBatchLoader}, which also opens the read-only transaction.
+     * </p>
+     * <p>
+     * The load goes through {@link DegradedReads}: when the database is slow or down, the
+     * last value loaded for the id is served (and not cached) while it is retried in the background.
+     * </p>
+     * <p>
+     * While the {@link CatalogSnapshotHolder catalog snapshot} is served, the book is taken
+     * from it and the cache is bypassed; books created since the last refresh fall back to
+     * the database.
+     * </p>
      */
     @Override
+    @Cacheable(cacheNames = DtoCacheConfig.BOOKS, key = "#id", condition = "!@catalogSnapshotHolder.serving()",
+            unless = "@degradedReads.servedStale()")
     public BookResponseDTO findById(Integer id) {
-        BookEntity entity = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found: " + id));
-        return bookMapper.toResponse(entity);
+        CatalogSnapshot snapshot = catalog.current();
+        BookResponseDTO cached = snapshot != null && id != null ? snapshot.book(id) : null;
+        if (cached != null) {
+            return cached;
+        }
+        if (!idFilter.mightExist(BookEntity.class, id)) {
+            throw new ResourceNotFoundException("Book not found: " + id);
+        }
+        return degradedReads.read(DtoCacheConfig.BOOKS, id,
+                () -> coalescer.load("book", id, () -> byIdLoader.load(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The version is read before the page, so the page is at least as new as its validator.
+     * </p>
+     */
+    @Override
+    public ResourceVersion findCollectionVersion() {
+        CatalogSnapshot snapshot = catalog.current();
+        return ResourceVersion.ofCatalog(snapshot != null ? snapshot.catalogVersion() : catalogVersion.current());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<BookResponseDTO> findAllById(List<Integer> ids) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<BookResponseDTO> found = projectionEnabled
+                ? bookRepository.findResponsesByIdIn(distinct)
+                : bookRepository.findAllById(distinct).stream().map(bookMapper::toResponse).toList();
+        return idListLookup.collect(distinct, found, BookResponseDTO::getBookId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<Map<String, Object>> found = fieldSelection.findAllById(FIELDS, FIELDS.resolve(fields), distinct);
+        return idListLookup.collect(distinct, found, row -> (Integer) row.get(FIELDS.idField()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pages are cached in the {@value DtoCacheConfig#CATALOG_QUERIES} cache under the current
+     * {@link CatalogVersion}, so any catalog write invalidates them.
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'books.fields', #cursor, #size, #fields}")
+    public CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields) {
+        List<String> selected = FIELDS.resolve(fields);
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<Map<String, Object>> rows = fieldSelection.findPage(FIELDS, selected, afterId, pageSize + 1);
+        return paginator.toPage(rows, pageSize, Function.identity(),
+                row -> new int[]{(Integer) row.get(FIELDS.idField())});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(Integer id, List<String> fields) {
+        if (!idFilter.mightExist(BookEntity.class, id)) {
+            throw new ResourceNotFoundException("Book not found: " + id);
+        }
+        return fieldSelection.findById(FIELDS, FIELDS.resolve(fields), id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found: " + id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Author and details are fetched in the same query. Pages are cached in the
+     * {@value DtoCacheConfig#CATALOG_QUERIES} cache under the current {@link CatalogVersion},
+     * so any catalog write invalidates them.
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'books.search', #criteria, #cursor, #size}")
+    public CursorPageDTO<BookResponseDTO> search(BookSearchCriteria criteria, String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<BookEntity> rows = bookRepository.findBy(BookSpecifications.matching(criteria, afterId),
+                query -> query.project("author", "author.authorDetails", "bookDetails")
+                        .sortBy(Sort.by("bookId"))
+                        .limit(pageSize + 1)
+                        .all());
+        return paginator.toPage(rows, pageSize, bookMapper::toResponse, b -> new int[]{b.getBookId()});
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Two statements per page, the ids of {@link BookRepository#findBibliographyIds} and then
+     * their rows; the author is only looked up when the page is empty, to tell an unknown
+     * author from one without books. Pages are served from the
+     * {@link CatalogSnapshotHolder catalog snapshot} when it is enabled, and otherwise cached
+     * in the {@value DtoCacheConfig#CATALOG_QUERIES} cache under the current {@link CatalogVersion}
+     * and read in a read-only transaction.
+     * </p>
+     */
+    @Override
+    @Cacheable(cacheNames = DtoCacheConfig.CATALOG_QUERIES,
+            key = "{@catalogVersion.current(), 'books.bibliography', #authorId, #cursor, #size}",
+            condition = "!@catalogSnapshotHolder.serving()")
+    public CursorPageDTO<BookResponseDTO> findBibliography(Integer authorId, String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot != null) {
+            List<BookResponseDTO> rows = snapshot.bibliographyAfter(authorId, afterId, pageSize + 1);
+            return requireAuthor(authorId,
+                    paginator.toPage(rows, pageSize, Function.identity(), b -> new int[]{b.getBookId()}));
+        }
+        return readOnly.execute(status -> {
+            List<Integer> ids = bookRepository.findBibliographyIds(authorId, afterId, pageSize + 1);
+            List<BookResponseDTO> rows = new ArrayList<>();
+            if (!ids.isEmpty() && projectionEnabled) {
+                rows.addAll(bookRepository.findResponsesByIdIn(ids));
+            } else if (!ids.isEmpty()) {
+                bookRepository.findAllById(ids).forEach(book -> rows.add(bookMapper.toResponse(book)));
+            }
+            rows.sort(Comparator.comparing(BookResponseDTO::getBookId));
+            return requireAuthor(authorId,
+                    paginator.toPage(rows, pageSize, Function.identity(), b -> new int[]{b.getBookId()}));
+        });
+    }
+
+    /**
+     * Tells an unknown author from one without books (or past its last page).
+     *
+     * @param authorId the requested author id
+     * @param page     the bibliography page
+     * @return the page
+     * @throws ResourceNotFoundException if the page is empty and the author does not exist
+     */
+    private CursorPageDTO<BookResponseDTO> requireAuthor(Integer authorId, CursorPageDTO<BookResponseDTO> page) {
+        if (page.getItems().isEmpty()
+                && (!idFilter.mightExist(AuthorEntity.class, authorId) || !authorRepository.existsById(authorId))) {
+            throw new ResourceNotFoundException("Author not found: " + authorId);
+        }
+        return page;
     }
 
     /**
@@ -66,63 +380,133 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = DtoCacheConfig.BOOKS, key = "#result.bookId")
     public BookResponseDTO save(BookRequestDTO dto) {
-        BookEntity book = bookMapper.toEntity(dto);
-        if (dto.getDetails() != null) {
-            BookDetailsEntity details = bookMapper.bookDetailsDtoToEntity(dto.getDetails());
-            details.setBook(book);
-            book.setBookDetails(details);
+        BookEntity book = toEntity(dto);
+        if (!idFilter.mightExist(AuthorEntity.class, dto.getAuthorId())) {
+            throw new ResourceNotFoundException("Author not found: " + dto.getAuthorId());
         }
         AuthorEntity author = authorRepository.findById(dto.getAuthorId())
-                .orElseThrow(() -> new RuntimeException("Author not found: " + dto.getAuthorId()));
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found: " + dto.getAuthorId()));
         book.setAuthor(author);
 
         BookEntity saved = bookRepository.save(book);
+        catalogVersion.bump();
         return bookMapper.toResponse(saved);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All authors are loaded with one query before anything is written. The books are then
+     * inserted by the {@link ChunkedWriter}: one transaction and a few JDBC batches per chunk,
+     * instead of a transaction, an author lookup and several statements per book. The created
+     * books are not put in the {@value DtoCacheConfig#BOOKS} cache.
+     * </p>
+     */
+    @Override
+    public List<BookResponseDTO> saveAll(List<BookRequestDTO> dtos) {
+        Set<Integer> authorIds = new HashSet<>();
+        for (BookRequestDTO dto : dtos) {
+            if (dto.getAuthorId() == null || !idFilter.mightExist(AuthorEntity.class, dto.getAuthorId())) {
+                throw new ResourceNotFoundException("Author not found: " + dto.getAuthorId());
+            }
+            authorIds.add(dto.getAuthorId());
+        }
+        Map<Integer, AuthorEntity> authors = new HashMap<>();
+        authorRepository.findAllById(authorIds).forEach(author -> authors.put(author.getAuthorId(), author));
+        for (Integer authorId : authorIds) {
+            if (!authors.containsKey(authorId)) {
+                throw new ResourceNotFoundException("Author not found: " + authorId);
+            }
+        }
+        return chunkedWriter.write(dtos, chunk -> {
+            List<BookEntity> books = chunk.stream().map(dto -> {
+                BookEntity book = toEntity(dto);
+                book.setAuthor(authors.get(dto.getAuthorId()));
+                return book;
+            }).toList();
+            bookRepository.saveAll(books);
+            catalogVersion.bump();
+            return books.stream().map(bookMapper::toResponse).toList();
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @Transactional
+    @CachePut(cacheNames = DtoCacheConfig.BOOKS, key = "#id")
     public BookResponseDTO update(Integer id, BookRequestDTO dto) {
-        if (!bookRepository.existsById(id)) {
-            throw new RuntimeException("Cannot update. Book not found: " + id);
+        if (!idFilter.mightExist(BookEntity.class, id) || !bookRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Cannot update. Book not found: " + id);
         }
         BookEntity existing = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found: " + id));
         bookMapper.updateEntity(dto, existing);
+        if (!idFilter.mightExist(AuthorEntity.class, dto.getAuthorId())) {
+            throw new ResourceNotFoundException("Author not found: " + dto.getAuthorId());
+        }
         AuthorEntity author = authorRepository.findById(dto.getAuthorId())
-                .orElseThrow(() -> new RuntimeException("Author not found: " + dto.getAuthorId()));
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found: " + dto.getAuthorId()));
         existing.setAuthor(author);
 
         BookEntity updated = bookRepository.save(existing);
+        catalogVersion.bump();
         return bookMapper.toResponse(updated);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Reviews of the book are removed by the database cascade, so the review cache is cleared too.
+     * </p>
      */
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOKS, key = "#id"),
+            @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
+    })
     public void deleteById(Integer id) {
-        if (!bookRepository.existsById(id)) {
-            throw new RuntimeException("Book not found: " + id);
+        if (!idFilter.mightExist(BookEntity.class, id) || !bookRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Book not found: " + id);
         }
         bookRepository.deleteById(id);
+        catalogVersion.bump();
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Evictions are registered inside the transaction and applied on commit.
+     * </p>
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
     public void deleteAllById(List<Integer> ids) {
         for (Integer id : ids) {
-            if (!bookRepository.existsById(id)) {
-                throw new RuntimeException("Book not found: " + id);
+            if (!idFilter.mightExist(BookEntity.class, id) || !bookRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Book not found: " + id);
             }
         }
         bookRepository.deleteAllById(ids);
+        catalogVersion.bump();
+        Cache books = cacheManager.getCache(DtoCacheConfig.BOOKS);
+        ids.forEach(books::evict);
+    }
+
+    /**
+     * Maps a request to a new book with its details, without the author.
+     */
+    private BookEntity toEntity(BookRequestDTO dto) {
+        BookEntity book = bookMapper.toEntity(dto);
+        if (dto.getDetails() != null) {
+            BookDetailsEntity details = bookMapper.bookDetailsDtoToEntity(dto.getDetails());
+            details.setBook(book);
+            book.setBookDetails(details);
+        }
+        return book;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerDetailsDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
 import java.util.List;
 
 /**
@@ -12,11 +14,14 @@ import java.util.List;
 public interface CustomerDetailsService {
 
     /**
-     * Retrieve all customer detail records.
+     * Retrieve one page of customer details records in ascending customer id order, using keyset pagination.
      *
-     * @return list of {@link CustomerDetailsDTO} representing all profiles
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link CustomerDetailsDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<CustomerDetailsDTO> findAll();
+    CursorPageDTO<CustomerDetailsDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a single customer detail by its customer ID.
@@ -1,9 +1,13 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
 import com.mavrommatis.ebookshop.ebookshop.dao.CustomerDetailsRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerDetailsDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.CustomerDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.CustomerMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,36 +23,51 @@ public class CustomerDetailsServiceImpl implements CustomerDetailsService {
 
     private final CustomerDetailsRepository repository;
     private final CustomerMapper mapper;
+    private final IdExistenceFilter idFilter;
+    private final CursorPaginator paginator;
 
     /**
      * Constructs a new CustomerDetailsServiceImpl with required dependencies.
      *
      * @param repository the repository for CustomerDetailsEntity persistence
      * @param mapper     the mapper for converting between DTOs and entities
+     * @param idFilter   filter of ids known not to exist
+     * @param paginator  helper for keyset pagination
      */
     public CustomerDetailsServiceImpl(CustomerDetailsRepository repository,
-                                      CustomerMapper mapper) {
+                                      CustomerMapper mapper,
+                                      IdExistenceFilter idFilter,
+                                      CursorPaginator paginator) {
         this.repository = repository;
         this.mapper     = mapper;
+        this.idFilter   = idFilter;
+        this.paginator  = paginator;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<CustomerDetailsDTO> findAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerDetailsDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<CustomerDetailsEntity> rows = repository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::toDto, d -> new int[]{d.getCustomerId()});
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
     public CustomerDetailsDTO findById(Integer customerId) {
+        if (!idFilter.mightExist(CustomerDetailsEntity.class, customerId)) {
+            throw new ResourceNotFoundException("CustomerDetails not found: " + customerId);
+        }
         CustomerDetailsEntity entity = repository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("CustomerDetails not found: " + customerId));
+                .orElseThrow(() -> new ResourceNotFoundException("CustomerDetails not found: " + customerId));
         return mapper.toDto(entity);
     }
 
@@ -83,8 +102,8 @@ public class CustomerDetailsServiceImpl implements CustomerDetailsService {
      */
     @Override
     public void deleteById(Integer customerId) {
-        if (!repository.existsById(customerId)) {
-            throw new RuntimeException("CustomerDetails not found: " + customerId);
+        if (!idFilter.mightExist(CustomerDetailsEntity.class, customerId) || !repository.existsById(customerId)) {
+            throw new ResourceNotFoundException("CustomerDetails not found: " + customerId);
         }
         repository.deleteById(customerId);
     }
@@ -96,8 +115,8 @@ public class CustomerDetailsServiceImpl implements CustomerDetailsService {
     @Transactional
     public void deleteAllById(List<Integer> customerIds) {
         for (Integer id : customerIds) {
-            if (!repository.existsById(id)) {
-                throw new RuntimeException("CustomerDetails not found: " + id);
+            if (!idFilter.mightExist(CustomerDetailsEntity.class, id) || !repository.existsById(id)) {
+                throw new ResourceNotFoundException("CustomerDetails not found: " + id);
             }
         }
         repository.deleteAllById(customerIds);
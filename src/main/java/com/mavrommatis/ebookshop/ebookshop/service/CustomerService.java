@@ -1,8 +1,12 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing Customer operations via DTOs.
@@ -13,11 +17,14 @@ import java.util.List;
 public interface CustomerService {
 
     /**
-     * Retrieve all customers.
+     * Retrieve one page of customers in ascending id order, using keyset pagination.
      *
-     * @return list of {@link CustomerResponseDTO}
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @return a {@link CursorPageDTO} of {@link CustomerResponseDTO}
+     * @throws BadRequestException if the cursor is malformed
      */
-    List<CustomerResponseDTO> findAll();
+    CursorPageDTO<CustomerResponseDTO> findPage(String cursor, Integer size);
 
     /**
      * Retrieve a specific customer by ID.
@@ -28,6 +35,48 @@ public interface CustomerService {
      */
     CustomerResponseDTO findById(Integer id);
 
+    /**
+     * Retrieve several customers by id in one call.
+     *
+     * @param ids the customer identifiers; duplicates are ignored
+     * @return the found customers in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested
+     */
+    MultiGetDTO<CustomerResponseDTO> findAllById(List<Integer> ids);
+
+    /**
+     * Retrieve several customers by id in one call, containing only the requested fields.
+     *
+     * @param ids    the customer identifiers; duplicates are ignored
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the found partial customer objects in request order, plus the ids that do not exist
+     * @throws BadRequestException if no ids or too many ids are requested, or a field is unknown
+     */
+    MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields);
+
+    /**
+     * Retrieve one page of customers containing only the requested fields (sparse fieldset).
+     * Only the columns and joins needed for those fields are read from the database.
+     *
+     * @param cursor opaque cursor returned with the previous page, or null for the first page
+     * @param size   requested page size; capped by the server
+     * @param fields requested response field names; dotted names select nested fields
+     * @return a {@link CursorPageDTO} of partial customer objects
+     * @throws BadRequestException if the cursor is malformed or a field is unknown
+     */
+    CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields);
+
+    /**
+     * Retrieve a specific customer containing only the requested fields (sparse fieldset).
+     *
+     * @param id     the unique identifier of the customer
+     * @param fields requested response field names; dotted names select nested fields
+     * @return the partial customer object
+     * @throws BadRequestException if a field is unknown
+     * @throws RuntimeException if no customer is found with the given ID
+     */
+    Map<String, Object> findById(Integer id, List<String> fields);
+
     /**
      * Create a new customer.
      *
@@ -36,6 +85,14 @@ public interface CustomerService {
      */
     CustomerResponseDTO save(CustomerRequestDTO dto);
 
+    /**
+     * Create several customers, in one transaction per chunk of requests.
+     *
+     * @param dtos the {@link CustomerRequestDTO} of each customer
+     * @return a {@link CustomerResponseDTO} of each created customer, in request order
+     */
+    List<CustomerResponseDTO> saveAll(List<CustomerRequestDTO> dtos);
+
     /**
      * Update an existing customer.
      *
@@ -1,17 +1,34 @@
 package com.mavrommatis.ebookshop.ebookshop.service;
 
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
 import com.mavrommatis.ebookshop.ebookshop.dao.CustomerRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.FieldSelectionRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerRequestDTO;
 import com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
 import com.mavrommatis.ebookshop.ebookshop.entity.CustomerDetailsEntity;
 import com.mavrommatis.ebookshop.ebookshop.entity.CustomerEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.ResourceNotFoundException;
 import com.mavrommatis.ebookshop.ebookshop.mapper.CustomerMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.CursorPaginator;
+import com.mavrommatis.ebookshop.ebookshop.support.FieldCatalog;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoader;
+import com.mavrommatis.ebookshop.ebookshop.support.IdBatchLoaders;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import com.mavrommatis.ebookshop.ebookshop.support.IdListLookup;
+import com.mavrommatis.ebookshop.ebookshop.support.RequestCoalescer;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Service implementation for {@link CustomerService}, handling business logic
@@ -20,40 +37,155 @@ import java.util.stream.Collectors;
 @Service
 public class CustomerServiceImpl implements CustomerService {
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, named as in {@link CustomerResponseDTO}.
+     */
+    private static final FieldCatalog FIELDS = FieldCatalog.of(CustomerEntity.class, "customerId")
+            .attribute("username")
+            .attribute("email")
+            .attribute("createdAt")
+            .attribute("updatedAt")
+            .joined("customerDetails.firstName", "customerDetails", JoinType.LEFT, "firstName")
+            .joined("customerDetails.lastName", "customerDetails", JoinType.LEFT, "lastName")
+            .joined("customerDetails.address", "customerDetails", JoinType.LEFT, "address")
+            .joined("customerDetails.phone", "customerDetails", JoinType.LEFT, "phone");
+
     private final CustomerRepository repository;
     private final CustomerMapper mapper;
+    private final CursorPaginator paginator;
+    private final FieldSelectionRepository fieldSelection;
+    private final IdListLookup idListLookup;
+    private final RequestCoalescer coalescer;
+    private final IdBatchLoader<CustomerResponseDTO> byIdLoader;
+    private final IdExistenceFilter idFilter;
+    private final ChunkedWriter chunkedWriter;
+    private final boolean projectionEnabled;
 
     /**
      * Constructs a new CustomerServiceImpl with required dependencies.
      *
-     * @param repository the repository for Customer entities
-     * @param mapper     the mapper for converting between DTOs and entities
+     * @param repository        the repository for Customer entities
+     * @param mapper            the mapper for converting between DTOs and entities
+     * @param paginator         helper for keyset pagination
+     * @param fieldSelection    repository for sparse fieldset reads
+     * @param idListLookup      helper for multi-get reads
+     * @param coalescer         single-flight loader for reads by id
+     * @param idBatchLoaders    factory of the micro-batching loader for reads by id
+     * @param idFilter          filter of ids known not to exist
+     * @param chunkedWriter     runs bulk creates in one transaction per chunk
+     * @param projectionEnabled whether reads project straight into response DTOs
+     *                          instead of mapping managed entities
      */
     @Autowired
     public CustomerServiceImpl(CustomerRepository repository,
-                               CustomerMapper mapper) {
-        this.repository = repository;
-        this.mapper     = mapper;
+                               CustomerMapper mapper,
+                               CursorPaginator paginator,
+                               FieldSelectionRepository fieldSelection,
+                               IdListLookup idListLookup,
+                               RequestCoalescer coalescer,
+                               IdBatchLoaders idBatchLoaders,
+                               IdExistenceFilter idFilter,
+                               ChunkedWriter chunkedWriter,
+                               @Value("${ebookshop.read-model.projection-enabled:true}") boolean projectionEnabled) {
+        this.repository        = repository;
+        this.mapper            = mapper;
+        this.paginator         = paginator;
+        this.fieldSelection    = fieldSelection;
+        this.idListLookup      = idListLookup;
+        this.coalescer         = coalescer;
+        this.byIdLoader        = idBatchLoaders.create("customer",
+                ids -> projectionEnabled
+                        ? repository.findResponsesByIdIn(ids)
+                        : repository.findAllById(ids).stream().map(mapper::toResponse).toList(),
+                CustomerResponseDTO::getCustomerId,
+                id -> new ResourceNotFoundException("Customer not found: " + id));
+        this.idFilter          = idFilter;
+        this.chunkedWriter     = chunkedWriter;
+        this.projectionEnabled = projectionEnabled;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<CustomerResponseDTO> findAll() {
-        return repository.findAll().stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerResponseDTO> findPage(String cursor, Integer size) {
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        if (projectionEnabled) {
+            List<CustomerResponseDTO> rows = repository.findResponsesAfter(afterId, paginator.seekLimit(pageSize));
+            return paginator.toPage(rows, pageSize, Function.identity(), c -> new int[]{c.getCustomerId()});
+        }
+        List<CustomerEntity> rows = repository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(
+                afterId, paginator.seekLimit(pageSize));
+        return paginator.toPage(rows, pageSize, mapper::toResponse, c -> new int[]{c.getCustomerId()});
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Concurrent calls for the same id share one load through the {@link RequestCoalescer},
+     * and loads of different ids arriving within the batching window are merged into one
+     * {@code IN} query by the {@link IdBatchLoader}, which also opens the read-only transaction.
+     * </p>
      */
     @Override
     public CustomerResponseDTO findById(Integer id) {
-        CustomerEntity entity = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Customer not found: " + id));
-        return mapper.toResponse(entity);
+        if (!idFilter.mightExist(CustomerEntity.class, id)) {
+            throw new ResourceNotFoundException("Customer not found: " + id);
+        }
+        return coalescer.load("customer", id, () -> byIdLoader.load(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<CustomerResponseDTO> findAllById(List<Integer> ids) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<CustomerResponseDTO> found = projectionEnabled
+                ? repository.findResponsesByIdIn(distinct)
+                : repository.findAllById(distinct).stream().map(mapper::toResponse).toList();
+        return idListLookup.collect(distinct, found, CustomerResponseDTO::getCustomerId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDTO<Map<String, Object>> findAllById(List<Integer> ids, List<String> fields) {
+        List<Integer> distinct = idListLookup.distinct(ids);
+        List<Map<String, Object>> found = fieldSelection.findAllById(FIELDS, FIELDS.resolve(fields), distinct);
+        return idListLookup.collect(distinct, found, row -> (Integer) row.get(FIELDS.idField()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Map<String, Object>> findPage(String cursor, Integer size, List<String> fields) {
+        List<String> selected = FIELDS.resolve(fields);
+        int pageSize = paginator.resolvePageSize(size);
+        int afterId  = paginator.decode(cursor, 1)[0];
+        List<Map<String, Object>> rows = fieldSelection.findPage(FIELDS, selected, afterId, pageSize + 1);
+        return paginator.toPage(rows, pageSize, Function.identity(),
+                row -> new int[]{(Integer) row.get(FIELDS.idField())});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(Integer id, List<String> fields) {
+        if (!idFilter.mightExist(CustomerEntity.class, id)) {
+            throw new ResourceNotFoundException("Customer not found: " + id);
+        }
+        return fieldSelection.findById(FIELDS, FIELDS.resolve(fields), id)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + id));
     }
 
     /**
@@ -62,27 +194,37 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     @Transactional
     public CustomerResponseDTO save(CustomerRequestDTO dto) {
-        CustomerEntity customer = mapper.toEntity(dto);
-        if (dto.getCustomerDetails() != null) {
-            CustomerDetailsEntity details = mapper.toEntity(dto.getCustomerDetails());
-            details.setCustomer(customer);
-            customer.setCustomerDetails(details);
-        }
-        CustomerEntity saved = repository.save(customer);
+        CustomerEntity saved = repository.save(toEntity(dto));
         return mapper.toResponse(saved);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Customers are inserted by the {@link ChunkedWriter}: one transaction and a few JDBC
+     * batches per chunk instead of a transaction and two statements per customer.
+     * </p>
+     */
+    @Override
+    public List<CustomerResponseDTO> saveAll(List<CustomerRequestDTO> dtos) {
+        return chunkedWriter.write(dtos, chunk -> {
+            List<CustomerEntity> customers = chunk.stream().map(this::toEntity).toList();
+            repository.saveAll(customers);
+            return customers.stream().map(mapper::toResponse).toList();
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @Transactional
     public CustomerResponseDTO update(Integer id, CustomerRequestDTO dto) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Cannot update. Customer not found: " + id);
+        if (!idFilter.mightExist(CustomerEntity.class, id) || !repository.existsById(id)) {
+            throw new ResourceNotFoundException("Cannot update. Customer not found: " + id);
         }
         CustomerEntity existing = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Customer not found: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + id));
 
         // Update basic fields
         existing.setUsername(dto.getUsername());
@@ -110,11 +252,15 @@ public class CustomerServiceImpl implements CustomerService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Reviews of the customer are removed by the database cascade, so the review cache is cleared too.
+     * </p>
      */
     @Override
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
     public void deleteById(Integer id) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Customer not found: " + id);
+        if (!idFilter.mightExist(CustomerEntity.class, id) || !repository.existsById(id)) {
+            throw new ResourceNotFoundException("Customer not found: " + id);
         }
         repository.deleteById(id);
     }
@@ -124,12 +270,26 @@ public class CustomerServiceImpl implements CustomerService {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = DtoCacheConfig.BOOK_REVIEWS, allEntries = true)
     public void deleteAllById(List<Integer> ids) {
         for (Integer id : ids) {
-            if (!repository.existsById(id)) {
-                throw new RuntimeException("Customer not found: " + id);
+            if (!idFilter.mightExist(CustomerEntity.class, id) || !repository.existsById(id)) {
+                throw new ResourceNotFoundException("Customer not found: " + id);
             }
         }
         repository.deleteAllById(ids);
     }
+
+    /**
+     * Maps a request to a new customer with its details.
+     */
+    private CustomerEntity toEntity(CustomerRequestDTO dto) {
+        CustomerEntity customer = mapper.toEntity(dto);
+        if (dto.getCustomerDetails() != null) {
+            CustomerDetailsEntity details = mapper.toEntity(dto.getCustomerDetails());
+            details.setCustomer(customer);
+            customer.setCustomerDetails(details);
+        }
+        return customer;
+    }
 }
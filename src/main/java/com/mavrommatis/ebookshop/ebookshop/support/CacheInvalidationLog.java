@@ -0,0 +1,163 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.CacheInvalidationRepository;
+import com.mavrommatis.ebookshop.ebookshop.entity.CacheInvalidationEntity.Kind;
+import com.mavrommatis.ebookshop.ebookshop.entity.CacheInvalidationEntity;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes the cache invalidation log that keeps the local caches of several instances
+ * consistent without a message broker ({@code ebookshop.cache.invalidation-log.*}).
+ * <p>
+ * Evictions of the response DTO caches (recorded by {@link InvalidationLoggingCacheManager})
+ * and inserts of rows tracked by the {@link IdExistenceFilter} are collected per transaction,
+ * de-duplicated, and written to {@code cache_invalidation_log} just before the transaction
+ * commits, so an entry exists if and only if its change was committed. Other instances read
+ * the log with the {@link CacheInvalidationTailer}. Outside a transaction an entry is written
+ * on its own.
+ * </p>
+ */
+@Component
+public class CacheInvalidationLog {
+
+    private final CacheInvalidationRepository repository;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final String instanceId;
+
+    /**
+     * Constructs a CacheInvalidationLog.
+     *
+     * @param repository    repository of the log entries
+     * @param entityManager the shared entity manager, flushed before the entries are written
+     * @param enabled       whether entries are written at all
+     * @param instanceId    id of this instance in the log; random when empty
+     */
+    public CacheInvalidationLog(CacheInvalidationRepository repository,
+                                EntityManager entityManager,
+                                @Value("${ebookshop.cache.invalidation-log.enabled:true}") boolean enabled,
+                                @Value("${ebookshop.cache.invalidation-log.instance-id:}") String instanceId) {
+        this.repository    = repository;
+        this.entityManager = entityManager;
+        this.enabled       = enabled;
+        this.instanceId    = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+    }
+
+    /**
+     * @return whether entries are written and should be read back
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return id of this instance in the log, used to skip its own entries
+     */
+    public String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Whether a cache put should be recorded: only puts made by a write (inside a read-write
+     * transaction) replace data; puts that fill the cache after a read do not.
+     *
+     * @return {@code true} if a read-write transaction is active
+     */
+    public boolean isWriting() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Records that a key of a cache was evicted or replaced. Keys that are not integer ids
+     * are recorded as a clear of the whole cache.
+     *
+     * @param cacheName the cache name
+     * @param key       the key
+     */
+    public void recordEvict(String cacheName, Object key) {
+        if (key instanceof Integer id) {
+            record(Kind.EVICT, cacheName, id);
+        } else {
+            record(Kind.CLEAR, cacheName, null);
+        }
+    }
+
+    /**
+     * Records that a whole cache was cleared.
+     *
+     * @param cacheName the cache name
+     */
+    public void recordClear(String cacheName) {
+        record(Kind.CLEAR, cacheName, null);
+    }
+
+    /**
+     * Records that a row was inserted.
+     *
+     * @param entityName the entity name
+     * @param id         the id of the row
+     */
+    public void recordInsert(String entityName, int id) {
+        record(Kind.INSERT, entityName, id);
+    }
+
+    private void record(Kind kind, String name, Integer key) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(kind, name, key);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            repository.save(entry.toEntity(instanceId));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(entry);
+    }
+
+    private record Entry(Kind kind, String name, Integer key) {
+
+        CacheInvalidationEntity toEntity(String origin) {
+            return new CacheInvalidationEntity(kind, name, key, origin);
+        }
+    }
+
+    /**
+     * Entries of the current transaction, written before it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Set<Entry> entries = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Rows whose insert is still queued (ids not generated by the database) only
+            // reach the insert listener at flush time, so flush before writing the entries.
+            entityManager.flush();
+            List<CacheInvalidationEntity> rows = entries.stream()
+                    .map(entry -> entry.toEntity(instanceId))
+                    .toList();
+            entries.clear();
+            repository.saveAll(rows);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationLog.this);
+        }
+    }
+}
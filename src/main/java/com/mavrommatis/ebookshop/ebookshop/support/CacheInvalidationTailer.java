@@ -0,0 +1,253 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
+import com.mavrommatis.ebookshop.ebookshop.dao.CacheInvalidationRepository;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.CacheInvalidationEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the cache invalidation log written by the other instances and applies it locally
+ * ({@code ebookshop.cache.invalidation-log.*}).
+ * <p>
+ * A single daemon thread named {@code cache-invalidation} polls the log every
+ * {@code poll-interval}, starting from the latest entry at startup:
+ * </p>
+ * <ul>
+ *   <li>{@code EVICT} and {@code CLEAR} entries evict the response DTO cache entry (or clear
+ *       the cache) and the matching second-level cache data of the books and authors</li>
+ *   <li>{@code INSERT} entries add the id to the {@link IdExistenceFilter}</li>
+ *   <li>entries written by this instance are skipped, its caches are already up to date</li>
+ * </ul>
+ * <p>
+ * Log positions are auto-increment ids allocated at insert time, so a transaction that
+ * commits late can make a lower position appear after higher ones were read. Positions
+ * skipped over are remembered and looked up by id at every poll for {@code gap-timeout},
+ * after which they are taken as rolled back. Entries older than {@code retention} are deleted.
+ * </p>
+ * <p>
+ * The timer {@code ebookshop.cache.invalidation.lag} records, per applied entry, the time
+ * from its write on the other instance to its application here (clocks are assumed to be
+ * in sync).
+ * </p>
+ */
+@Component
+public class CacheInvalidationTailer {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationTailer.class);
+
+    /** Skipped positions remembered at most, so a burst of rollbacks cannot grow the map unbounded. */
+    private static final int MAX_GAPS = 10_000;
+
+    private final CacheInvalidationRepository repository;
+    private final CacheInvalidationLog invalidationLog;
+    private final InvalidationLoggingCacheManager cacheManager;
+    private final SessionFactory sessionFactory;
+    private final IdExistenceFilter idFilter;
+    private final Timer lag;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private Long position;
+    private long lastCleanup = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a CacheInvalidationTailer.
+     *
+     * @param repository           repository of the log entries
+     * @param invalidationLog      the log writer, for the settings and the id of this instance
+     * @param cacheManager         manager of the response DTO caches
+     * @param entityManagerFactory factory whose second-level cache is evicted
+     * @param idFilter             filter told about rows inserted elsewhere
+     * @param meterRegistry        registry for the propagation lag
+     * @param pollInterval         delay between two reads of the log
+     * @param batchSize            maximum number of entries read at once
+     * @param gapTimeout           how long a skipped position is waited for
+     * @param retention            age after which entries are deleted
+     */
+    public CacheInvalidationTailer(CacheInvalidationRepository repository,
+                                   CacheInvalidationLog invalidationLog,
+                                   InvalidationLoggingCacheManager cacheManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   IdExistenceFilter idFilter,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ebookshop.cache.invalidation-log.poll-interval:300ms}") Duration pollInterval,
+                                   @Value("${ebookshop.cache.invalidation-log.batch-size:500}") int batchSize,
+                                   @Value("${ebookshop.cache.invalidation-log.gap-timeout:10s}") Duration gapTimeout,
+                                   @Value("${ebookshop.cache.invalidation-log.retention:1h}") Duration retention) {
+        this.repository      = repository;
+        this.invalidationLog = invalidationLog;
+        this.cacheManager    = cacheManager;
+        this.sessionFactory  = entityManagerFactory.unwrap(SessionFactory.class);
+        this.idFilter        = idFilter;
+        this.lag             = Timer.builder("ebookshop.cache.invalidation.lag")
+                .description("Time from writing an invalidation on one instance to applying it on another")
+                .register(meterRegistry);
+        this.pollInterval    = pollInterval;
+        this.batchSize       = batchSize;
+        this.gapTimeout      = gapTimeout;
+        this.retention       = retention;
+    }
+
+    /**
+     * Starts tailing the log, if it is enabled. The starting position is read right away,
+     * before the caches and the id filter are filled, so nothing written after it is missed.
+     */
+    @PostConstruct
+    public void start() {
+        if (!invalidationLog.isEnabled()) {
+            return;
+        }
+        try {
+            initPosition();
+        } catch (RuntimeException e) {
+            log.warn("Cannot read the cache invalidation log yet; retrying while polling", e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollQuietly,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops tailing on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Reads and applies the entries written since the previous poll.
+     * Only ever called from the polling thread.
+     */
+    void poll() {
+        if (position == null) {
+            initPosition();
+        }
+        long now = System.nanoTime();
+        if (!gaps.isEmpty()) {
+            for (CacheInvalidationEntity entry : repository.findAllById(List.copyOf(gaps.keySet()))) {
+                if (gaps.remove(entry.getInvalidationId()) != null) {
+                    apply(entry);
+                }
+            }
+        }
+        List<CacheInvalidationEntity> entries = repository.findByInvalidationIdGreaterThanOrderByInvalidationIdAsc(
+                position, PageRequest.of(0, batchSize));
+        for (CacheInvalidationEntity entry : entries) {
+            long id = entry.getInvalidationId();
+            for (long skipped = position + 1; skipped < id && gaps.size() < MAX_GAPS; skipped++) {
+                gaps.put(skipped, now);
+            }
+            position = id;
+            apply(entry);
+        }
+        gaps.values().removeIf(since -> now - since > gapTimeout.toNanos());
+        if (now - lastCleanup > retention.toNanos()) {
+            lastCleanup = now;
+            repository.deleteWrittenBefore(LocalDateTime.now().minus(retention));
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Reading the cache invalidation log failed", e);
+        }
+    }
+
+    private void initPosition() {
+        Long latest = repository.findLatestId();
+        position = latest == null ? 0L : latest;
+    }
+
+    private void apply(CacheInvalidationEntity entry) {
+        if (invalidationLog.instanceId().equals(entry.getOrigin())) {
+            return;
+        }
+        switch (entry.getKind()) {
+            case EVICT -> evict(entry.getName(), entry.getEntryKey());
+            case CLEAR -> clear(entry.getName());
+            case INSERT -> idFilter.markExists(entry.getName(), entry.getEntryKey());
+        }
+        lag.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    private void evict(String cacheName, Integer key) {
+        Cache cache = cacheManager.getLocalCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+        org.hibernate.Cache secondLevel = sessionFactory.getCache();
+        switch (cacheName) {
+            case DtoCacheConfig.BOOKS -> {
+                secondLevel.evictEntityData(BookEntity.class, key);
+                secondLevel.evictEntityData(BookDetailsEntity.class, key);
+                secondLevel.evictCollectionData(AuthorEntity.class.getName() + ".books");
+            }
+            case DtoCacheConfig.AUTHORS -> {
+                secondLevel.evictEntityData(AuthorEntity.class, key);
+                secondLevel.evictEntityData(AuthorDetailsEntity.class, key);
+                secondLevel.evictCollectionData(AuthorEntity.class.getName() + ".books", key);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getLocalCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+        org.hibernate.Cache secondLevel = sessionFactory.getCache();
+        switch (cacheName) {
+            case DtoCacheConfig.BOOKS -> {
+                secondLevel.evictEntityData(BookEntity.class);
+                secondLevel.evictEntityData(BookDetailsEntity.class);
+                secondLevel.evictCollectionData(AuthorEntity.class.getName() + ".books");
+            }
+            case DtoCacheConfig.AUTHORS -> {
+                secondLevel.evictEntityData(AuthorEntity.class);
+                secondLevel.evictEntityData(AuthorDetailsEntity.class);
+                secondLevel.evictCollectionData(AuthorEntity.class.getName() + ".books");
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Saves the catalog caches to a file on graceful shutdown and loads them back at startup,
+ * so a restarted instance serves its hot books and authors from memory within seconds
+ * ({@code ebookshop.cache-snapshot.*}).
+ * <p>
+ * The file holds the {@value DtoCacheConfig#BOOKS} and {@value DtoCacheConfig#AUTHORS}
+ * caches, each entry as its id and its JSON, and the ids of the {@link IdExistenceFilter}.
+ * It is written and read through a memory-mapped {@link FileChannel}, written to a
+ * temporary file first and then renamed, so a crash never leaves a half-written snapshot.
+ * </p>
+ * <p>
+ * Loading happens when the application has started, before the warm-up runs:
+ * </p>
+ * <ul>
+ *   <li>a cache is loaded only if the {@link ResourceVersion} of its collection (latest
+ *       {@code updated_at} and row count of the tables its DTOs are made of) is still the
+ *       one saved with it; otherwise nothing of it is loaded</li>
+ *   <li>the ids of a table are restored only if its row count, id sum and highest id still
+ *       match (see {@link IdExistenceFilter#restore(String, long[])}); other tables are
+ *       loaded from the database as usual</li>
+ * </ul>
+ */
+@Component
+public class CacheSnapshotFile {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotFile.class);
+
+    private static final int MAGIC = 0x45424353;
+    private static final int FORMAT = 1;
+
+    private final InvalidationLoggingCacheManager cacheManager;
+    private final IdExistenceFilter idFilter;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Class<?>> types = new LinkedHashMap<>();
+    private final Map<String, Supplier<ResourceVersion>> versions = new LinkedHashMap<>();
+    private final boolean enabled;
+    private final Path file;
+
+    /**
+     * Constructs a CacheSnapshotFile.
+     *
+     * @param cacheManager     manager of the response DTO caches
+     * @param idFilter         filter whose ids are saved and restored
+     * @param objectMapper     mapper used for the cached DTOs
+     * @param bookRepository   source of the version of the books
+     * @param authorRepository source of the version of the authors
+     * @param enabled          whether the caches are saved and loaded
+     * @param file             path of the snapshot file
+     */
+    public CacheSnapshotFile(InvalidationLoggingCacheManager cacheManager,
+                             IdExistenceFilter idFilter,
+                             ObjectMapper objectMapper,
+                             BookRepository bookRepository,
+                             AuthorRepository authorRepository,
+                             @Value("${ebookshop.cache-snapshot.enabled:true}") boolean enabled,
+                             @Value("${ebookshop.cache-snapshot.file:${java.io.tmpdir}/ebookshop-caches.snapshot}") String file) {
+        this.cacheManager = cacheManager;
+        this.idFilter     = idFilter;
+        this.objectMapper = objectMapper;
+        this.enabled      = enabled;
+        this.file         = Path.of(file);
+        types.put(DtoCacheConfig.BOOKS, BookResponseDTO.class);
+        types.put(DtoCacheConfig.AUTHORS, AuthorResponseDTO.class);
+        versions.put(DtoCacheConfig.BOOKS, bookRepository::findCollectionVersion);
+        versions.put(DtoCacheConfig.AUTHORS, authorRepository::findCollectionVersion);
+    }
+
+    /**
+     * Loads the snapshot, if there is one.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        if (!enabled || !Files.isReadable(file)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                log.warn("Ignoring cache snapshot {}: unknown format", file);
+                return;
+            }
+            int loaded = readCaches(buffer);
+            int restored = readIds(buffer);
+            log.info("Cache snapshot loaded in {} ms: {} entries, ids of {} tables",
+                    (System.nanoTime() - started) / 1_000_000, loaded, restored);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Cannot load cache snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Saves the caches on graceful shutdown.
+     */
+    @PreDestroy
+    public void save() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<byte[]> chunks = new ArrayList<>();
+            chunks.add(ByteBuffer.allocate(8).putInt(MAGIC).putInt(FORMAT).array());
+            int entries = writeCaches(chunks);
+            writeIds(chunks);
+            write(chunks);
+            log.info("Cache snapshot saved to {} with {} entries", file, entries);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot save cache snapshot {}", file, e);
+        }
+    }
+
+    private int writeCaches(List<byte[]> chunks) throws IOException {
+        int total = 0;
+        chunks.add(intBytes(types.size()));
+        for (String name : types.keySet()) {
+            Map<Object, Object> entries = nativeCache(name);
+            chunks.add(string(name));
+            chunks.add(string(versions.get(name).get().eTag()));
+            List<byte[]> values = new ArrayList<>();
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                if (entry.getKey() instanceof Integer id) {
+                    byte[] json = objectMapper.writeValueAsBytes(entry.getValue());
+                    values.add(ByteBuffer.allocate(8).putInt(id).putInt(json.length).array());
+                    values.add(json);
+                }
+            }
+            chunks.add(intBytes(values.size() / 2));
+            chunks.addAll(values);
+            total += values.size() / 2;
+        }
+        return total;
+    }
+
+    private void writeIds(List<byte[]> chunks) {
+        Map<String, long[]> ids = idFilter.exportIds();
+        chunks.add(intBytes(ids.size()));
+        ids.forEach((entityName, words) -> {
+            chunks.add(string(entityName));
+            ByteBuffer buffer = ByteBuffer.allocate(4 + words.length * 8).putInt(words.length);
+            buffer.asLongBuffer().put(words);
+            chunks.add(buffer.array());
+        });
+    }
+
+    private void write(List<byte[]> chunks) throws IOException {
+        long size = chunks.stream().mapToLong(chunk -> chunk.length).sum();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            chunks.forEach(buffer::put);
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int readCaches(ByteBuffer buffer) throws IOException {
+        int loaded = 0;
+        int caches = buffer.getInt();
+        for (int i = 0; i < caches; i++) {
+            String name = readString(buffer);
+            String version = readString(buffer);
+            int entries = buffer.getInt();
+            Class<?> type = types.get(name);
+            boolean valid = type != null && version.equals(versions.get(name).get().eTag());
+            Cache cache = valid ? cacheManager.getLocalCache(name) : null;
+            if (cache == null) {
+                log.info("Cache snapshot of {} is outdated; not loaded", name);
+            }
+            for (int j = 0; j < entries; j++) {
+                int id = buffer.getInt();
+                byte[] json = new byte[buffer.getInt()];
+                buffer.get(json);
+                if (cache != null) {
+                    cache.putIfAbsent(id, objectMapper.readValue(json, type));
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private int readIds(ByteBuffer buffer) {
+        int restored = 0;
+        int tables = buffer.getInt();
+        for (int i = 0; i < tables; i++) {
+            String entityName = readString(buffer);
+            long[] words = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(words);
+            buffer.position(buffer.position() + words.length * 8);
+            if (idFilter.restore(entityName, words)) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> nativeCache(String name) {
+        Cache cache = cacheManager.getLocalCache(name);
+        return cache == null
+                ? Map.of()
+                : ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache()).asMap();
+    }
+
+    private static byte[] intBytes(int value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    private static byte[] string(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + utf8.length).putInt(utf8.length).put(utf8).array();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.getInt()];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A book of the catalog snapshot: the response DTO plus the id of its main author,
+ * which the DTO only carries as a name but the bibliography index needs.
+ *
+ * @param authorId id of the main author
+ * @param book     the book as returned to clients
+ */
+public record CatalogBookRow(int authorId, BookResponseDTO book) {
+
+    /**
+     * Flat constructor used by JPQL constructor projections; the remaining arguments are
+     * those of the flat {@link BookResponseDTO} constructor.
+     */
+    public CatalogBookRow(int authorId, int bookId, String title, String language, String genre,
+                          String literaryForm, String isbn, boolean isCollective,
+                          String authorFirstName, String authorLastName,
+                          Integer detailsId, LocalDate publishDate, Integer pages, String summary,
+                          String dimensions, String coverType, BigDecimal weight,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(authorId, new BookResponseDTO(bookId, title, language, genre, literaryForm, isbn, isCollective,
+                authorFirstName, authorLastName,
+                detailsId, publishDate, pages, summary, dimensions, coverType, weight,
+                createdAt, updatedAt));
+    }
+}
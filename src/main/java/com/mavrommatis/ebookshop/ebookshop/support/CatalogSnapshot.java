@@ -0,0 +1,251 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookIdEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable in-memory copy of the book catalog: every book with its author name and details,
+ * and the bibliography of every author (books they are the main author of plus the books
+ * linked to them through {@code author_book}).
+ * <p>
+ * An instance is never modified once built, and only immutable lists of books are handed out.
+ * {@link #apply(List, List, LocalDateTime)} copies the collections it has to change and
+ * returns a new snapshot, so readers holding the previous one are unaffected and need no
+ * locking. Deletes are not applied incrementally;
+ * they are detected through {@link #matches(TableFingerprint, TableFingerprint)} and
+ * handled by a full reload (see {@link CatalogSnapshotHolder}).
+ * </p>
+ */
+public final class CatalogSnapshot {
+
+    private final NavigableMap<Integer, BookResponseDTO> books;
+    private final Map<Integer, Integer> mainAuthors;
+    private final Set<AuthorBookIdEntity> links;
+    private final Map<Integer, NavigableSet<Integer>> bibliographies;
+    private final long bookChecksum;
+    private final long linkChecksum;
+    private final LocalDateTime watermark;
+    private final long catalogVersion;
+
+    private CatalogSnapshot(NavigableMap<Integer, BookResponseDTO> books,
+                            Map<Integer, Integer> mainAuthors,
+                            Set<AuthorBookIdEntity> links,
+                            Map<Integer, NavigableSet<Integer>> bibliographies,
+                            long bookChecksum,
+                            long linkChecksum,
+                            LocalDateTime watermark,
+                            long catalogVersion) {
+        this.books          = books;
+        this.mainAuthors    = mainAuthors;
+        this.links          = links;
+        this.bibliographies = bibliographies;
+        this.bookChecksum   = bookChecksum;
+        this.linkChecksum   = linkChecksum;
+        this.watermark      = watermark;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Builds a snapshot from a full read of the catalog.
+     *
+     * @param rows      every book with the id of its main author
+     * @param links     every author-book association
+     * @param watermark      time at which the read started
+     * @param catalogVersion {@link CatalogVersion} known before the read started
+     * @return the snapshot
+     */
+    public static CatalogSnapshot load(List<CatalogBookRow> rows, List<AuthorBookIdEntity> links,
+                                       LocalDateTime watermark, long catalogVersion) {
+        CatalogSnapshot empty = new CatalogSnapshot(new TreeMap<>(), new HashMap<>(), new HashSet<>(),
+                new HashMap<>(), 0, 0, watermark, catalogVersion);
+        return empty.apply(rows, links, watermark, catalogVersion);
+    }
+
+    /**
+     * Returns a snapshot with the given changes applied. Rows identical to the ones already
+     * held are ignored; if nothing changed, the returned snapshot shares all data with this one.
+     *
+     * @param rows           books that were inserted or changed, with the id of their main author
+     * @param newLinks       associations that were inserted or changed
+     * @param watermark      time at which the read of the changes started
+     * @param catalogVersion {@link CatalogVersion} known before the read of the changes started
+     * @return the new snapshot
+     */
+    public CatalogSnapshot apply(List<CatalogBookRow> rows, List<AuthorBookIdEntity> newLinks,
+                                 LocalDateTime watermark, long catalogVersion) {
+        List<CatalogBookRow> changedRows = rows.stream()
+                .filter(row -> !row.book().equals(books.get(row.book().getBookId()))
+                        || !Objects.equals(mainAuthors.get(row.book().getBookId()), row.authorId()))
+                .toList();
+        List<AuthorBookIdEntity> addedLinks = newLinks.stream()
+                .filter(link -> !links.contains(link))
+                .toList();
+        if (changedRows.isEmpty() && addedLinks.isEmpty()) {
+            return new CatalogSnapshot(books, mainAuthors, links, bibliographies,
+                    bookChecksum, linkChecksum, watermark, catalogVersion);
+        }
+
+        NavigableMap<Integer, BookResponseDTO> nextBooks = new TreeMap<>(books);
+        Map<Integer, Integer> nextMainAuthors = new HashMap<>(mainAuthors);
+        Set<AuthorBookIdEntity> nextLinks = new HashSet<>(links);
+        Bibliographies nextBibliographies = new Bibliographies(bibliographies);
+        long nextBookChecksum = bookChecksum;
+        long nextLinkChecksum = linkChecksum;
+
+        for (AuthorBookIdEntity link : addedLinks) {
+            nextLinks.add(link);
+            nextLinkChecksum += checksum(link);
+            nextBibliographies.add(link.getAuthorId(), link.getBookId());
+        }
+        for (CatalogBookRow row : changedRows) {
+            int bookId = row.book().getBookId();
+            if (nextBooks.put(bookId, row.book()) == null) {
+                nextBookChecksum += bookId;
+            }
+            Integer previousAuthor = nextMainAuthors.put(bookId, row.authorId());
+            if (previousAuthor != null && previousAuthor != row.authorId()
+                    && !nextLinks.contains(new AuthorBookIdEntity(previousAuthor, bookId))) {
+                nextBibliographies.remove(previousAuthor, bookId);
+            }
+            nextBibliographies.add(row.authorId(), bookId);
+        }
+        return new CatalogSnapshot(nextBooks, nextMainAuthors, nextLinks, nextBibliographies.result,
+                nextBookChecksum, nextLinkChecksum, watermark, catalogVersion);
+    }
+
+    /**
+     * Whether this snapshot holds exactly the rows described by the database fingerprints.
+     * A mismatch means rows were deleted since the last full load.
+     *
+     * @param bookFingerprint fingerprint of the book table
+     * @param linkFingerprint fingerprint of the association table
+     * @return {@code true} if both the row counts and the key checksums agree
+     */
+    public boolean matches(TableFingerprint bookFingerprint, TableFingerprint linkFingerprint) {
+        return bookFingerprint.rows() == books.size()
+                && bookFingerprint.checksum() == bookChecksum
+                && linkFingerprint.rows() == links.size()
+                && linkFingerprint.checksum() == linkChecksum;
+    }
+
+    /**
+     * @return time at which the read that produced this snapshot started
+     */
+    public LocalDateTime watermark() {
+        return watermark;
+    }
+
+    /**
+     * @return {@link CatalogVersion} known before the read that produced this snapshot started;
+     *         the snapshot holds the catalog of at least that version
+     */
+    public long catalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * @return number of books
+     */
+    public int size() {
+        return books.size();
+    }
+
+    /**
+     * @param bookId the book id
+     * @return the book, or {@code null} if it is not in the snapshot
+     */
+    public BookResponseDTO book(int bookId) {
+        return books.get(bookId);
+    }
+
+    /**
+     * Keyset page of books.
+     *
+     * @param afterId the id of the last book of the previous page (0 for the first page)
+     * @param limit   maximum number of books to return
+     * @return the next books after {@code afterId}, ordered by id
+     */
+    public List<BookResponseDTO> booksAfter(int afterId, int limit) {
+        return books.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Keyset page of an author's bibliography.
+     *
+     * @param authorId the author id
+     * @param afterId  the id of the last book of the previous page (0 for the first page)
+     * @param limit    maximum number of books to return
+     * @return the next books of the author after {@code afterId}, ordered by id
+     */
+    public List<BookResponseDTO> bibliographyAfter(int authorId, int afterId, int limit) {
+        NavigableSet<Integer> bookIds = bibliographies.get(authorId);
+        if (bookIds == null) {
+            return List.of();
+        }
+        List<BookResponseDTO> page = new ArrayList<>(Math.min(limit, bookIds.size()));
+        for (Integer bookId : bookIds.tailSet(afterId, false)) {
+            if (page.size() == limit) {
+                break;
+            }
+            BookResponseDTO book = books.get(bookId);
+            if (book != null) {
+                page.add(book);
+            }
+        }
+        return page;
+    }
+
+    private static long checksum(AuthorBookIdEntity link) {
+        return (long) link.getAuthorId() * 65536 + link.getBookId();
+    }
+
+    /**
+     * Copy-on-write view over the bibliography index: the outer map is copied once, and
+     * the set of an author is copied the first time it is changed.
+     */
+    private static final class Bibliographies {
+
+        private final Map<Integer, NavigableSet<Integer>> result;
+        private final Set<Integer> copied = new HashSet<>();
+
+        private Bibliographies(Map<Integer, NavigableSet<Integer>> current) {
+            this.result = new HashMap<>(current);
+        }
+
+        void add(int authorId, int bookId) {
+            writable(authorId).add(bookId);
+        }
+
+        void remove(int authorId, int bookId) {
+            NavigableSet<Integer> bookIds = writable(authorId);
+            bookIds.remove(bookId);
+            if (bookIds.isEmpty()) {
+                result.remove(authorId);
+                copied.remove(authorId);
+            }
+        }
+
+        private NavigableSet<Integer> writable(int authorId) {
+            if (copied.add(authorId)) {
+                NavigableSet<Integer> current = result.get(authorId);
+                result.put(authorId, current == null ? new TreeSet<>() : new TreeSet<>(current));
+            }
+            return result.get(authorId);
+        }
+    }
+}
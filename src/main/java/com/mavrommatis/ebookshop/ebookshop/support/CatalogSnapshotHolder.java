@@ -0,0 +1,182 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.catalog.CatalogSnapshotProperties;
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorBookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot} and keeps it up to date
+ * ({@code ebookshop.catalog-snapshot.*}, see {@link CatalogSnapshotProperties}).
+ * <p>
+ * Once the application is ready, a single daemon thread named {@code catalog-snapshot}
+ * loads the whole catalog and then polls it every refresh interval:
+ * </p>
+ * <ul>
+ *   <li>books whose row, author or details have an {@code updated_at} (or {@code created_at})
+ *       after the previous watermark, minus the configured overlap, are re-read, and so are
+ *       new author-book links</li>
+ *   <li>the changes are applied copy-on-write and the new snapshot replaces the old one
+ *       with a single reference swap; readers never lock and never see a half-applied refresh</li>
+ *   <li>deletes do not move any watermark, so each poll also compares the row counts and key
+ *       checksums of the book and author-book tables with the snapshot and reloads it fully
+ *       when they differ</li>
+ * </ul>
+ * <p>
+ * Each poll runs in one read-only, repeatable-read transaction, so the changes and the
+ * fingerprints describe the same state. A failed poll is logged and retried at the next
+ * interval; the previous snapshot keeps being served. The gauge
+ * {@code ebookshop.catalog-snapshot.lag} reports the seconds since the watermark of the
+ * snapshot being served.
+ * </p>
+ */
+@Component
+public class CatalogSnapshotHolder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotHolder.class);
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final BookRepository bookRepository;
+    private final AuthorBookRepository authorBookRepository;
+    private final CatalogSnapshotProperties properties;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate readOnly;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a CatalogSnapshotHolder.
+     *
+     * @param bookRepository       repository for reading books
+     * @param authorBookRepository repository for reading author-book links
+     * @param properties           the snapshot settings
+     * @param catalogVersion       version recorded with every snapshot, for its validators
+     * @param transactionManager   transaction manager used for the read-only refresh transactions
+     * @param meterRegistry        registry for the lag gauge
+     */
+    public CatalogSnapshotHolder(BookRepository bookRepository,
+                                 AuthorBookRepository authorBookRepository,
+                                 CatalogSnapshotProperties properties,
+                                 CatalogVersion catalogVersion,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.bookRepository       = bookRepository;
+        this.authorBookRepository = authorBookRepository;
+        this.properties           = properties;
+        this.catalogVersion       = catalogVersion;
+        this.readOnly             = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        Gauge.builder("ebookshop.catalog-snapshot.lag", current, CatalogSnapshotHolder::lagSeconds)
+                .description("Seconds since the watermark of the catalog snapshot being served")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts loading and polling the catalog, if the snapshot is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0,
+                properties.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * @return the snapshot to serve reads from, or {@code null} if the snapshot is disabled
+     *         or its first load has not completed yet
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * @return whether reads are currently served from the snapshot
+     */
+    public boolean serving() {
+        return current.get() != null;
+    }
+
+    /**
+     * Loads the catalog, or applies the changes since the previous refresh.
+     * Only ever called from the polling thread.
+     */
+    void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long version = catalogVersion.current();
+        CatalogSnapshot previous = current.get();
+        CatalogSnapshot next = readOnly.execute(status -> previous == null
+                ? fullLoad(startedAt, version)
+                : incremental(previous, startedAt, version));
+        current.set(next);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot refresh failed; serving the previous snapshot", e);
+        }
+    }
+
+    private CatalogSnapshot fullLoad(LocalDateTime startedAt, long version) {
+        CatalogSnapshot snapshot = CatalogSnapshot.load(
+                bookRepository.findCatalogRows(), authorBookRepository.findAllIds(), startedAt, version);
+        log.info("Catalog snapshot loaded with {} books", snapshot.size());
+        return snapshot;
+    }
+
+    private CatalogSnapshot incremental(CatalogSnapshot previous, LocalDateTime startedAt, long version) {
+        LocalDateTime since = previous.watermark().minus(properties.getOverlap());
+        CatalogSnapshot next = previous.apply(
+                bookRepository.findCatalogRowsChangedSince(since),
+                authorBookRepository.findIdsChangedSince(since),
+                startedAt,
+                version);
+        if (!next.matches(bookRepository.findCatalogFingerprint(), authorBookRepository.findCatalogFingerprint())) {
+            log.debug("Catalog rows were deleted; reloading the snapshot");
+            return fullLoad(startedAt, version);
+        }
+        return next;
+    }
+
+    private static double lagSeconds(AtomicReference<CatalogSnapshot> current) {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null
+                ? Double.NaN
+                : Duration.between(snapshot.watermark(), LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.CatalogVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global, monotonically increasing version of the catalog ({@code ebookshop.catalog-version.*}).
+ * <p>
+ * Every write to books, book details, authors, author details or author-book links calls
+ * {@link #bump()}, which increments the single row of {@code catalog_version} once per
+ * transaction, just before it commits (so the row lock is held only for the commit), and
+ * advances the in-memory mirror after the commit. Writes made by other instances reach the
+ * mirror through a daemon thread named {@code catalog-version} that reads the row every
+ * {@code poll-interval}.
+ * </p>
+ * <p>
+ * Derived results keyed by {@link #current()}, such as the {@value
+ * com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig#CATALOG_QUERIES} cache,
+ * are thereby all invalidated by any write, without tracking what they depend on; entries
+ * of older versions are simply never read again and age out. The version is also sent as
+ * the {@code X-Catalog-Version} response header.
+ * </p>
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private final CatalogVersionRepository repository;
+    private final TransactionTemplate transaction;
+    private final Duration pollInterval;
+    private final AtomicLong current = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a CatalogVersion.
+     *
+     * @param repository         repository of the version row
+     * @param transactionManager transaction manager for increments made outside a transaction
+     * @param pollInterval       delay between two reads of the version row
+     */
+    public CatalogVersion(CatalogVersionRepository repository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${ebookshop.catalog-version.poll-interval:1s}") Duration pollInterval) {
+        this.repository   = repository;
+        this.transaction  = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Reads the version and starts polling it.
+     */
+    @PostConstruct
+    public void start() {
+        refreshQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-version");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * @return the latest catalog version known to this instance
+     */
+    public long current() {
+        return current.get();
+    }
+
+    /**
+     * Records a write to the catalog. Inside a transaction the version is incremented once,
+     * when it commits; outside a transaction it is incremented right away.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            advance(transaction.execute(status -> increment()));
+            return;
+        }
+        if (TransactionSynchronizationManager.getResource(this) == null) {
+            Increment increment = new Increment();
+            TransactionSynchronizationManager.bindResource(this, increment);
+            TransactionSynchronizationManager.registerSynchronization(increment);
+        }
+    }
+
+    private long increment() {
+        if (repository.increment() == 0) {
+            throw new IllegalStateException("The catalog_version row is missing");
+        }
+        return repository.findVersion();
+    }
+
+    private void advance(long version) {
+        current.accumulateAndGet(version, Math::max);
+    }
+
+    private void refreshQuietly() {
+        try {
+            Long version = repository.findVersion();
+            if (version != null) {
+                advance(version);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reading the catalog version failed", e);
+        }
+    }
+
+    /**
+     * Increment of the current transaction, run before it commits.
+     */
+    private final class Increment implements TransactionSynchronization {
+
+        private long version;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            version = increment();
+        }
+
+        @Override
+        public void afterCommit() {
+            advance(version);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersion.this);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Runs bulk creates in one transaction per chunk ({@code ebookshop.bulk-insert.chunk-size}).
+ * <p>
+ * The entities persisted in a chunk are inserted when its transaction commits, grouped per
+ * table ({@code hibernate.order_inserts}) into JDBC batches of {@code hibernate.jdbc.batch_size}
+ * statements, which the MySQL driver rewrites into multi-row inserts. Chunks bound the size
+ * of the persistence context and how long row locks are held. A failing chunk is rolled
+ * back alone; the chunks before it stay committed. A writer that can tell its chunk apart
+ * throws {@link RejectedChunkException}, so the chunk is reported by a fallback and the
+ * following chunks are still written.
+ * </p>
+ * <p>
+ * While a chunk transaction holds its connection, the {@code id_sequence} table generator
+ * takes a second one from the pool for each new id block; {@link ReservingDataSource} keeps
+ * pool connections for it, as for single creates. At most
+ * {@code ebookshop.bulk-insert.max-concurrent-chunks} chunks run at once, so bulk creates
+ * leave most of the pool to other requests.
+ * </p>
+ */
+@Component
+public class ChunkedWriter {
+
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final Semaphore permits;
+
+    /**
+     * Constructs a ChunkedWriter.
+     *
+     * @param transactionManager  transaction manager of the chunk transactions
+     * @param chunkSize           maximum number of items written in one transaction
+     * @param maxConcurrentChunks maximum number of chunk transactions running at once, across callers
+     */
+    public ChunkedWriter(PlatformTransactionManager transactionManager,
+                         @Value("${ebookshop.bulk-insert.chunk-size:1000}") int chunkSize,
+                         @Value("${ebookshop.bulk-insert.max-concurrent-chunks:2}") int maxConcurrentChunks) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize   = Math.max(1, chunkSize);
+        this.permits     = new Semaphore(Math.max(1, maxConcurrentChunks), true);
+    }
+
+    /**
+     * Writes the items chunk by chunk.
+     *
+     * @param items  the items to write, in order
+     * @param writer writes one chunk inside its transaction and returns its results
+     * @param <T>    type of the items
+     * @param <R>    type of the results
+     * @return the results of all chunks, in chunk order
+     */
+    public <T, R> List<R> write(List<T> items, Function<List<T>, List<R>> writer) {
+        return write(items, writer, null);
+    }
+
+    /**
+     * Writes the items chunk by chunk; a chunk whose writer throws {@link RejectedChunkException}
+     * is rolled back and reported by {@code rejected} instead of failing the remaining chunks.
+     *
+     * @param items    the items to write, in order
+     * @param writer   writes one chunk inside its transaction and returns its results
+     * @param rejected results of a rolled back chunk, or null to rethrow the exception
+     * @param <T>      type of the items
+     * @param <R>      type of the results
+     * @return the results of all chunks, in chunk order
+     */
+    public <T, R> List<R> write(List<T> items, Function<List<T>, List<R>> writer,
+                                Function<List<T>, List<R>> rejected) {
+        List<R> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            permits.acquireUninterruptibly();
+            try {
+                results.addAll(transaction.execute(status -> writer.apply(chunk)));
+            } catch (RejectedChunkException e) {
+                if (rejected == null) {
+                    throw e;
+                }
+                results.addAll(rejected.apply(chunk));
+            } finally {
+                permits.release();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Fallback for {@link #write(List, Function, Function)} that writes each item of a rolled
+     * back chunk in its own transaction, so only the items that fail again are reported by
+     * {@code rejected}. It runs under the permit of the rejected chunk.
+     *
+     * @param writer   writes one item, as a chunk of one, inside its transaction
+     * @param rejected results of an item whose writer throws {@link RejectedChunkException}
+     * @param <T>      type of the items
+     * @param <R>      type of the results
+     * @return the fallback
+     */
+    public <T, R> Function<List<T>, List<R>> oneByOne(Function<List<T>, List<R>> writer,
+                                                      Function<List<T>, List<R>> rejected) {
+        return chunk -> {
+            List<R> results = new ArrayList<>(chunk.size());
+            for (T item : chunk) {
+                List<T> single = Collections.singletonList(item);
+                try {
+                    results.addAll(transaction.execute(status -> writer.apply(single)));
+                } catch (RejectedChunkException e) {
+                    results.addAll(rejected.apply(single));
+                }
+            }
+            return results;
+        };
+    }
+
+    /**
+     * Thrown by a chunk writer to roll back its chunk and have it reported by the fallback
+     * of {@link #write(List, Function, Function)}.
+     */
+    public static class RejectedChunkException extends RuntimeException {
+
+        /**
+         * @param message why the chunk was rolled back
+         */
+        public RejectedChunkException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Count-min sketch of id frequencies with the {@code k} most frequent ids on the side.
+ * <p>
+ * The sketch is {@code depth} rows of {@code width} counters; an id increments one counter
+ * per row (only those holding the row minimum, the conservative update) and its estimate
+ * is the smallest of them, which can overcount but never undercount. Memory is fixed by
+ * {@code depth × width} and {@code k}, whatever the number of distinct ids.
+ * </p>
+ * <p>
+ * After {@code sampleSize} additions every counter is halved, so the estimates follow the
+ * recent traffic instead of the total since startup. Updates are serialized; membership
+ * checks of the top ids ({@link #isTop(int)}) do not lock.
+ * </p>
+ */
+final class CountMinTopK {
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x7F4A7C15, 0x94D049BB, 0xBF58476D, 0x1CE4E5B9, 0x133111EB};
+
+    private final int[][] counters;
+    private final int mask;
+    private final int k;
+    private final int sampleSize;
+    private final Map<Integer, Integer> top = new ConcurrentHashMap<>();
+    private int additions;
+    private int topMinimum;
+
+    /**
+     * @param width      counters per row, rounded up to a power of two
+     * @param depth      number of rows, at most six
+     * @param k          number of most frequent ids kept
+     * @param sampleSize additions between two halvings of the counters
+     */
+    CountMinTopK(int width, int depth, int k, int sampleSize) {
+        int rows = Math.max(1, Math.min(depth, SEEDS.length));
+        int columns = Integer.highestOneBit(Math.max(1, width));
+        if (columns < width) {
+            columns <<= 1;
+        }
+        this.counters   = new int[rows][columns];
+        this.mask       = columns - 1;
+        this.k          = k;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Counts one occurrence of an id.
+     *
+     * @param id the id
+     */
+    synchronized void add(int id) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][index(id, row)]);
+        }
+        for (int row = 0; row < counters.length; row++) {
+            int index = index(id, row);
+            if (counters[row][index] == estimate) {
+                counters[row][index]++;
+            }
+        }
+        estimate++;
+        offer(id, estimate);
+        if (++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * @param id the id
+     * @return whether the id is currently among the {@code k} most frequent ones
+     */
+    boolean isTop(int id) {
+        return top.containsKey(id);
+    }
+
+    /**
+     * @return the most frequent ids with their estimated counts, most frequent first
+     */
+    List<Map.Entry<Integer, Integer>> top() {
+        return top.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder()))
+                .toList();
+    }
+
+    /** Caller must hold the monitor. */
+    private void offer(int id, int estimate) {
+        if (top.containsKey(id) || top.size() < k) {
+            top.put(id, estimate);
+            if (top.size() == k) {
+                topMinimum = minimum();
+            }
+            return;
+        }
+        // Counts of the top ids only grow between halvings, so topMinimum is a lower bound
+        // and most ids are rejected without scanning the top ids.
+        if (estimate <= topMinimum) {
+            return;
+        }
+        Map.Entry<Integer, Integer> smallest = null;
+        for (Map.Entry<Integer, Integer> entry : top.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        if (smallest != null && estimate > smallest.getValue()) {
+            top.remove(smallest.getKey());
+            top.put(id, estimate);
+        }
+        topMinimum = minimum();
+    }
+
+    /** Caller must hold the monitor. */
+    private void halve() {
+        additions = 0;
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        top.replaceAll((id, count) -> count >>> 1);
+        topMinimum = minimum();
+    }
+
+    private int minimum() {
+        int minimum = Integer.MAX_VALUE;
+        for (int count : top.values()) {
+            minimum = Math.min(minimum, count);
+        }
+        return top.size() < k ? 0 : minimum;
+    }
+
+    private int index(int id, int row) {
+        int hash = id * SEEDS[row];
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash & mask;
+    }
+}
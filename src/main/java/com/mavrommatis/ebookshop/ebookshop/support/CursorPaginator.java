@@ -0,0 +1,134 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helper for keyset (seek) pagination over integer keys.
+ * <p>
+ * A cursor is the URL-safe Base64 encoding of the key(s) of the last row of a page.
+ * Repositories seek with {@code WHERE key > :lastKey ORDER BY key LIMIT :size + 1},
+ * so deep pages cost the same as the first one. The extra row is only used to
+ * detect whether a next page exists and is never returned to the client.
+ * </p>
+ */
+@Component
+public class CursorPaginator {
+
+    private static final String KEY_SEPARATOR = ":";
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    /**
+     * Constructs a CursorPaginator with the configured page size limits.
+     *
+     * @param defaultPageSize page size used when the client does not request one
+     * @param maxPageSize     hard upper bound for any requested page size
+     */
+    public CursorPaginator(@Value("${ebookshop.pagination.default-page-size:20}") int defaultPageSize,
+                           @Value("${ebookshop.pagination.max-page-size:100}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize     = maxPageSize;
+    }
+
+    /**
+     * Resolves the page size to use, falling back to the default and capping at the maximum.
+     *
+     * @param requested the page size requested by the client (may be null)
+     * @return the effective page size
+     */
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Builds the {@link Pageable} used as LIMIT for a seek query, fetching one extra row.
+     *
+     * @param pageSize the effective page size
+     * @return a first-page request of {@code pageSize + 1} rows
+     */
+    public Pageable seekLimit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Decodes a cursor into its keys. A missing cursor decodes to all-zero keys,
+     * i.e. the position before the first row.
+     *
+     * @param cursor the opaque cursor (may be null or blank)
+     * @param arity  the number of keys the cursor must contain
+     * @return the decoded keys
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public int[] decode(String cursor, int arity) {
+        if (cursor == null || cursor.isBlank()) {
+            return new int[arity];
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(KEY_SEPARATOR);
+            if (parts.length != arity) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            int[] keys = new int[arity];
+            for (int i = 0; i < arity; i++) {
+                keys[i] = Integer.parseInt(parts[i]);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException and Base64 decoding errors
+            throw new BadRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Encodes the given keys into an opaque cursor.
+     *
+     * @param keys the key(s) of the last row of a page
+     * @return the cursor string
+     */
+    public String encode(int... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(KEY_SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Turns the rows of a seek query (fetched with {@link #seekLimit(int)}) into a page.
+     *
+     * @param rows     rows returned by the repository, at most {@code pageSize + 1}
+     * @param pageSize the effective page size
+     * @param mapper   maps each row to its response type
+     * @param keyOf    extracts the seek key(s) of a row
+     * @param <E>      the row type
+     * @param <D>      the response item type
+     * @return the page with the next cursor set when more rows exist
+     */
+    public <E, D> CursorPageDTO<D> toPage(List<E> rows, int pageSize,
+                                          Function<E, D> mapper, Function<E, int[]> keyOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? encode(keyOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        List<D> items = pageRows.stream().map(mapper).toList();
+        return new CursorPageDTO<>(items, nextCursor, pageSize);
+    }
+}
@@ -0,0 +1,499 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mavrommatis.ebookshop.ebookshop.config.resilience.DegradedReadsProperties;
+import com.mavrommatis.ebookshop.ebookshop.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Degraded mode of the catalog reads ({@code ebookshop.degraded-reads.*}, see
+ * {@link DegradedReadsProperties}): stale-while-revalidate behind a circuit breaker.
+ * <p>
+ * Guarded reads run on a small bounded pool and the request waits at most {@code timeout}
+ * for them, instead of the 30 seconds Hikari waits for a connection during a failover.
+ * Concurrent reads of the same key share one task, so a burst of misses on a hot id takes
+ * one thread. The pool has no more threads than Hikari has connections: a read queued
+ * behind the connection pool would time out on a healthy database.
+ * </p>
+ * <p>
+ * Timeouts, missing connections and transient database errors count as failures, once per
+ * task; {@code failure-threshold} of them in a row open the circuit, and for
+ * {@code open-duration} reads fail without touching the database. Then one read is let
+ * through as a probe: its success closes the circuit, its failure opens it again. A full
+ * pool is load shedding, not a sign of a failing database: the read is answered like a
+ * failed one but does not count towards the circuit.
+ * </p>
+ * <p>
+ * {@link #read} remembers the last value it loaded for each key. The value follows the
+ * response DTO cache of the same name: the caches built by {@link #tracking} forget it
+ * when they evict the key or are cleared, whether by a local write after its commit or by
+ * the {@link CacheInvalidationTailer} for another instance, and replace it when a write
+ * puts a new value, so a deleted or updated row is never served stale. When a read fails
+ * or the circuit is open, the last known value is served instead, the request is marked stale (see
+ * {@link #STALE_SINCE_ATTRIBUTE}, answered with {@code Warning} and {@code Age} headers)
+ * and a background refresh of the key retries the database. Without a last known value
+ * the read fails with a {@link ServiceUnavailableException}. Stale values are never put
+ * in the response DTO caches: {@link #servedStale()} is meant for their {@code unless}.
+ * </p>
+ * <p>
+ * Only the reads by id of books and authors are guarded. Lists, searches, bibliographies
+ * and {@code ids=} multi-gets span many rows, have no single last known value, and fail
+ * as usual while the database is unavailable.
+ * </p>
+ * <p>
+ * Meters: {@code ebookshop.degraded-reads.stale} (stale values served, tagged with the
+ * cache), {@code ebookshop.degraded-reads.shed} (reads refused by the full pool) and
+ * {@code ebookshop.degraded-reads.circuit-open} (1 while the circuit is open).
+ * </p>
+ */
+@Component
+public class DegradedReads {
+
+    /**
+     * Request attribute holding the load time (epoch millis) of the oldest stale value
+     * served in the request.
+     */
+    public static final String STALE_SINCE_ATTRIBUTE = DegradedReads.class.getName() + ".staleSince";
+
+    private static final Logger log = LoggerFactory.getLogger(DegradedReads.class);
+
+    /** Stale value served by the current read on this thread, for the {@code unless} of the caches. */
+    private static final ThreadLocal<Stamped> STALE = new ThreadLocal<>();
+
+    private final DegradedReadsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Counter shed;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Cache<Object, Stamped>> lastKnown = new ConcurrentHashMap<>();
+    private final Map<String, Counter> staleServed = new ConcurrentHashMap<>();
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    /**
+     * Constructs a DegradedReads.
+     *
+     * @param properties         the degraded mode settings
+     * @param meterRegistry      registry for the stale, shed and circuit meters
+     * @param connectionPoolSize maximum size of the Hikari pool, which caps the load threads
+     */
+    public DegradedReads(DegradedReadsProperties properties,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int loadThreads = Math.min(properties.getLoadThreads(), connectionPoolSize);
+        if (loadThreads < properties.getLoadThreads()) {
+            log.warn("ebookshop.degraded-reads.load-threads={} exceeds the {} database connections; using {}",
+                    properties.getLoadThreads(), connectionPoolSize, loadThreads);
+        }
+        this.properties    = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor      = new ThreadPoolExecutor(loadThreads, loadThreads,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "degraded-read");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.shed          = Counter.builder("ebookshop.degraded-reads.shed")
+                .description("Guarded reads refused because every load thread and queue slot was taken")
+                .register(meterRegistry);
+        Gauge.builder("ebookshop.degraded-reads.circuit-open", openUntil, until -> until.get() == 0 ? 0 : 1)
+                .description("1 while the database circuit breaker is open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the read threads on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a database read by key, serving the last value it returned when the database
+     * is unavailable.
+     *
+     * @param cacheName name of the cache the value belongs to, e.g. {@code books}
+     * @param id        the key
+     * @param loader    the database read
+     * @param <T>       type of the value
+     * @return the loaded value, or the last known one when the database is unavailable
+     * @throws ServiceUnavailableException if the database is unavailable and no value is known
+     * @throws RuntimeException            the exception thrown by the loader otherwise, e.g. not found
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String cacheName, Integer id, Supplier<T> loader) {
+        STALE.remove();
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        Cache<Object, Stamped> known = lastKnown(cacheName);
+        try {
+            T value = call(new Key(cacheName, id), loader);
+            known.put(id, new Stamped(value, System.currentTimeMillis()));
+            return value;
+        } catch (ServiceUnavailableException e) {
+            Stamped last = known.getIfPresent(id);
+            if (last == null) {
+                throw e;
+            }
+            refreshLater(new Key(cacheName, id), known, loader);
+            markStale(last);
+            staleServed(cacheName).increment();
+            return (T) last.value();
+        }
+    }
+
+    /**
+     * Wraps a local response DTO cache so that the last known values of its name follow it:
+     * evicting a key or clearing the cache forgets them, and putting a value replaces a
+     * last known one.
+     *
+     * @param cache the local cache
+     * @return the cache, keeping the last known values in step
+     */
+    public org.springframework.cache.Cache tracking(org.springframework.cache.Cache cache) {
+        return new TrackingCache(cache);
+    }
+
+    /**
+     * @return number of threads running the guarded reads
+     */
+    int loadThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * @return number of guarded reads waiting for a thread
+     */
+    int queuedReads() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return whether the last {@link #read} on this thread served a stale value
+     */
+    public boolean servedStale() {
+        return STALE.get() != null;
+    }
+
+    /**
+     * Runs the loader on the pool, or joins the task already loading the key. Only the
+     * caller that started the task reports its outcome to the circuit.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T call(Key key, Supplier<T> loader) {
+        CompletableFuture<Object> result = inFlight.get(key);
+        boolean started = false;
+        if (result == null) {
+            if (!allowRequest()) {
+                throw new ServiceUnavailableException("Database circuit is open", null);
+            }
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            result = inFlight.putIfAbsent(key, mine);
+            if (result == null) {
+                result  = mine;
+                started = true;
+                start(key, mine, loader);
+            }
+        }
+        try {
+            T value = (T) result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (started) {
+                onSuccess();
+            }
+            return value;
+        } catch (TimeoutException e) {
+            if (started) {
+                onFailure(e);
+            }
+            throw new ServiceUnavailableException("Database read timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the database", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RejectedExecutionException) {
+                throw new ServiceUnavailableException("Too many database reads waiting", cause);
+            }
+            if (isUnavailable(cause)) {
+                if (started) {
+                    onFailure(cause);
+                }
+                throw new ServiceUnavailableException("Database unavailable", cause);
+            }
+            if (started) {
+                onSuccess();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private <T> void start(Key key, CompletableFuture<Object> result, Supplier<T> loader) {
+        try {
+            executor.execute(() -> {
+                // Leaves the map before completing, so later reads start a load of their own
+                try {
+                    Object value = loader.get();
+                    inFlight.remove(key, result);
+                    result.complete(value);
+                } catch (RuntimeException | Error e) {
+                    inFlight.remove(key, result);
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Load shedding: fails this read and those that joined it, without a circuit failure
+            inFlight.remove(key, result);
+            probing.set(false);
+            shed.increment();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reloads a key whose stale value was served, once the circuit lets reads through.
+     */
+    private <T> void refreshLater(Key key, Cache<Object, Stamped> known, Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (allowRequest()) {
+                        T value = loader.get();
+                        onSuccess();
+                        known.put(key.id(), new Stamped(value, System.currentTimeMillis()));
+                    }
+                } catch (RuntimeException e) {
+                    if (isUnavailable(e)) {
+                        onFailure(e);
+                    } else {
+                        onSuccess();
+                        known.invalidate(key.id());
+                    }
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private boolean allowRequest() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return true;
+        }
+        if (System.nanoTime() - until < 0) {
+            return false;
+        }
+        return probing.compareAndSet(false, true);
+    }
+
+    private void onSuccess() {
+        failures.set(0);
+        if (openUntil.getAndSet(0) != 0) {
+            log.info("Database reads recovered; circuit closed");
+        }
+        probing.set(false);
+    }
+
+    private void onFailure(Throwable cause) {
+        if (failures.incrementAndGet() >= properties.getFailureThreshold()) {
+            long until = System.nanoTime() + properties.getOpenDuration().toNanos();
+            if (openUntil.getAndSet(until == 0 ? 1 : until) == 0) {
+                log.warn("Database reads failing; circuit open for {}", properties.getOpenDuration(), cause);
+            }
+        }
+        probing.set(false);
+    }
+
+    private static boolean isUnavailable(Throwable e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private static void markStale(Stamped stale) {
+        STALE.set(stale);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Long since = (Long) request.getAttribute(STALE_SINCE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (since == null || stale.loadedAt() < since) {
+                request.setAttribute(STALE_SINCE_ATTRIBUTE, stale.loadedAt(), RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
+    private Cache<Object, Stamped> lastKnown(String cacheName) {
+        return lastKnown.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .maximumSize(properties.getStaleMaximumSize())
+                .build());
+    }
+
+    private Counter staleServed(String cacheName) {
+        return staleServed.computeIfAbsent(cacheName, name -> Counter.builder("ebookshop.degraded-reads.stale")
+                .description("Last known values served while the database was unavailable")
+                .tag("cache", name)
+                .register(meterRegistry));
+    }
+
+    private record Key(String cacheName, Integer id) {
+    }
+
+    /**
+     * A local cache whose changes are applied to the last known values of the same name.
+     */
+    private final class TrackingCache implements org.springframework.cache.Cache {
+
+        private final org.springframework.cache.Cache target;
+
+        private TrackingCache(org.springframework.cache.Cache target) {
+            this.target = target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return target.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return target.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            replace(key, value);
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = target.putIfAbsent(key, value);
+            if (existing == null) {
+                replace(key, value);
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            forget(key);
+            target.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            forget(key);
+            return target.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            forgetAll();
+            target.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            forgetAll();
+            return target.invalidate();
+        }
+
+        private void replace(Object key, Object value) {
+            Cache<Object, Stamped> known = lastKnown.get(getName());
+            if (known != null) {
+                known.asMap().computeIfPresent(key, (k, last) -> new Stamped(value, System.currentTimeMillis()));
+            }
+        }
+
+        private void forget(Object key) {
+            Cache<Object, Stamped> known = lastKnown.get(getName());
+            if (known != null) {
+                known.invalidate(key);
+            }
+        }
+
+        private void forgetAll() {
+            Cache<Object, Stamped> known = lastKnown.get(getName());
+            if (known != null) {
+                known.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * A loaded value and its load time in epoch millis.
+     */
+    private record Stamped(Object value, long loadedAt) {
+    }
+}
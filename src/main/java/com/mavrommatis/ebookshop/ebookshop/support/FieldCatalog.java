@@ -0,0 +1,218 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which response fields of a resource can be requested through {@code ?fields=}
+ * and how each one maps to a column of the underlying entity.
+ * <p>
+ * Field names are the JSON property names of the full response DTO. Nested properties
+ * use a dotted name (e.g. {@code details.pages}) and requesting the parent name alone
+ * (e.g. {@code details}) selects all of its children. A join is only added to the
+ * query when one of the selected fields needs it, so unrequested tables and columns
+ * are never read.
+ * </p>
+ */
+public final class FieldCatalog {
+
+    private final Class<?> entityType;
+    private final String idField;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private FieldCatalog(Class<?> entityType, String idField) {
+        this.entityType = entityType;
+        this.idField    = idField;
+        attribute(idField);
+    }
+
+    /**
+     * Starts a catalog for the given entity.
+     *
+     * @param entityType the entity class queried
+     * @param idField    the id attribute; it is always selected and is also the response field name
+     * @return a new catalog containing only the id field
+     */
+    public static FieldCatalog of(Class<?> entityType, String idField) {
+        return new FieldCatalog(entityType, idField);
+    }
+
+    /**
+     * Adds a field read from an attribute of the same name on the root entity.
+     */
+    public FieldCatalog attribute(String name) {
+        return attribute(name, name);
+    }
+
+    /**
+     * Adds a field read from an attribute of the root entity.
+     */
+    public FieldCatalog attribute(String name, String attribute) {
+        columns.put(name, (cb, joins) -> joins.root().get(attribute));
+        return this;
+    }
+
+    /**
+     * Adds a field read from an attribute of an associated entity.
+     *
+     * @param name        response field name (may be dotted)
+     * @param association association attribute on the root entity
+     * @param joinType    join type used for the association
+     * @param attribute   attribute of the associated entity
+     */
+    public FieldCatalog joined(String name, String association, JoinType joinType, String attribute) {
+        columns.put(name, (cb, joins) -> joins.join(association, joinType).get(attribute));
+        return this;
+    }
+
+    /**
+     * Adds a field computed from one or more columns.
+     */
+    public FieldCatalog computed(String name, Column column) {
+        columns.put(name, column);
+        return this;
+    }
+
+    /**
+     * @return the entity class queried
+     */
+    public Class<?> entityType() {
+        return entityType;
+    }
+
+    /**
+     * @return the id field name
+     */
+    public String idField() {
+        return idField;
+    }
+
+    /**
+     * Resolves a requested field list against this catalog.
+     * <p>
+     * The id field is always included first. Parent names expand to all of their
+     * dotted children. Order follows the catalog, not the request.
+     * </p>
+     *
+     * @param requested field names as sent by the client
+     * @return the resolved field names
+     * @throws BadRequestException if a requested name is unknown
+     */
+    public List<String> resolve(Collection<String> requested) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String raw : requested) {
+            String name = raw.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (columns.containsKey(name)) {
+                wanted.add(name);
+                continue;
+            }
+            List<String> children = columns.keySet().stream()
+                    .filter(field -> field.startsWith(name + "."))
+                    .toList();
+            if (children.isEmpty()) {
+                throw new BadRequestException("Unknown field: " + name);
+            }
+            wanted.addAll(children);
+        }
+        List<String> fields = new ArrayList<>();
+        fields.add(idField);
+        for (String field : columns.keySet()) {
+            if (!field.equals(idField) && wanted.contains(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Builds the select expression of a field.
+     *
+     * @param field the field name, as returned by {@link #resolve(Collection)}
+     * @param cb    the criteria builder
+     * @param joins the joins of the current query
+     * @return the expression to select
+     */
+    public Expression<?> expression(String field, CriteriaBuilder cb, Joins joins) {
+        return columns.get(field).resolve(cb, joins);
+    }
+
+    /**
+     * Turns a selected row into a response map, nesting dotted field names.
+     * A nested object whose values are all null (e.g. a missing details row) becomes null.
+     *
+     * @param fields the selected fields, in select order
+     * @param values the row values, in the same order
+     * @return the response object
+     */
+    public Map<String, Object> toResponse(List<String> fields, Object[] values) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> nested = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            int dot = field.indexOf('.');
+            if (dot < 0) {
+                response.put(field, values[i]);
+            } else {
+                String parent = field.substring(0, dot);
+                Map<String, Object> child = nested.computeIfAbsent(parent, key -> {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    response.put(key, map);
+                    return map;
+                });
+                child.put(field.substring(dot + 1), values[i]);
+            }
+        }
+        nested.forEach((parent, child) -> {
+            if (child.values().stream().allMatch(value -> value == null)) {
+                response.put(parent, null);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Builds the select expression of one field.
+     */
+    @FunctionalInterface
+    public interface Column {
+        Expression<?> resolve(CriteriaBuilder cb, Joins joins);
+    }
+
+    /**
+     * The root of a query plus the joins added so far; each association is joined at most once.
+     */
+    public static final class Joins {
+
+        private final Root<?> root;
+        private final Map<String, Join<?, ?>> joins = new HashMap<>();
+
+        public Joins(Root<?> root) {
+            this.root = root;
+        }
+
+        public Root<?> root() {
+            return root;
+        }
+
+        public From<?, ?> join(String association, JoinType joinType) {
+            return joins.computeIfAbsent(association, key -> root.join(key, joinType));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.hotkeys.HotKeysProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which book, author and customer ids dominate the traffic
+ * ({@code ebookshop.hot-keys.*}, see {@link HotKeysProperties}).
+ * <p>
+ * Fed by the {@link com.mavrommatis.ebookshop.ebookshop.rest.HotKeyInterceptor}, one
+ * {@link CountMinTopK} per resource estimates request counts in constant memory and keeps
+ * the most requested ids. The hot keys are:
+ * </p>
+ * <ul>
+ *   <li>listed by the {@code hotkeys} actuator endpoint ({@link HotKeysEndpoint})</li>
+ *   <li>pinned in the response DTO caches, which never evict them for size (see
+ *       {@link #isHot(String, Object)})</li>
+ *   <li>saved to {@code file} on shutdown, so the next start warms them up first
+ *       ({@link #hotIds(String, int)})</li>
+ * </ul>
+ */
+@Component
+public class HotKeyTracker {
+
+    public static final String BOOK = "book";
+    public static final String AUTHOR = "author";
+    public static final String CUSTOMER = "customer";
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final HotKeysProperties properties;
+    private final Map<String, CountMinTopK> sketches = new HashMap<>();
+    private final Map<String, List<Integer>> saved = new HashMap<>();
+
+    /**
+     * Constructs a HotKeyTracker.
+     *
+     * @param properties the hot-key settings
+     */
+    public HotKeyTracker(HotKeysProperties properties) {
+        this.properties = properties;
+        for (String resource : List.of(BOOK, AUTHOR, CUSTOMER)) {
+            sketches.put(resource, new CountMinTopK(
+                    properties.getWidth(), properties.getDepth(), properties.getTopK(), properties.getSampleSize()));
+        }
+    }
+
+    /**
+     * @return whether requests are counted
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Counts one request of an id.
+     *
+     * @param resource {@link #BOOK}, {@link #AUTHOR} or {@link #CUSTOMER}
+     * @param id       the requested id
+     */
+    public void record(String resource, int id) {
+        CountMinTopK sketch = sketches.get(resource);
+        if (sketch != null) {
+            sketch.add(id);
+        }
+    }
+
+    /**
+     * Whether a cache key is currently a hot key that should stay in the cache.
+     *
+     * @param resource the resource the key belongs to
+     * @param key      the cache key
+     * @return {@code true} if pinning is enabled and the key is a hot id of the resource
+     */
+    public boolean isHot(String resource, Object key) {
+        CountMinTopK sketch = sketches.get(resource);
+        return properties.isPinInCache() && sketch != null && key instanceof Integer id && sketch.isTop(id);
+    }
+
+    /**
+     * @param resource the resource
+     * @return its hot keys, most requested first
+     */
+    public List<HotKey> hotKeys(String resource) {
+        CountMinTopK sketch = sketches.get(resource);
+        if (sketch == null) {
+            return List.of();
+        }
+        return sketch.top().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Hot ids to warm up: the current ones, or those saved by the previous run while
+     * nothing has been counted yet.
+     *
+     * @param resource the resource
+     * @param limit    maximum number of ids
+     * @return the ids, most requested first
+     */
+    public List<Integer> hotIds(String resource, int limit) {
+        List<Integer> current = hotKeys(resource).stream().map(HotKey::id).toList();
+        List<Integer> ids = current.isEmpty() ? saved.getOrDefault(resource, List.of()) : current;
+        return ids.stream().limit(limit).toList();
+    }
+
+    /**
+     * Reads the hot keys saved by the previous run, if a file is configured.
+     */
+    @PostConstruct
+    public void load() {
+        if (properties.getFile() == null) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(Path.of(properties.getFile()))) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields.length == 2 && sketches.containsKey(fields[0])) {
+                    saved.computeIfAbsent(fields[0], resource -> new ArrayList<>()).add(Integer.valueOf(fields[1]));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("No saved hot keys at {}", properties.getFile());
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Cannot read saved hot keys from {}", properties.getFile(), e);
+        }
+    }
+
+    /**
+     * Saves the hot keys on shutdown, if a file is configured. A resource without any
+     * request in this run keeps the ids saved by the previous one.
+     */
+    @PreDestroy
+    public void save() {
+        if (properties.getFile() == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        for (String resource : sketches.keySet()) {
+            hotIds(resource, properties.getTopK()).forEach(id -> lines.add(resource + " " + id));
+        }
+        try {
+            Files.write(Path.of(properties.getFile()), lines);
+        } catch (IOException e) {
+            log.warn("Cannot save hot keys to {}", properties.getFile(), e);
+        }
+    }
+
+    /**
+     * A hot id and its estimated number of recent requests.
+     *
+     * @param id       the id
+     * @param requests estimated requests; may overcount, never undercounts
+     */
+    public record HotKey(int id, int requests) {
+    }
+}
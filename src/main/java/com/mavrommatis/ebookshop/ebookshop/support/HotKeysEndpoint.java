@@ -0,0 +1,52 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the current hot keys of the {@link HotKeyTracker}:
+ * {@code /actuator/hotkeys} for every resource, {@code /actuator/hotkeys/{resource}}
+ * for one of {@code book}, {@code author} and {@code customer}.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker tracker;
+
+    /**
+     * Constructs a HotKeysEndpoint.
+     *
+     * @param tracker the tracker whose hot keys are listed
+     */
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * @return the hot keys of every resource, most requested first
+     */
+    @ReadOperation
+    public Map<String, List<HotKeyTracker.HotKey>> hotKeys() {
+        Map<String, List<HotKeyTracker.HotKey>> hotKeys = new LinkedHashMap<>();
+        for (String resource : List.of(HotKeyTracker.BOOK, HotKeyTracker.AUTHOR, HotKeyTracker.CUSTOMER)) {
+            hotKeys.put(resource, tracker.hotKeys(resource));
+        }
+        return hotKeys;
+    }
+
+    /**
+     * @param resource the resource
+     * @return its hot keys, most requested first
+     */
+    @ReadOperation
+    public List<HotKeyTracker.HotKey> hotKeys(@Selector String resource) {
+        return tracker.hotKeys(resource);
+    }
+}
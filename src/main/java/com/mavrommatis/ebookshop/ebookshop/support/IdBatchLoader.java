@@ -0,0 +1,188 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Merges concurrent loads of single ids into one {@code IN} query.
+ * <p>
+ * The first caller of a batch leads it: it waits for the window to expire while ids
+ * requested by other threads join the same batch, then loads the batch on its own thread.
+ * A batch that reaches the maximum number of distinct ids is loaded at once, on the thread
+ * of the caller that filled it. Every caller then receives its own row, or a not-found
+ * exception if the id was not in the result. A failed batch fails all of its callers.
+ * </p>
+ * <p>
+ * A batch can only hold as many ids as there are callers waiting at the same time, so the
+ * maximum batch size is bounded by the threads that call {@link #load}.
+ * </p>
+ * <p>
+ * Batches run in a read-only transaction opened here, so callers wait without holding a
+ * pooled connection. A waiting caller can be interrupted; it stops waiting without
+ * cancelling the batch, which a leader interrupted during the window loads at once.
+ * Instances are created by {@link IdBatchLoaders}.
+ * </p>
+ *
+ * @param <T> type of the loaded values
+ */
+public final class IdBatchLoader<T> {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<List<Integer>, Map<Integer, T>> batchLoad;
+    private final IntFunction<RuntimeException> notFound;
+    private final TransactionTemplate readOnly;
+    private final Counter batches;
+    private final Counter ids;
+
+    private final Object lock = new Object();
+    private Map<Integer, CompletableFuture<T>> pending = new LinkedHashMap<>();
+
+    IdBatchLoader(Duration window,
+                  int maxBatchSize,
+                  Function<List<Integer>, Map<Integer, T>> batchLoad,
+                  IntFunction<RuntimeException> notFound,
+                  TransactionTemplate readOnly,
+                  Counter batches,
+                  Counter ids) {
+        this.window       = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchLoad    = batchLoad;
+        this.notFound     = notFound;
+        this.readOnly     = readOnly;
+        this.batches      = batches;
+        this.ids          = ids;
+    }
+
+    /**
+     * Loads one id, possibly together with ids requested concurrently by other callers.
+     *
+     * @param id the id to load
+     * @return the loaded value
+     * @throws RuntimeException      the not-found exception if the id does not exist,
+     *                               or the exception of the failed batch
+     * @throws CancellationException if the caller is interrupted before its batch is loaded
+     */
+    public T load(int id) {
+        if (maxBatchSize <= 1) {
+            Map<Integer, CompletableFuture<T>> single = new LinkedHashMap<>();
+            single.put(id, new CompletableFuture<>());
+            dispatch(single);
+            return await(single.get(id));
+        }
+        CompletableFuture<T> result;
+        Map<Integer, CompletableFuture<T>> full = null;
+        Map<Integer, CompletableFuture<T>> led = null;
+        synchronized (lock) {
+            boolean first = pending.isEmpty();
+            result = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (first) {
+                led = pending;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        } else if (led != null) {
+            lead(led);
+        }
+        return await(result);
+    }
+
+    /**
+     * Waits out the window of the batch this caller opened, then loads it unless a caller
+     * that filled it already did.
+     */
+    private void lead(Map<Integer, CompletableFuture<T>> batch) {
+        long deadline = System.nanoTime() + window.toNanos();
+        boolean interrupted = false;
+        boolean taken;
+        synchronized (lock) {
+            long remaining;
+            while (pending == batch && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    // The other callers of the batch still need it: load it now
+                    interrupted = true;
+                    break;
+                }
+            }
+            taken = pending != batch;
+            if (!taken) {
+                takePending();
+            }
+        }
+        if (!taken) {
+            dispatch(batch);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return number of distinct ids waiting in the open batch
+     */
+    int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /** Caller must hold {@link #lock}. */
+    private Map<Integer, CompletableFuture<T>> takePending() {
+        Map<Integer, CompletableFuture<T>> batch = pending;
+        pending = new LinkedHashMap<>();
+        lock.notifyAll();
+        return batch;
+    }
+
+    private void dispatch(Map<Integer, CompletableFuture<T>> batch) {
+        batches.increment();
+        ids.increment(batch.size());
+        try {
+            Map<Integer, T> found = readOnly.execute(status -> batchLoad.apply(new ArrayList<>(batch.keySet())));
+            batch.forEach((id, result) -> {
+                T value = found.get(id);
+                if (value != null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(notFound.apply(id));
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            batch.values().forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a batched load");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.batching.IdBatchingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the {@link IdBatchLoader} of each repository with its configured window and
+ * maximum batch size ({@link IdBatchingProperties}).
+ * <p>
+ * No threads are owned here: each batch is loaded on the thread of one of its callers.
+ * </p>
+ * <p>
+ * Meters, tagged with the loader name:
+ * </p>
+ * <ul>
+ *   <li>{@code ebookshop.id-batching.batches} – IN queries executed</li>
+ *   <li>{@code ebookshop.id-batching.ids} – ids loaded by those queries</li>
+ * </ul>
+ */
+@Component
+public class IdBatchLoaders {
+
+    private final IdBatchingProperties properties;
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs the factory.
+     *
+     * @param properties         the batching settings
+     * @param transactionManager transaction manager used for the read-only batch transactions
+     * @param meterRegistry      registry for the batching metrics
+     */
+    public IdBatchLoaders(IdBatchingProperties properties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.properties    = properties;
+        this.readOnly      = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param name     loader name, used for its settings and metric tags
+     * @param findAll  loads the rows of a list of ids in one query; order does not matter
+     * @param idOf     extracts the id of a row
+     * @param notFound builds the exception for an id that was not found
+     * @param <T>      type of the loaded values
+     * @return the loader
+     */
+    public <T> IdBatchLoader<T> create(String name,
+                                       Function<List<Integer>, List<T>> findAll,
+                                       ToIntFunction<T> idOf,
+                                       IntFunction<RuntimeException> notFound) {
+        return new IdBatchLoader<>(
+                properties.windowOf(name),
+                properties.maxBatchSizeOf(name),
+                ids -> findAll.apply(ids).stream().collect(Collectors.toMap(idOf::applyAsInt, Function.identity())),
+                notFound,
+                readOnly,
+                Counter.builder("ebookshop.id-batching.batches").tag("name", name).register(meterRegistry),
+                Counter.builder("ebookshop.id-batching.ids").tag("name", name).register(meterRegistry));
+    }
+}
@@ -0,0 +1,388 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PersistContext;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of the ids of every table with an integer primary key, used to reject
+ * unknown ids without a database round trip.
+ * <p>
+ * Ids are dense positive integers (id blocks or auto-increment), so a {@link BitSet} per
+ * table is an exact set at one bit per id, with no false positives to tune as with a Bloom
+ * filter. Entities with an {@code int} or {@code Integer} id are tracked. The sets are filled
+ * at startup, from the tables or from a validated {@link CacheSnapshotFile}, and then kept
+ * up to date by Hibernate event listeners:
+ * </p>
+ * <ul>
+ *   <li>an id is added as soon as it is assigned (at persist, or at insert for database
+ *       generated ids); if the transaction rolls back,
+ *       the stale id only costs the usual database check</li>
+ *   <li>an id is removed only after its delete commits, so a rolled-back delete never
+ *       hides an existing row</li>
+ * </ul>
+ * <p>
+ * {@link #mightExist(Class, Integer)} therefore never answers {@code false} for an existing
+ * row written through this instance. Rows removed by database cascades stay in the set
+ * and fall back to the database check. Inserts made by other instances of the application
+ * are written to the {@link CacheInvalidationLog} and added through
+ * {@link #markExists(String, int)} by the {@link CacheInvalidationTailer}, so until the tailer
+ * has caught up another instance may answer 404 for a row that was just created. Rows
+ * inserted by any other writer are not seen until the next restart; disable the filter
+ * ({@code ebookshop.id-filter.enabled=false}) if other applications share the schema. Without
+ * the invalidation log ({@code ebookshop.cache.invalidation-log.enabled=false}) inserts of
+ * other instances are never seen either, so the filter turns itself off. Until the initial
+ * load has completed every id is reported as possibly present.
+ * </p>
+ */
+@Component
+public class IdExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdExistenceFilter.class);
+
+    private final Map<Class<?>, IdSet> sets = new ConcurrentHashMap<>();
+    private final Map<String, IdSet> setsByName = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> rejected = new ConcurrentHashMap<>();
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationLog invalidationLog;
+    private final boolean enabled;
+
+    /**
+     * Constructs an IdExistenceFilter.
+     *
+     * @param entityManagerFactory factory used for the initial load and to register the listeners
+     * @param meterRegistry        registry for the rejection counter
+     * @param invalidationLog      log through which inserts reach the other instances
+     * @param enabled              whether lookups are filtered at all; ignored (off) when the
+     *                             invalidation log is disabled
+     */
+    public IdExistenceFilter(EntityManagerFactory entityManagerFactory,
+                             MeterRegistry meterRegistry,
+                             CacheInvalidationLog invalidationLog,
+                             @Value("${ebookshop.id-filter.enabled:true}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry        = meterRegistry;
+        this.invalidationLog      = invalidationLog;
+        this.enabled              = enabled && invalidationLog.isEnabled();
+        if (enabled && !invalidationLog.isEnabled()) {
+            log.warn("Id existence filter disabled: without the cache invalidation log, rows inserted "
+                    + "by other instances would be reported as missing");
+        }
+    }
+
+    /**
+     * Creates an empty set per entity with an integer id and registers the insert/delete listeners.
+     */
+    @PostConstruct
+    void registerListeners() {
+        if (!enabled) {
+            return;
+        }
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> idType = entity.hasSingleIdAttribute() ? entity.getIdType().getJavaType() : null;
+            // Most entities map the id as a primitive int
+            if (idType == Integer.class || idType == int.class) {
+                IdSet set = new IdSet(entity.getName(), entity.getId(idType).getName());
+                sets.put(entity.getJavaType(), set);
+                setsByName.put(entity.getName(), set);
+            }
+        }
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.PERSIST, new PersistListener());
+        listeners.appendListeners(EventType.POST_INSERT, new InsertListener());
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, new DeleteListener());
+    }
+
+    /**
+     * Loads the ids of every tracked table not yet restored from a {@link CacheSnapshotFile}.
+     * Runs before the application reports itself ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            sets.forEach((type, set) -> {
+                if (set.ready) {
+                    return;
+                }
+                entityManager.createQuery(
+                                "select e." + set.idAttribute + " from " + set.entityName + " e", Integer.class)
+                        .getResultStream()
+                        .forEach(set::add);
+                set.ready = true;
+                log.info("Id existence filter loaded {} ids of {}", set.size(), set.entityName);
+            });
+        }
+    }
+
+    /**
+     * Whether a row with the given id may exist.
+     *
+     * @param entityType the entity class
+     * @param id         the id to check
+     * @return {@code false} if the row definitely does not exist; {@code true} if it may
+     *         exist and the database has to be asked
+     */
+    public boolean mightExist(Class<?> entityType, Integer id) {
+        IdSet set = sets.get(entityType);
+        if (id == null || set == null || !set.ready) {
+            return true;
+        }
+        if (id >= 0 && set.contains(id)) {
+            return true;
+        }
+        rejected.computeIfAbsent(entityType, type -> Counter.builder("ebookshop.id-filter.rejected")
+                        .tag("entity", set.entityName)
+                        .register(meterRegistry))
+                .increment();
+        return false;
+    }
+
+    /**
+     * Records a row inserted by this instance without a Hibernate insert event, such as by
+     * a native {@code INSERT}, and writes it to the {@link CacheInvalidationLog} for the other
+     * instances.
+     *
+     * @param entityType the entity class
+     * @param id         the id of the row
+     */
+    public void recordInsert(Class<?> entityType, int id) {
+        IdSet set = sets.get(entityType);
+        if (set != null) {
+            set.add(id);
+            invalidationLog.recordInsert(set.entityName, id);
+        }
+    }
+
+    /**
+     * Records a row inserted by another instance of the application.
+     *
+     * @param entityName the entity name, as written to the invalidation log
+     * @param id         the id of the row
+     */
+    public void markExists(String entityName, int id) {
+        IdSet set = setsByName.get(entityName);
+        if (set != null) {
+            set.add(id);
+        }
+    }
+
+    /**
+     * @return the ids of every loaded table by entity name, as {@link BitSet#toLongArray()} words
+     */
+    public Map<String, long[]> exportIds() {
+        Map<String, long[]> exported = new HashMap<>();
+        setsByName.forEach((name, set) -> {
+            if (set.ready) {
+                exported.put(name, set.toLongArray());
+            }
+        });
+        return exported;
+    }
+
+    /**
+     * Restores the ids of a table saved by {@link #exportIds()}, if they still match the table:
+     * same row count, id sum and highest id.
+     *
+     * @param entityName the entity name
+     * @param words      the saved ids
+     * @return whether the ids were restored; otherwise they are loaded from the table as usual
+     */
+    public boolean restore(String entityName, long[] words) {
+        IdSet set = setsByName.get(entityName);
+        if (set == null || set.ready) {
+            return false;
+        }
+        BitSet restored = BitSet.valueOf(words);
+        Object[] stats;
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            stats = entityManager.createQuery(
+                            "select count(e), coalesce(sum(e." + set.idAttribute + "), 0), max(e." + set.idAttribute + ")"
+                                    + " from " + set.entityName + " e", Object[].class)
+                    .getSingleResult();
+        }
+        long sum = restored.stream().asLongStream().sum();
+        int max = stats[2] == null ? -1 : ((Number) stats[2]).intValue();
+        if (restored.cardinality() != ((Number) stats[0]).longValue()
+                || sum != ((Number) stats[1]).longValue()
+                || restored.length() - 1 != max) {
+            return false;
+        }
+        set.addAll(restored);
+        set.ready = true;
+        log.info("Id existence filter restored {} ids of {}", set.size(), set.entityName);
+        return true;
+    }
+
+    private void onInsert(EntityPersister persister, Object id) {
+        if (id instanceof Integer value) {
+            recordInsert(persister.getMappedClass(), value);
+        }
+    }
+
+    private void onDeleteCommitted(EntityPersister persister, Object id) {
+        IdSet set = sets.get(persister.getMappedClass());
+        if (set != null && id instanceof Integer value) {
+            set.remove(value);
+        }
+    }
+
+    /**
+     * Ids of one table.
+     */
+    private static final class IdSet {
+
+        private final String entityName;
+        private final String idAttribute;
+        private final BitSet ids = new BitSet();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean ready;
+
+        private IdSet(String entityName, String idAttribute) {
+            this.entityName  = entityName;
+            this.idAttribute = idAttribute;
+        }
+
+        boolean contains(int id) {
+            lock.readLock().lock();
+            try {
+                return ids.get(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(int id) {
+            if (id < 0) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                ids.set(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(int id) {
+            if (id < 0) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                ids.clear(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void addAll(BitSet restored) {
+            lock.writeLock().lock();
+            try {
+                ids.or(restored);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] toLongArray() {
+            lock.readLock().lock();
+            try {
+                return ids.toLongArray();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return ids.cardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Records ids assigned at persist time. Ids taken from {@code id_sequence} are known here,
+     * but their insert is queued until the flush of the commit, after the
+     * {@link CacheInvalidationLog} has written the entries of the transaction.
+     */
+    private final class PersistListener implements PersistEventListener {
+
+        @Override
+        public void onPersist(PersistEvent event) {
+            EntityEntry entry = event.getSession().getPersistenceContextInternal().getEntry(event.getObject());
+            if (entry != null) {
+                onInsert(entry.getPersister(), entry.getId());
+            }
+        }
+
+        @Override
+        public void onPersist(PersistEvent event, PersistContext createdAlready) {
+            onPersist(event);
+        }
+    }
+
+    private final class InsertListener implements PostInsertEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onInsert(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+
+    private final class DeleteListener implements PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onDeleteCommitted(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // The row is still there; nothing to undo.
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return sets.containsKey(persister.getMappedClass());
+        }
+    }
+}
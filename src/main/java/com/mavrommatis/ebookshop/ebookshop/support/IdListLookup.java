@@ -0,0 +1,85 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Helper for multi-get ({@code ?ids=}) reads.
+ * <p>
+ * Ids are deduplicated and capped before they reach the repository, which loads them
+ * with a single {@code IN} query. Hibernate pads the IN list to the next power of two
+ * ({@code hibernate.query.in_clause_parameter_padding}), so lists of similar length share
+ * one cached query plan and one server-side prepared statement. The results are then
+ * put back into request order and the ids that were not found are reported.
+ * </p>
+ */
+@Component
+public class IdListLookup {
+
+    private final int maxIds;
+
+    /**
+     * Constructs an IdListLookup with the configured id limit.
+     *
+     * @param maxIds maximum number of distinct ids accepted in one request
+     */
+    public IdListLookup(@Value("${ebookshop.multi-get.max-ids:200}") int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Deduplicates the requested ids, keeping their first-seen order.
+     *
+     * @param ids the ids sent by the client
+     * @return the distinct ids
+     * @throws BadRequestException if no ids or more than the allowed number of ids are requested
+     */
+    public List<Integer> distinct(List<Integer> ids) {
+        Set<Integer> distinct = ids == null ? new LinkedHashSet<>() : new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        if (distinct.size() > maxIds) {
+            throw new BadRequestException("Too many ids: " + distinct.size() + " (max " + maxIds + ")");
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Orders the found items like the requested ids and collects the missing ones.
+     *
+     * @param ids   the distinct requested ids, as returned by {@link #distinct(List)}
+     * @param found the items returned by the repository, in any order
+     * @param idOf  extracts the id of an item
+     * @param <T>   the item type
+     * @return the multi-get response
+     */
+    public <T> MultiGetDTO<T> collect(List<Integer> ids, List<T> found, ToIntFunction<T> idOf) {
+        Map<Integer, T> byId = new HashMap<>(found.size() * 2);
+        for (T item : found) {
+            byId.put(idOf.applyAsInt(item), item);
+        }
+        List<T> items = new ArrayList<>(ids.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetDTO<>(items, missing);
+    }
+}
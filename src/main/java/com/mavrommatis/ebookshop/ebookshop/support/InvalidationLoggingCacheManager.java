@@ -0,0 +1,115 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transaction-aware cache manager that also records every change of its caches in the
+ * {@link CacheInvalidationLog}, so the other instances can evict their copies.
+ * <p>
+ * Like {@link org.springframework.cache.transaction.TransactionAwareCacheManagerProxy},
+ * puts and evictions issued inside a transaction reach the local cache only after the
+ * commit. The log entry is recorded immediately and is therefore written in the same
+ * transaction. Puts are only recorded when made by a write: the puts of
+ * {@code @Cacheable} after a read change nothing the other instances could hold.
+ * </p>
+ * <p>
+ * {@link #getLocalCache(String)} bypasses both the logging and the transaction handling;
+ * the {@link CacheInvalidationTailer} uses it to apply entries written by other instances.
+ * </p>
+ */
+public class InvalidationLoggingCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final CacheInvalidationLog invalidationLog;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the manager.
+     *
+     * @param target          the manager of the local caches
+     * @param invalidationLog the log the changes are recorded in
+     */
+    public InvalidationLoggingCacheManager(CacheManager target, CacheInvalidationLog invalidationLog) {
+        this.target          = target;
+        this.invalidationLog = invalidationLog;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache local = target.getCache(name);
+        return local == null ? null : caches.computeIfAbsent(name, n -> new InvalidationLoggingCache(local));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+
+    /**
+     * @param name the cache name
+     * @return the local cache, without logging or transaction handling, or {@code null} if unknown
+     */
+    public Cache getLocalCache(String name) {
+        return target.getCache(name);
+    }
+
+    /**
+     * A cache whose changes are deferred to the commit and recorded in the log.
+     */
+    private final class InvalidationLoggingCache extends TransactionAwareCacheDecorator {
+
+        private InvalidationLoggingCache(Cache targetCache) {
+            super(targetCache);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (invalidationLog.isWriting()) {
+                invalidationLog.recordEvict(getName(), key);
+            }
+            super.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            if (invalidationLog.isWriting()) {
+                invalidationLog.recordEvict(getName(), key);
+            }
+            return super.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            invalidationLog.recordEvict(getName(), key);
+            super.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            invalidationLog.recordEvict(getName(), key);
+            return super.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            invalidationLog.recordClear(getName());
+            super.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            invalidationLog.recordClear(getName());
+            return super.invalidate();
+        }
+    }
+}
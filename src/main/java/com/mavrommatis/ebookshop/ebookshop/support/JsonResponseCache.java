@@ -0,0 +1,155 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of the serialized JSON bodies of the hot single-resource reads
+ * ({@code ebookshop.json-cache.*}).
+ * <p>
+ * The response DTO caches and the catalog snapshot hand out the same DTO instance for as
+ * long as it is current, so the UTF-8 JSON bytes are cached per DTO instance (by identity,
+ * weakly referenced). A hit writes the bytes as they are and skips Jackson entirely. When
+ * the DTO is evicted or replaced, by a write, the invalidation log or the snapshot refresh,
+ * the next read returns another instance and the bytes are serialized again: the bytes are
+ * invalidated by exactly the same hooks as the DTOs, and the stale ones are dropped once
+ * their DTO is garbage collected.
+ * </p>
+ * <p>
+ * The MD5 digest of the JSON bytes is computed once per serialization and sent as a weak
+ * {@code ETag}, so a conditional read of a cached DTO is answered without any query.
+ * </p>
+ * <p>
+ * Bodies of at least {@code gzip.min-size} bytes also keep a gzipped copy, sent with
+ * {@code Content-Encoding: gzip} to clients that accept it. The hit ratio is published as
+ * the cache metrics of {@code responseJson}.
+ * </p>
+ */
+@Component
+public class JsonResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, SerializedBody> bodies;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final int gzipMinSize;
+
+    /**
+     * Constructs a JsonResponseCache.
+     *
+     * @param objectMapper  the mapper used by the message converters
+     * @param meterRegistry registry for the cache metrics
+     * @param enabled       whether bodies are cached at all
+     * @param maximumSize   maximum number of cached bodies
+     * @param gzipEnabled   whether gzipped copies are kept and sent
+     * @param gzipMinSize   smallest body, in bytes, that is gzipped
+     */
+    public JsonResponseCache(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${ebookshop.json-cache.enabled:true}") boolean enabled,
+                             @Value("${ebookshop.json-cache.maximum-size:20000}") long maximumSize,
+                             @Value("${ebookshop.json-cache.gzip.enabled:true}") boolean gzipEnabled,
+                             @Value("${ebookshop.json-cache.gzip.min-size:1024}") int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.bodies       = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.enabled      = enabled;
+        this.gzipEnabled  = gzipEnabled;
+        this.gzipMinSize  = gzipMinSize;
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "responseJson");
+    }
+
+    /**
+     * Builds a 200 response with the JSON body of a DTO, from the cache when the same DTO
+     * instance was written before, unless the request's {@code If-None-Match} matches the
+     * body's entity tag.
+     *
+     * @param dto     the response DTO, as returned by a cached read
+     * @param request the current request, used to evaluate conditional headers
+     * @return the response with the serialized (possibly gzipped) body, or {@code null}
+     *         when 304 Not Modified was answered
+     */
+    public ResponseEntity<byte[]> ok(Object dto, WebRequest request) {
+        SerializedBody body = enabled ? bodies.get(dto, this::serialize) : serialize(dto);
+        if (request.checkNotModified(body.eTag())) {
+            return null;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    private SerializedBody serialize(Object dto) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + dto.getClass().getSimpleName(), e);
+        }
+        return new SerializedBody(json, enabled && gzipEnabled && json.length >= gzipMinSize ? gzip(json) : null,
+                "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Whether {@code gzip} is listed in an {@code Accept-Encoding} header, without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].replace(" ", "");
+                    if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * JSON bytes of a DTO, their gzipped copy (or null when the body is not gzipped) and
+     * their entity tag.
+     */
+    private record SerializedBody(byte[] json, byte[] gzip, String eTag) {
+    }
+}
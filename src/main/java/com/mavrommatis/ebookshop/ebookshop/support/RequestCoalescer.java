@@ -0,0 +1,114 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loader for reads by id.
+ * <p>
+ * When several requests miss on the same key at the same time, only the first one (the
+ * leader) runs the loader; the others wait for its result instead of issuing the same
+ * queries again. The loader is expected to open its own transaction (see
+ * {@link IdBatchLoader}), so waiting callers hold neither a transaction nor a pooled
+ * connection. Failures are shared the same way: every waiter gets the leader's exception.
+ * A waiter can be interrupted, e.g. when its request is cancelled; it stops waiting
+ * without cancelling the load, which the leader and the other waiters still receive.
+ * </p>
+ * <p>
+ * Only concurrent calls are collapsed; nothing is kept once the load completes.
+ * Meters, tagged with the loader name:
+ * </p>
+ * <ul>
+ *   <li>{@code ebookshop.coalescer.loads} – loads actually executed</li>
+ *   <li>{@code ebookshop.coalescer.collapsed} – calls served by another caller's load</li>
+ *   <li>{@code ebookshop.coalescer.in-flight} – loads currently running</li>
+ * </ul>
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> collapsed = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a RequestCoalescer.
+     *
+     * @param meterRegistry registry for the coalescing metrics
+     */
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("ebookshop.coalescer.in-flight", inFlight, Map::size)
+                .description("Loads currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the value for a key, sharing the load with concurrent callers of the same key.
+     *
+     * @param name   loader name, e.g. {@code book}; keys of different loaders never collide
+     * @param key    the key, usually the id
+     * @param loader the read to run
+     * @param <T>    type of the loaded value
+     * @return the loaded value
+     * @throws RuntimeException      the exception thrown by the loader, for the leader and every waiter
+     * @throws CancellationException if a waiter is interrupted before the load completes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String name, Object key, Supplier<T> loader) {
+        Key inFlightKey = new Key(name, key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(inFlightKey, mine);
+        if (running != null) {
+            counter(collapsed, "ebookshop.coalescer.collapsed", name).increment();
+            return (T) await(running);
+        }
+        counter(loads, "ebookshop.coalescer.loads", name).increment();
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(inFlightKey, mine);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a shared load");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String meter, String name) {
+        return counters.computeIfAbsent(name, n -> Counter.builder(meter)
+                .tag("name", n)
+                .register(meterRegistry));
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
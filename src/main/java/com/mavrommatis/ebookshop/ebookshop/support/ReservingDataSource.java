@@ -0,0 +1,161 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps some pool connections for threads that already hold one.
+ * <p>
+ * A transaction that needs a new block of ids takes a second connection for the
+ * {@code id_sequence} table generator while it holds its own. If every pool connection
+ * were held by such transactions, none could get its second connection and all of them
+ * would wait until the connection timeout. Here the first connection of a thread takes one
+ * of {@code pool size - reserve} permits, waiting at most the connection timeout for it,
+ * while a connection requested by a thread that already holds one goes straight to the
+ * pool, whose last {@code reserve} connections first connections can never take.
+ * </p>
+ * <p>
+ * Connections are counted per thread from {@code getConnection} to {@code close}, so they
+ * must be closed on the thread that opened them, as Spring and Hibernate do.
+ * </p>
+ */
+public class ReservingDataSource extends DelegatingDataSource {
+
+    private final ThreadLocal<AtomicInteger> heldByThread = ThreadLocal.withInitial(AtomicInteger::new);
+    private final Semaphore firstConnections;
+    private final Duration connectionTimeout;
+
+    /**
+     * Constructs the data source.
+     *
+     * @param target            the pooled data source
+     * @param poolSize          maximum number of connections of the pool
+     * @param reserve           connections kept for threads that already hold one
+     * @param connectionTimeout longest a first connection waits for a permit
+     */
+    public ReservingDataSource(DataSource target, int poolSize, int reserve, Duration connectionTimeout) {
+        super(target);
+        this.firstConnections  = new Semaphore(Math.max(1, poolSize - reserve), true);
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquire(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquire(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * @return number of first connections that can still be opened without waiting
+     */
+    int availableFirstConnections() {
+        return firstConnections.availablePermits();
+    }
+
+    private Connection acquire(ConnectionSupplier pool) throws SQLException {
+        AtomicInteger held = heldByThread.get();
+        boolean first = held.get() == 0;
+        if (first) {
+            takePermit();
+        }
+        Connection connection;
+        try {
+            connection = pool.get();
+        } catch (SQLException | RuntimeException | Error e) {
+            if (first) {
+                firstConnections.release();
+            }
+            throw e;
+        }
+        held.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new Counted(connection, held, first));
+    }
+
+    private void takePermit() throws SQLException {
+        try {
+            if (!firstConnections.tryAcquire(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection available within " + connectionTimeout
+                        + "; the remaining ones are kept for threads that already hold one");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Releases the thread's count, and the permit of a first connection, once on close.
+     */
+    private final class Counted implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicInteger held;
+        private final boolean first;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Counted(Connection target, AtomicInteger held, boolean first) {
+            this.target = target;
+            this.held   = held;
+            this.first  = first;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "getTargetConnection" -> target;
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "Reserving proxy for " + target;
+                case "close" -> {
+                    close();
+                    yield null;
+                }
+                default -> {
+                    try {
+                        yield method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            };
+        }
+
+        private void close() throws SQLException {
+            try {
+                target.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    held.decrementAndGet();
+                    if (first) {
+                        firstConnections.release();
+                    }
+                }
+            }
+        }
+    }
+}
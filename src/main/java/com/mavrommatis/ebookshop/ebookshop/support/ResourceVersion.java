@@ -0,0 +1,100 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validator of a resource or collection for conditional GETs
+ * ({@code If-None-Match} / {@code If-Modified-Since}).
+ * <p>
+ * Validators are built from values that are already at hand or cost one aggregate query
+ * at most, so a revalidation never loads or serializes the entity graph:
+ * </p>
+ * <ul>
+ *   <li>book and author collections use the {@link CatalogVersion}, which every write to
+ *       them increments ({@link #ofCatalog(long)}); no {@code Last-Modified} is sent</li>
+ *   <li>a single review uses the {@code updated_at} (or {@code created_at}) of its cached
+ *       response DTO ({@link #ofResponse(LocalDateTime, LocalDateTime)})</li>
+ *   <li>the review collection uses the latest timestamp of the whole table, and the row
+ *       count catches deletes, which leave no timestamp behind</li>
+ * </ul>
+ * <p>
+ * Single books and authors embed rows whose changes do not touch their own timestamps
+ * (the author's name, the details), so the {@link JsonResponseCache} tags them with a
+ * digest of their serialized body instead.
+ * </p>
+ */
+public final class ResourceVersion {
+
+    private final LocalDateTime lastModified;
+    private final String tag;
+
+    /**
+     * Validator of a collection.
+     *
+     * @param lastModified latest modification time, or null if the collection is empty
+     * @param count        number of rows the response is made of
+     */
+    public ResourceVersion(LocalDateTime lastModified, Long count) {
+        this.lastModified = lastModified;
+        this.tag          = Long.toHexString(Math.max(millis(lastModified), 0))
+                + "-" + Long.toHexString(count == null ? 0 : count);
+    }
+
+    /**
+     * Validator of a single resource.
+     *
+     * @param lastModified latest modification time of the resource
+     */
+    public ResourceVersion(LocalDateTime lastModified) {
+        this(lastModified, 1L);
+    }
+
+    private ResourceVersion(String tag) {
+        this.lastModified = null;
+        this.tag          = tag;
+    }
+
+    /**
+     * Validator of a collection whose every change increments the {@link CatalogVersion}.
+     *
+     * @param catalogVersion the catalog version the response is at least as new as
+     * @return the validator, with an entity tag only
+     */
+    public static ResourceVersion ofCatalog(long catalogVersion) {
+        return new ResourceVersion("c" + Long.toHexString(catalogVersion));
+    }
+
+    /**
+     * Validator of a single response DTO, from its own timestamps.
+     *
+     * @param createdAt creation time of the resource
+     * @param updatedAt last update time of the resource, or null if it was never updated
+     * @return the validator
+     */
+    public static ResourceVersion ofResponse(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new ResourceVersion(updatedAt != null ? updatedAt : createdAt);
+    }
+
+    /**
+     * @return the value of the {@code Last-Modified} header in epoch millis, or -1 if unknown
+     */
+    public long lastModifiedMillis() {
+        return millis(lastModified);
+    }
+
+    /**
+     * Weak entity tag: it identifies the state of the rows, not the exact bytes of the body.
+     *
+     * @return the value of the {@code ETag} header
+     */
+    public String eTag() {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time == null
+                ? -1
+                : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,14 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+/**
+ * Row count and key checksum of a table, used to detect deletes that a
+ * {@code updated_at} watermark cannot see.
+ * <p>
+ * Built by JPQL constructor projections, hence the wrapper types.
+ * </p>
+ *
+ * @param rows     number of rows
+ * @param checksum sum of the keys of all rows
+ */
+public record TableFingerprint(Long rows, Long checksum) {
+}
@@ -0,0 +1,221 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.security.JwtTokenProvider;
+import com.mavrommatis.ebookshop.ebookshop.config.warmup.WarmupProperties;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookReviewsRepository;
+import com.mavrommatis.ebookshop.ebookshop.service.AuthorService;
+import com.mavrommatis.ebookshop.ebookshop.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Warms the instance up before it reports ready ({@code ebookshop.warmup.*}, see
+ * {@link WarmupProperties}).
+ * <p>
+ * Spring Boot only switches readiness to {@code ACCEPTING_TRAFFIC} once every
+ * {@link ApplicationRunner} has returned, so while this runner works the readiness probe
+ * ({@code /actuator/health/readiness}) keeps the instance out of the load balancer. It:
+ * </p>
+ * <ol>
+ *   <li>loads the hot books and authors through the services, which fills the response DTO
+ *       caches and the second-level cache and opens the pool connections</li>
+ *   <li>replays {@code GET} requests for the same ids, plus the first catalog pages, against
+ *       the local server for a few rounds, so the security filters, controllers, mappers and
+ *       JSON serialization get compiled by the JIT before real traffic arrives</li>
+ * </ol>
+ * <p>
+ * Tasks run on at most {@code parallelism} threads. Failures of single tasks are counted and
+ * logged; the warm-up is bounded by {@code timeout}, after which the instance becomes ready
+ * regardless.
+ * </p>
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final Pattern ACCESS_LOG_READ = Pattern.compile("\"GET /api/(books|authors)/(\\d+)[ ?/]");
+
+    private final WarmupProperties properties;
+    private final BookService bookService;
+    private final AuthorService authorService;
+    private final BookRepository bookRepository;
+    private final BookReviewsRepository bookReviewsRepository;
+    private final HotKeyTracker hotKeys;
+    private final JwtTokenProvider tokenProvider;
+    private final RestClient.Builder restClientBuilder;
+    private final Environment environment;
+
+    /**
+     * Constructs a WarmupRunner.
+     *
+     * @param properties            the warm-up settings
+     * @param bookService           service whose reads are warmed
+     * @param authorService         service whose reads are warmed
+     * @param bookRepository        source of the hot authors when none are configured
+     * @param bookReviewsRepository source of the hot books when none are configured
+     * @param hotKeys               source of the hot ids saved by the previous run
+     * @param tokenProvider         issues the token of the local warm-up requests
+     * @param restClientBuilder     builder of the client for the local warm-up requests
+     * @param environment           source of the local server port
+     */
+    public WarmupRunner(WarmupProperties properties,
+                        BookService bookService,
+                        AuthorService authorService,
+                        BookRepository bookRepository,
+                        BookReviewsRepository bookReviewsRepository,
+                        HotKeyTracker hotKeys,
+                        JwtTokenProvider tokenProvider,
+                        RestClient.Builder restClientBuilder,
+                        Environment environment) {
+        this.properties            = properties;
+        this.bookService           = bookService;
+        this.authorService         = authorService;
+        this.bookRepository        = bookRepository;
+        this.bookReviewsRepository = bookReviewsRepository;
+        this.hotKeys               = hotKeys;
+        this.tokenProvider         = tokenProvider;
+        this.restClientBuilder     = restClientBuilder;
+        this.environment           = environment;
+    }
+
+    /**
+     * Runs the warm-up; returns when it is done or its timeout expired.
+     *
+     * @param args the application arguments (unused)
+     */
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        List<Integer> bookIds = hotBookIds();
+        List<Integer> authorIds = hotAuthorIds();
+
+        List<Runnable> tasks = new ArrayList<>();
+        bookIds.forEach(id -> tasks.add(() -> bookService.findById(id)));
+        authorIds.forEach(id -> tasks.add(() -> authorService.findById(id)));
+        String port = environment.getProperty("local.server.port");
+        if (port != null) {
+            RestClient client = restClientBuilder
+                    .baseUrl("http://localhost:" + port)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + warmupToken())
+                    .build();
+            for (int round = 0; round < properties.getRounds(); round++) {
+                tasks.add(() -> get(client, "/api/books"));
+                tasks.add(() -> get(client, "/api/authors"));
+                tasks.add(() -> get(client, "/api/book-reviews"));
+                bookIds.forEach(id -> tasks.add(() -> get(client, "/api/books/" + id)));
+                authorIds.forEach(id -> tasks.add(() -> get(client, "/api/authors/" + id)));
+            }
+        }
+
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tasks.forEach(task -> executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.debug("Warm-up task failed", e);
+            }
+        }));
+        executor.shutdown();
+        boolean finished = executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (!finished) {
+            executor.shutdownNow();
+        }
+        log.info("Warm-up {} in {} ms: {} books, {} authors, {} tasks, {} failed",
+                finished ? "finished" : "timed out",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                bookIds.size(), authorIds.size(), tasks.size(), failed.get());
+    }
+
+    private List<Integer> hotBookIds() {
+        return hotIds(properties.getBookIds(), HotKeyTracker.BOOK, "books",
+                () -> bookReviewsRepository.findMostReviewedBookIds(PageRequest.of(0, properties.getTopN())));
+    }
+
+    private List<Integer> hotAuthorIds() {
+        return hotIds(properties.getAuthorIds(), HotKeyTracker.AUTHOR, "authors",
+                () -> bookRepository.findMostPublishedAuthorIds(PageRequest.of(0, properties.getTopN())));
+    }
+
+    private List<Integer> hotIds(List<Integer> configured,
+                                 String hotKeyResource,
+                                 String resource,
+                                 Supplier<List<Integer>> fromDatabase) {
+        if (!configured.isEmpty()) {
+            return configured.stream().limit(properties.getTopN()).toList();
+        }
+        List<Integer> hot = hotKeys.hotIds(hotKeyResource, properties.getTopN());
+        if (!hot.isEmpty()) {
+            return hot;
+        }
+        if (properties.getAccessLog() != null) {
+            return fromAccessLog(resource);
+        }
+        return fromDatabase.get();
+    }
+
+    /**
+     * Counts the single-resource reads of the given kind in the access log and returns the most requested ids.
+     */
+    private List<Integer> fromAccessLog(String resource) {
+        Map<Integer, Integer> hits = new HashMap<>();
+        try (Stream<String> lines = Files.lines(Path.of(properties.getAccessLog()))) {
+            lines.forEach(line -> {
+                Matcher matcher = ACCESS_LOG_READ.matcher(line);
+                if (matcher.find() && matcher.group(1).equals(resource)) {
+                    hits.merge(Integer.valueOf(matcher.group(2)), 1, Integer::sum);
+                }
+            });
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Cannot read warm-up access log {}", properties.getAccessLog(), e);
+            return List.of();
+        }
+        return hits.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                .limit(properties.getTopN())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private String warmupToken() {
+        return tokenProvider.createToken(new UsernamePasswordAuthenticationToken("warmup", null, List.of()));
+    }
+
+    private static void get(RestClient client, String path) {
+        client.get().uri(path).retrieve().toBodilessEntity();
+    }
+}
@@ -0,0 +1,235 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.BookSearchCriteria;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL of the book search, as {@link BookSpecifications#matching}
+ * builds it with its keyset predicate, order and limit, for every combination of search
+ * filters, and checks that the plan reads one of the search indexes led by a requested
+ * filter of the book table, or else walks the primary key in keyset order from the cursor
+ * and filters the details ranges on the way without sorting.
+ * <p>
+ * The schema is generated from the entities and the plans are H2's, which only show that a
+ * fitting index exists for each combination, not which one MySQL picks. The indexes of
+ * the MySQL schema script are checked against the {@code @Index} declarations, so the two
+ * schemas cannot drift apart.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.mavrommatis.ebookshop.ebookshop.dao.BookSearchQueryPlanTest$SqlCapture"
+})
+class BookSearchQueryPlanTest {
+
+    /**
+     * Number of independent filters: genre, language, literary form, collective,
+     * author, publish date range, page range.
+     */
+    private static final int FILTERS = 7;
+
+    /**
+     * Index of the book table led by each filter bit of {@link #filterCombinations()};
+     * the collective flag has none.
+     */
+    private static final Map<Integer, String> BOOK_INDEXES = Map.of(
+            1, "IDX_BOOK_GENRE_LANGUAGE_FORM",
+            2, "IDX_BOOK_LANGUAGE_FORM",
+            4, "IDX_BOOK_FORM_COLLECTIVE",
+            16, "IDX_BOOK_AUTHOR");
+
+    /**
+     * Index of the details table led by each range filter bit of {@link #filterCombinations()}.
+     */
+    private static final Map<Integer, String> DETAILS_INDEXES = Map.of(
+            32, "IDX_BOOK_DETAILS_PUBLISH_DATE",
+            64, "IDX_BOOK_DETAILS_PAGES");
+
+    /**
+     * Plan fragments of a primary key walk from the cursor ({@code ?1}) in keyset order.
+     */
+    private static final String KEYSET_WALK = ": BOOK_ID > ?1 */";
+    private static final String SORTED_BY_INDEX = "/* INDEX SORTED */";
+
+    private static final Path SCHEMA_SCRIPT =
+            Path.of("database_container", "init", "01-structure_script_database_ebookshop_mavrommatis.sql");
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE (\\w+) \\((.*?)\\) ENGINE", Pattern.DOTALL);
+    private static final Pattern SCRIPT_INDEX = Pattern.compile("^\\s*INDEX (\\w+) \\(([^)]*)\\)", Pattern.MULTILINE);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    static Stream<Arguments> filterCombinations() {
+        return IntStream.range(0, 1 << FILTERS).mapToObj(mask -> {
+            BookSearchCriteria criteria = new BookSearchCriteria();
+            if ((mask & 1) != 0) criteria.setGenre("Fantasy");
+            if ((mask & 2) != 0) criteria.setLanguage("English");
+            if ((mask & 4) != 0) criteria.setLiteraryForm("Novel");
+            if ((mask & 8) != 0) criteria.setCollective(false);
+            if ((mask & 16) != 0) criteria.setAuthorId(1);
+            if ((mask & 32) != 0) {
+                criteria.setPublishedFrom(LocalDate.of(1990, 1, 1));
+                criteria.setPublishedTo(LocalDate.of(2000, 12, 31));
+            }
+            if ((mask & 64) != 0) {
+                criteria.setMinPages(100);
+                criteria.setMaxPages(400);
+            }
+            return Arguments.of(criteria, expectedIndexes(mask));
+        });
+    }
+
+    /**
+     * Indexes the plan may read for a combination: those of its book filters, or, without
+     * any, those of its details ranges besides the primary key walk.
+     */
+    private static List<String> expectedIndexes(int mask) {
+        List<String> book = indexesOf(BOOK_INDEXES, mask);
+        return book.isEmpty() ? indexesOf(DETAILS_INDEXES, mask) : book;
+    }
+
+    private static List<String> indexesOf(Map<Integer, String> indexes, int mask) {
+        return indexes.entrySet().stream()
+                .filter(index -> (mask & index.getKey()) != 0)
+                .map(Map.Entry::getValue)
+                .sorted()
+                .toList();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void everyFilterCombinationUsesAFilterIndexOrTheKeysetOrder(BookSearchCriteria criteria, List<String> indexes)
+            throws SQLException {
+        SqlCapture.STATEMENTS.clear();
+
+        bookRepository.findBy(BookSpecifications.matching(criteria, 0),
+                query -> query.project("author", "author.authorDetails", "bookDetails")
+                        .sortBy(Sort.by("bookId"))
+                        .limit(21)
+                        .all());
+
+        String sql = SqlCapture.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        String plan = explain(sql).toUpperCase();
+
+        assertThat(plan)
+                .as("plan for %s", criteria)
+                .doesNotContain("TABLESCAN");
+        if (indexes.stream().noneMatch(plan::contains)) {
+            // Only allowed without a book filter: the details ranges are then checked on the way
+            assertThat(indexes)
+                    .as("plan for %s reads none of %s:%n%s", criteria, indexes, plan)
+                    .noneMatch(BOOK_INDEXES::containsValue);
+            assertThat(plan)
+                    .as("plan for %s", criteria)
+                    .contains(KEYSET_WALK, SORTED_BY_INDEX);
+        }
+    }
+
+    @Test
+    void schemaScriptDeclaresTheIndexesOfTheEntities() throws IOException {
+        Map<String, Map<String, String>> script = new TreeMap<>();
+        Matcher table = CREATE_TABLE.matcher(Files.readString(SCHEMA_SCRIPT));
+        while (table.find()) {
+            Map<String, String> indexes = new TreeMap<>();
+            Matcher index = SCRIPT_INDEX.matcher(table.group(2));
+            while (index.find()) {
+                indexes.put(index.group(1), columns(index.group(2)));
+            }
+            script.put(table.group(1), indexes);
+        }
+
+        Map<String, Map<String, String>> entities = new TreeMap<>();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Table.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents(BookEntity.class.getPackageName())) {
+            Table annotation = ClassUtils.resolveClassName(entity.getBeanClassName(), null).getAnnotation(Table.class);
+            Map<String, String> indexes = new TreeMap<>();
+            for (Index index : annotation.indexes()) {
+                indexes.put(index.name(), columns(index.columnList()));
+            }
+            entities.put(annotation.name(), indexes);
+        }
+
+        assertThat(script).containsAllEntriesOf(entities);
+    }
+
+    private static String columns(String columnList) {
+        return columnList.replaceAll("\\s", "").toLowerCase();
+    }
+
+    /**
+     * Returns H2's plan for a statement; parameters are bound to NULL, which does
+     * not affect index selection.
+     */
+    private String explain(String sql) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.mavrommatis.ebookshop.ebookshop.dao;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.CustomerResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.CustomerDetailsEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.CustomerEntity;
+import com.mavrommatis.ebookshop.ebookshop.mapper.AuthorMapper;
+import com.mavrommatis.ebookshop.ebookshop.mapper.BookMapper;
+import com.mavrommatis.ebookshop.ebookshop.mapper.CustomerMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the reads the book, author and customer services actually serve (the keyset
+ * page, the {@code findAllById} of the id batch loaders and multi-gets, and their response
+ * projections) load their rows, including the associations used by the mappers, with a
+ * single SQL statement no matter how many rows are returned.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FetchPlanStatementCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    private final AuthorMapper authorMapper = Mappers.getMapper(AuthorMapper.class);
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 25})
+    void bookReadsUseOneStatement(int rows) {
+        List<Integer> ids = persistBooks(rows);
+
+        List<BookResponseDTO> page = countingOne(() -> bookRepository
+                .findByBookIdGreaterThanOrderByBookIdAsc(0, PageRequest.of(0, 100)).stream()
+                .map(bookMapper::toResponse)
+                .toList());
+        List<BookResponseDTO> batch = countingOne(() -> bookRepository.findAllById(ids).stream()
+                .map(bookMapper::toResponse)
+                .toList());
+        List<BookResponseDTO> projectedPage = countingOne(() ->
+                bookRepository.findResponsesAfter(0, PageRequest.of(0, 100)));
+        List<BookResponseDTO> projectedBatch = countingOne(() -> bookRepository.findResponsesByIdIn(ids));
+
+        for (List<BookResponseDTO> read : List.of(page, batch, projectedPage, projectedBatch)) {
+            assertThat(read).hasSize(rows);
+            assertThat(read).allSatisfy(dto -> {
+                assertThat(dto.getAuthorName()).isNotBlank();
+                assertThat(dto.getDetails()).isNotNull();
+            });
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 25})
+    void authorReadsUseOneStatement(int rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            ids.add(persistAuthor(i).getAuthorId());
+        }
+        em.flush();
+        em.clear();
+
+        List<AuthorResponseDTO> page = countingOne(() -> authorRepository
+                .findByAuthorIdGreaterThanOrderByAuthorIdAsc(0, PageRequest.of(0, 100)).stream()
+                .map(authorMapper::toResponse)
+                .toList());
+        List<AuthorResponseDTO> batch = countingOne(() -> authorRepository.findAllById(ids).stream()
+                .map(authorMapper::toResponse)
+                .toList());
+        List<AuthorResponseDTO> projectedPage = countingOne(() ->
+                authorRepository.findResponsesAfter(0, PageRequest.of(0, 100)));
+        List<AuthorResponseDTO> projectedBatch = countingOne(() -> authorRepository.findResponsesByIdIn(ids));
+
+        for (List<AuthorResponseDTO> read : List.of(page, batch, projectedPage, projectedBatch)) {
+            assertThat(read).hasSize(rows);
+            assertThat(read).allSatisfy(dto -> assertThat(dto.getAuthorDetails()).isNotNull());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 25})
+    void customerReadsUseOneStatement(int rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            CustomerEntity customer = new CustomerEntity("customer" + i + "@example.com", "secret", "customer" + i);
+            CustomerDetailsEntity details = new CustomerDetailsEntity("First" + i, "Last" + i, "Street " + i, "555-" + i);
+            details.setCustomer(customer);
+            customer.setCustomerDetails(details);
+            ids.add(em.persist(customer).getCustomerId());
+        }
+        em.flush();
+        em.clear();
+
+        List<CustomerResponseDTO> page = countingOne(() -> customerRepository
+                .findByCustomerIdGreaterThanOrderByCustomerIdAsc(0, PageRequest.of(0, 100)).stream()
+                .map(customerMapper::toResponse)
+                .toList());
+        List<CustomerResponseDTO> batch = countingOne(() -> customerRepository.findAllById(ids).stream()
+                .map(customerMapper::toResponse)
+                .toList());
+        List<CustomerResponseDTO> projectedPage = countingOne(() ->
+                customerRepository.findResponsesAfter(0, PageRequest.of(0, 100)));
+        List<CustomerResponseDTO> projectedBatch = countingOne(() -> customerRepository.findResponsesByIdIn(ids));
+
+        for (List<CustomerResponseDTO> read : List.of(page, batch, projectedPage, projectedBatch)) {
+            assertThat(read).hasSize(rows);
+            assertThat(read).allSatisfy(dto -> assertThat(dto.getCustomerDetails()).isNotNull());
+        }
+    }
+
+    /**
+     * Persists one book per author, each with details, and detaches everything
+     * so that the query under test has to load the associations itself.
+     */
+    private List<Integer> persistBooks(int rows) {
+        List<BookEntity> books = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            AuthorEntity author = persistAuthor(i);
+            BookEntity book = new BookEntity("Title " + i, "English", "Fiction", "Novel",
+                    "978000000" + i, false, author);
+            BookDetailsEntity details = new BookDetailsEntity(new BigDecimal("0.30"), "Paperback",
+                    "20x13x2 cm", "Summary " + i, 100 + i, LocalDate.of(2000, 1, 1));
+            details.setBook(book);
+            book.setBookDetails(details);
+            em.persist(book);
+            books.add(book);
+        }
+        em.flush();
+        em.clear();
+        return books.stream().map(BookEntity::getBookId).toList();
+    }
+
+    private AuthorEntity persistAuthor(int i) {
+        AuthorEntity author = new AuthorEntity("First" + i, "Last" + i, "author" + i + "@example.com");
+        AuthorDetailsEntity details = new AuthorDetailsEntity("Biography " + i, LocalDate.of(1970, 1, 1), null);
+        details.setAuthor(author);
+        author.setAuthorDetails(details);
+        return em.persist(author);
+    }
+
+    /**
+     * Runs a read on an empty persistence context and asserts that it took a single statement,
+     * mapping included.
+     */
+    private <T> T countingOne(Supplier<T> read) {
+        em.clear();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = read.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mavrommatis.ebookshop.ebookshop.rest;
+
+import com.mavrommatis.ebookshop.ebookshop.dto.CursorPageDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.MultiGetDTO;
+import com.mavrommatis.ebookshop.ebookshop.service.BookService;
+import com.mavrommatis.ebookshop.ebookshop.support.JsonResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@code ?ids=} and {@code ?fields=} reach the matching book reads: together
+ * they select the requested fields of the requested books, instead of ignoring {@code fields}.
+ */
+class BookRestControllerTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new BookRestController(bookService, mock(JsonResponseCache.class)))
+            .build();
+
+    @Test
+    void idsWithFieldsReturnTheRequestedFieldsOfTheRequestedBooks() throws Exception {
+        when(bookService.findAllById(List.of(2, 1), List.of("title")))
+                .thenReturn(new MultiGetDTO<>(List.of(Map.of("bookId", 2, "title", "Emma")), List.of(1)));
+
+        mvc.perform(get("/api/books").param("ids", "2,1").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Emma"))
+                .andExpect(jsonPath("$.items[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$.missingIds[0]").value(1));
+        verify(bookService).findAllById(List.of(2, 1), List.of("title"));
+    }
+
+    @Test
+    void idsAloneReturnFullBooks() throws Exception {
+        when(bookService.findAllById(List.of(2))).thenReturn(new MultiGetDTO<>(List.of(), List.of(2)));
+
+        mvc.perform(get("/api/books").param("ids", "2"))
+                .andExpect(status().isOk());
+        verify(bookService).findAllById(List.of(2));
+    }
+
+    @Test
+    void fieldsAloneReturnAPage() throws Exception {
+        when(bookService.findPage(null, null, List.of("title")))
+                .thenReturn(new CursorPageDTO<>(List.of(), null, 0));
+
+        mvc.perform(get("/api/books").param("fields", "title"))
+                .andExpect(status().isOk());
+        verify(bookService).findPage(null, null, List.of("title"));
+    }
+}
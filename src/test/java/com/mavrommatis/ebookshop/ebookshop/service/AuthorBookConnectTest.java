@@ -0,0 +1,110 @@
+package com.mavrommatis.ebookshop.ebookshop.service;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorBookBulkRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorBookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO.Failure;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookBatchResultDTO.Reason;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookRequestDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorBookResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.AuthorBookIdEntity;
+import com.mavrommatis.ebookshop.ebookshop.support.CatalogVersion;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how batch connecting reacts to an insert that breaks a key or a foreign key after
+ * its chunk was validated, as when a concurrent request creates a pair or deletes an author:
+ * the chunk is rolled back and its pairs are validated and written again one by one, so only
+ * the pairs that still fail are reported, while the other chunks are kept. The repositories
+ * are stubbed with what MySQL would return.
+ */
+class AuthorBookConnectTest {
+
+    private final AuthorBookRepository repository = mock(AuthorBookRepository.class);
+    private final AuthorBookBulkRepository bulkRepository = mock(AuthorBookBulkRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final IdExistenceFilter idFilter = mock(IdExistenceFilter.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(idFilter.mightExist(any(), any())).thenReturn(true);
+        when(authorRepository.findExistingIds(anyCollection())).thenReturn(List.of(1, 2));
+        when(bookRepository.findExistingIds(anyCollection())).thenReturn(List.of(1, 2));
+    }
+
+    @Test
+    void chunkRacingWithAConcurrentInsertIsWrittenAgainPairByPair() {
+        // The first chunk is validated before (1,2) is created concurrently, so its insert fails
+        when(repository.findExistingIds(anyCollection())).thenReturn(
+                List.of(), List.of(), List.of(new AuthorBookIdEntity(1, 2)), List.of());
+        when(bulkRepository.insertAll(anyList(), any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry '1-2' for key 'PRIMARY'"))
+                .thenReturn(1);
+
+        AuthorBookBatchResultDTO result = service(2).connectAll(List.of(pair(1, 1), pair(1, 2), pair(2, 1)));
+
+        assertThat(result.getCreated()).extracting(AuthorBookResponseDTO::getAuthorId, AuthorBookResponseDTO::getBookId)
+                .containsExactly(tuple(1, 1), tuple(2, 1));
+        assertThat(result.getFailures()).extracting(Failure::getAuthorId, Failure::getBookId, Failure::getReason)
+                .containsExactly(tuple(1, 2, Reason.ALREADY_EXISTS));
+        verify(bulkRepository).insertAll(eq(List.of(new AuthorBookIdEntity(1, 1), new AuthorBookIdEntity(1, 2))),
+                any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void pairFailingAgainAloneIsReportedAsAConcurrentChange() {
+        when(repository.findExistingIds(anyCollection())).thenReturn(List.of());
+        when(bulkRepository.insertAll(anyList(), any()))
+                .thenThrow(new DataIntegrityViolationException("Cannot add or update a child row"));
+
+        AuthorBookBatchResultDTO result = service(10).connectAll(List.of(pair(1, 1), pair(1, 1)));
+
+        assertThat(result.getCreated()).isEmpty();
+        assertThat(result.getFailures()).extracting(Failure::getReason)
+                .containsExactly(Reason.CONCURRENT_CHANGE, Reason.CONCURRENT_CHANGE);
+        verify(transactionManager, times(3)).rollback(any());
+    }
+
+    private AuthorBookServiceImpl service(int chunkSize) {
+        return new AuthorBookServiceImpl(
+                repository,
+                bulkRepository,
+                null,
+                authorRepository,
+                bookRepository,
+                null,
+                idFilter,
+                mock(CatalogVersion.class),
+                new ChunkedWriter(transactionManager, chunkSize, 1));
+    }
+
+    private static AuthorBookRequestDTO pair(int authorId, int bookId) {
+        return new AuthorBookRequestDTO(authorId, bookId);
+    }
+}
@@ -0,0 +1,166 @@
+package com.mavrommatis.ebookshop.ebookshop.service;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.BookReviewsBulkRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookReviewsRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO.Item;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsIngestResultDTO.Status;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookReviewsRequestDTO;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.BookReviewsEntity;
+import com.mavrommatis.ebookshop.ebookshop.exception.BadRequestException;
+import com.mavrommatis.ebookshop.ebookshop.mapper.BookReviewsMapper;
+import com.mavrommatis.ebookshop.ebookshop.support.ChunkedWriter;
+import com.mavrommatis.ebookshop.ebookshop.support.IdExistenceFilter;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how review ingestion classifies each submitted review from the outcome of the
+ * {@code INSERT IGNORE} of its chunk: reviews with an id in the range reserved by the insert
+ * are created, older ids are duplicates and missing pairs are invalid references; a chunk
+ * that cannot be classified is rolled back and reported as failed without failing the others.
+ * The bulk repository is stubbed with the rows MySQL would return.
+ */
+class BookReviewsIngestTest {
+
+    private final BookReviewsBulkRepository bulkRepository = mock(BookReviewsBulkRepository.class);
+    private final IdExistenceFilter idFilter = mock(IdExistenceFilter.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void chunkMixingCreatedDuplicateAndInvalidReviewsIsClassifiedById() {
+        whenFilterKnowsAllBut(99);
+        // (1,1) and (2,1) are created with ids 100 and 101; (1,2) exists as review 7; book 9 is unknown
+        when(bulkRepository.insertIgnoreAll(anyList(), any())).thenReturn(2);
+        when(bulkRepository.lastInsertId()).thenReturn(100);
+        when(bulkRepository.findIdsByBookAndCustomer(anyList())).thenReturn(rows(
+                new Object[]{100, 1, 1},
+                new Object[]{7, 1, 2},
+                new Object[]{101, 2, 1}));
+
+        List<Item> items = service(10).ingestAll(List.of(
+                review(1, 1), review(1, 2), review(9, 1), review(99, 1), review(1, 1), review(2, 1))).getItems();
+
+        assertThat(items).extracting(Item::getStatus).containsExactly(
+                Status.CREATED, Status.DUPLICATE, Status.INVALID_FK, Status.INVALID_FK, Status.DUPLICATE, Status.CREATED);
+        assertThat(items).extracting(Item::getReviewId).containsExactly(100, 7, null, null, 100, 101);
+        // Book 99 is known not to exist and is not sent to MySQL
+        verify(bulkRepository).insertIgnoreAll(eq(List.of(review(1, 1), review(1, 2), review(9, 1), review(2, 1))), any());
+        verify(idFilter).recordInsert(BookReviewsEntity.class, 100);
+        verify(idFilter).recordInsert(BookReviewsEntity.class, 101);
+        verify(idFilter, times(2)).recordInsert(eq(BookReviewsEntity.class), anyInt());
+    }
+
+    @Test
+    void fullyCreatedChunkTakesItsIdsFromTheInsert() {
+        whenFilterKnowsAllBut(99);
+        when(bulkRepository.insertIgnoreAll(anyList(), any())).thenReturn(3);
+        when(bulkRepository.lastInsertId()).thenReturn(40);
+
+        List<Item> items = service(10).ingestAll(List.of(review(1, 1), review(2, 1), review(3, 1))).getItems();
+
+        assertThat(items).extracting(Item::getStatus).containsOnly(Status.CREATED);
+        assertThat(items).extracting(Item::getReviewId).containsExactly(40, 41, 42);
+        verify(bulkRepository, never()).findIdsByBookAndCustomer(anyList());
+    }
+
+    @Test
+    void unclassifiableChunkIsRolledBackAndReportedAsFailed() {
+        whenFilterKnowsAllBut(99);
+        // First chunk: one review inserted, but the query finds no id in the reserved range
+        when(bulkRepository.insertIgnoreAll(anyList(), any())).thenReturn(1, 2);
+        when(bulkRepository.lastInsertId()).thenReturn(100, 200);
+        when(bulkRepository.findIdsByBookAndCustomer(anyList())).thenReturn(rows(
+                new Object[]{150, 1, 1},
+                new Object[]{7, 1, 2}));
+
+        List<Item> items = service(2).ingestAll(List.of(
+                review(1, 1), review(1, 2), review(1, 1), review(3, 1))).getItems();
+
+        assertThat(items).extracting(Item::getStatus).containsExactly(
+                Status.FAILED, Status.FAILED, Status.CREATED, Status.CREATED);
+        assertThat(items).extracting(Item::getReviewId).containsExactly(null, null, 200, 201);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(idFilter, never()).recordInsert(BookReviewsEntity.class, 150);
+    }
+
+    @Test
+    void nullReviewIsRejectedBeforeAnyInsert() {
+        List<BookReviewsRequestDTO> reviews = new ArrayList<>(Arrays.asList(review(1, 1), null));
+
+        assertThatThrownBy(() -> service(10).ingestAll(reviews)).isInstanceOf(BadRequestException.class);
+        verify(bulkRepository, never()).insertIgnoreAll(anyList(), any());
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "null", value = {
+            "1,    1,    1, 0",
+            "1,    1,    5, 0",
+            "null, 1,    3, 1",
+            "1,    null, 3, 1",
+            "1,    1,    0, 1",
+            "1,    1,    6, 1"
+    })
+    void requestConstraintsRejectMissingIdsAndRatingsOutOfRange(Integer bookId, Integer customerId,
+                                                               int rating, int violations) {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+
+            assertThat(validator.validate(new BookReviewsRequestDTO(bookId, customerId, rating, null)))
+                    .hasSize(violations);
+            assertThat(validator.validate(new BookReviewsRequestDTO(1, 1, 3,
+                    "x".repeat(BookReviewsRequestDTO.MAX_COMMENT_LENGTH + 1)))).hasSize(1);
+        }
+    }
+
+    private BookReviewsServiceImpl service(int chunkSize) {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return new BookReviewsServiceImpl(
+                mock(BookReviewsRepository.class),
+                bulkRepository,
+                Mappers.getMapper(BookReviewsMapper.class),
+                null,
+                idFilter,
+                new ChunkedWriter(transactionManager, chunkSize, 1),
+                null,
+                true);
+    }
+
+    private void whenFilterKnowsAllBut(int unknownBookId) {
+        when(idFilter.mightExist(any(), any())).thenReturn(true);
+        when(idFilter.mightExist(BookEntity.class, unknownBookId)).thenReturn(false);
+    }
+
+    private static BookReviewsRequestDTO review(int bookId, int customerId) {
+        return new BookReviewsRequestDTO(bookId, customerId, 4, null);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
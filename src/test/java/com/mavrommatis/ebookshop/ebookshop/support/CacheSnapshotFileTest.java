@@ -0,0 +1,128 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mavrommatis.ebookshop.ebookshop.config.cache.DtoCacheConfig;
+import com.mavrommatis.ebookshop.ebookshop.dao.AuthorRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.BookRepository;
+import com.mavrommatis.ebookshop.ebookshop.dto.AuthorResponseDTO;
+import com.mavrommatis.ebookshop.ebookshop.dto.BookResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the {@link CacheSnapshotFile} written on shutdown loads back the same cached
+ * DTOs and filter ids, skips a cache whose collection changed since it was saved, and
+ * ignores a truncated file instead of failing the startup.
+ */
+class CacheSnapshotFileTest {
+
+    private static final LocalDateTime SAVED_AT = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    private final long[] customerIds = idWords(1, 2, 3, 70);
+
+    private BookResponseDTO book;
+    private AuthorResponseDTO author;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findCollectionVersion()).thenReturn(new ResourceVersion(SAVED_AT, 2L));
+        when(authorRepository.findCollectionVersion()).thenReturn(new ResourceVersion(SAVED_AT, 1L));
+        book = BookResponseDTO.builder().bookId(7).title("1984").createdAt(SAVED_AT).build();
+        author = AuthorResponseDTO.builder().authorId(3).firstName("George").lastName("Orwell").build();
+    }
+
+    @Test
+    void savedCachesAndIdsAreLoadedBack() {
+        IdExistenceFilter savedFilter = filterExporting(Map.of("CustomerEntity", customerIds));
+        InvalidationLoggingCacheManager saved = cacheManager();
+        saved.getLocalCache(DtoCacheConfig.BOOKS).put(7, book);
+        saved.getLocalCache(DtoCacheConfig.AUTHORS).put(3, author);
+        snapshot(saved, savedFilter).save();
+
+        IdExistenceFilter loadedFilter = filterExporting(Map.of());
+        InvalidationLoggingCacheManager loaded = cacheManager();
+        snapshot(loaded, loadedFilter).load();
+
+        assertThat(loaded.getLocalCache(DtoCacheConfig.BOOKS).get(7, BookResponseDTO.class)).isEqualTo(book);
+        assertThat(loaded.getLocalCache(DtoCacheConfig.AUTHORS).get(3, AuthorResponseDTO.class)).isEqualTo(author);
+        verify(loadedFilter).restore("CustomerEntity", customerIds);
+    }
+
+    @Test
+    void cacheOfAChangedCollectionIsNotLoaded() {
+        InvalidationLoggingCacheManager saved = cacheManager();
+        saved.getLocalCache(DtoCacheConfig.BOOKS).put(7, book);
+        saved.getLocalCache(DtoCacheConfig.AUTHORS).put(3, author);
+        snapshot(saved, filterExporting(Map.of())).save();
+        when(bookRepository.findCollectionVersion()).thenReturn(new ResourceVersion(SAVED_AT.plusSeconds(1), 2L));
+
+        InvalidationLoggingCacheManager loaded = cacheManager();
+        snapshot(loaded, filterExporting(Map.of())).load();
+
+        assertThat(loaded.getLocalCache(DtoCacheConfig.BOOKS).get(7)).isNull();
+        assertThat(loaded.getLocalCache(DtoCacheConfig.AUTHORS).get(3, AuthorResponseDTO.class)).isEqualTo(author);
+    }
+
+    @Test
+    void truncatedFileIsIgnored() throws Exception {
+        InvalidationLoggingCacheManager saved = cacheManager();
+        saved.getLocalCache(DtoCacheConfig.BOOKS).put(7, book);
+        snapshot(saved, filterExporting(Map.of("CustomerEntity", customerIds))).save();
+        Path file = directory.resolve("caches.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        IdExistenceFilter loadedFilter = filterExporting(Map.of());
+        snapshot(cacheManager(), loadedFilter).load();
+
+        verify(loadedFilter, never()).restore(any(), any());
+    }
+
+    private CacheSnapshotFile snapshot(InvalidationLoggingCacheManager cacheManager, IdExistenceFilter idFilter) {
+        return new CacheSnapshotFile(cacheManager, idFilter, objectMapper, bookRepository, authorRepository,
+                true, directory.resolve("caches.snapshot").toString());
+    }
+
+    private static InvalidationLoggingCacheManager cacheManager() {
+        return new InvalidationLoggingCacheManager(
+                new CaffeineCacheManager(DtoCacheConfig.BOOKS, DtoCacheConfig.AUTHORS),
+                mock(CacheInvalidationLog.class));
+    }
+
+    private static IdExistenceFilter filterExporting(Map<String, long[]> ids) {
+        IdExistenceFilter filter = mock(IdExistenceFilter.class);
+        when(filter.exportIds()).thenReturn(ids);
+        return filter;
+    }
+
+    private static long[] idWords(int... ids) {
+        BitSet set = new BitSet();
+        for (int id : ids) {
+            set.set(id);
+        }
+        return set.toLongArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.CatalogVersionRepository;
+import com.mavrommatis.ebookshop.ebookshop.entity.CatalogVersionEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies when the {@link CatalogVersion} moves: a transaction that bumps it increments the
+ * row once, just before it commits, and the in-memory version only advances after the commit,
+ * so nothing is cached under a version whose writes are not yet visible; a rolled-back
+ * transaction leaves both unchanged.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "ebookshop.catalog-version.poll-interval=1h"
+})
+@Import(CatalogVersion.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogVersionTest {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogVersionRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void resetRow() {
+        transaction = new TransactionTemplate(transactionManager);
+        CatalogVersionEntity row = new CatalogVersionEntity();
+        row.setCatalogVersionId(CatalogVersionEntity.ROW_ID);
+        row.setVersion(catalogVersion.current());
+        repository.save(row);
+    }
+
+    @Test
+    void versionAdvancesOnceAndOnlyAfterTheCommit() {
+        long before = catalogVersion.current();
+        List<Long> seenBeforeCommit = new ArrayList<>();
+
+        transaction.executeWithoutResult(status -> {
+            catalogVersion.bump();
+            catalogVersion.bump();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Runs after the increment: the row is updated but not yet committed
+                    seenBeforeCommit.add(catalogVersion.current());
+                    seenBeforeCommit.add(committedVersion());
+                }
+            });
+            assertThat(catalogVersion.current()).isEqualTo(before);
+        });
+
+        assertThat(seenBeforeCommit).containsExactly(before, before);
+        assertThat(catalogVersion.current()).isEqualTo(before + 1);
+        assertThat(committedVersion()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rolledBackTransactionLeavesTheVersionUnchanged() {
+        long before = catalogVersion.current();
+
+        transaction.executeWithoutResult(status -> {
+            catalogVersion.bump();
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogVersion.current()).isEqualTo(before);
+        assertThat(committedVersion()).isEqualTo(before);
+    }
+
+    @Test
+    void bumpOutsideATransactionAdvancesAtOnce() {
+        long before = catalogVersion.current();
+
+        catalogVersion.bump();
+
+        assertThat(catalogVersion.current()).isEqualTo(before + 1);
+        assertThat(committedVersion()).isEqualTo(before + 1);
+    }
+
+    /**
+     * Reads the row from another thread, hence another connection, as another instance would.
+     */
+    private long committedVersion() {
+        return CompletableFuture.supplyAsync(() -> transaction.execute(status -> repository.findVersion())).join();
+    }
+}
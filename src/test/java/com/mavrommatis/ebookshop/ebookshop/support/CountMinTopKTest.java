@@ -0,0 +1,74 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the {@link CountMinTopK} finds the most frequent ids of a stream in which
+ * they are hidden among many rare ids, never undercounts them, keeps at most {@code k} ids,
+ * and lets recent traffic displace ids that were hot before the counters were halved.
+ */
+class CountMinTopKTest {
+
+    private static final int NO_HALVING = Integer.MAX_VALUE;
+
+    @Test
+    void heavyHittersAreFoundAmongRareIdsMostFrequentFirst() {
+        CountMinTopK sketch = new CountMinTopK(1024, 4, 5, NO_HALVING);
+        int rare = 10_000;
+        for (int round = 0; round < 100; round++) {
+            for (int hot = 1; hot <= 5; hot++) {
+                // Id 1 is the most frequent, id 5 the least
+                for (int i = 0; i <= 5 - hot; i++) {
+                    sketch.add(hot);
+                }
+            }
+            for (int i = 0; i < 50; i++) {
+                sketch.add(rare++);
+            }
+        }
+
+        assertThat(sketch.top()).extracting(Map.Entry::getKey).containsExactly(1, 2, 3, 4, 5);
+        for (int hot = 1; hot <= 5; hot++) {
+            assertThat(sketch.isTop(hot)).isTrue();
+        }
+        assertThat(sketch.isTop(10_000)).isFalse();
+    }
+
+    @Test
+    void estimatesNeverUndercount() {
+        CountMinTopK sketch = new CountMinTopK(64, 3, 3, NO_HALVING);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add(i % 200);
+        }
+        for (int i = 0; i < 300; i++) {
+            sketch.add(7);
+        }
+
+        assertThat(sketch.top()).hasSize(3);
+        assertThat(sketch.top().get(0).getKey()).isEqualTo(7);
+        assertThat(sketch.top().get(0).getValue()).isGreaterThanOrEqualTo(325);
+    }
+
+    @Test
+    void halvingLetsRecentTrafficDisplaceOldHotIds() {
+        CountMinTopK halving = new CountMinTopK(1024, 4, 1, 100);
+        CountMinTopK cumulative = new CountMinTopK(1024, 4, 1, NO_HALVING);
+        for (CountMinTopK sketch : new CountMinTopK[]{halving, cumulative}) {
+            for (int i = 0; i < 100; i++) {
+                sketch.add(1);
+            }
+            for (int i = 0; i < 60; i++) {
+                sketch.add(2);
+            }
+        }
+
+        assertThat(halving.isTop(2)).isTrue();
+        assertThat(halving.isTop(1)).isFalse();
+        assertThat(cumulative.isTop(1)).isTrue();
+        assertThat(cumulative.isTop(2)).isFalse();
+    }
+}
@@ -0,0 +1,197 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.config.resilience.DegradedReadsProperties;
+import com.mavrommatis.ebookshop.ebookshop.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that {@link DegradedReads} serves the last loaded value while the database is
+ * down, forgets or replaces it along with the tracked DTO cache, runs one task for
+ * concurrent reads of a key, opens the circuit after consecutive database failures and
+ * then stops calling the database, and sheds reads beyond a full pool without counting
+ * them towards the circuit.
+ */
+class DegradedReadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<DegradedReads> created = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        callers.shutdownNow();
+        created.forEach(DegradedReads::shutdown);
+    }
+
+    @Test
+    void lastLoadedValueIsServedStaleWhileTheDatabaseIsDown() {
+        DegradedReads reads = degradedReads(4, 10, 100);
+        assertThat(reads.read("books", 1, () -> "loaded")).isEqualTo("loaded");
+        assertThat(reads.servedStale()).isFalse();
+
+        assertThat(reads.read("books", 1, this::failingLoad)).isEqualTo("loaded");
+        assertThat(reads.servedStale()).isTrue();
+        assertThatThrownBy(() -> reads.read("books", 2, this::failingLoad))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("ebookshop.degraded-reads.stale").tag("cache", "books").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void lastKnownValuesFollowTheTrackedCache() {
+        DegradedReads reads = degradedReads(4, 10, 100);
+        Cache books = reads.tracking(new ConcurrentMapCache("books"));
+        for (int id = 1; id <= 3; id++) {
+            int loaded = id;
+            reads.read("books", id, () -> "loaded " + loaded);
+        }
+
+        books.evict(1);
+        books.put(2, "updated 2");
+
+        assertThatThrownBy(() -> reads.read("books", 1, this::failingLoad))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(reads.read("books", 2, this::failingLoad)).isEqualTo("updated 2");
+        assertThat(reads.read("books", 3, this::failingLoad)).isEqualTo("loaded 3");
+
+        books.clear();
+
+        assertThatThrownBy(() -> reads.read("books", 3, this::failingLoad))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void concurrentReadsOfAKeyShareOneTask() throws Exception {
+        DegradedReads reads = degradedReads(4, 10, 5);
+        CountDownLatch started = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> reads.read("books", 1, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                return blockUntilReleased("value");
+            })));
+        }
+        started.await(5, TimeUnit.SECONDS);
+        Thread.sleep(50);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void consecutiveFailuresOpenTheCircuit() {
+        DegradedReads reads = degradedReads(4, 10, 2);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> reads.read("books", 1, this::failingLoad))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessage("Database unavailable");
+        }
+        assertThatThrownBy(() -> reads.read("books", 2, this::failingLoad))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Database circuit is open");
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("ebookshop.degraded-reads.circuit-open").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void fullPoolShedsReadsWithoutOpeningTheCircuit() throws Exception {
+        DegradedReads reads = degradedReads(1, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<String> running = callers.submit(() -> reads.read("books", 1, () -> {
+            started.countDown();
+            return blockUntilReleased("running");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> queued = callers.submit(() -> reads.read("books", 2, () -> "queued"));
+        awaitQueued(reads);
+
+        assertThatThrownBy(() -> reads.read("books", 3, () -> "shed"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Too many database reads waiting");
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(reads.read("books", 3, () -> "after")).isEqualTo("after");
+        assertThat(meterRegistry.get("ebookshop.degraded-reads.shed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ebookshop.degraded-reads.circuit-open").gauge().value()).isZero();
+    }
+
+    @Test
+    void loadThreadsAreCappedAtTheConnectionPool() {
+        DegradedReadsProperties properties = properties(20, 10, 5);
+
+        DegradedReads reads = track(new DegradedReads(properties, meterRegistry, 4));
+
+        assertThat(reads.loadThreads()).isEqualTo(4);
+    }
+
+    private DegradedReads degradedReads(int loadThreads, int queueCapacity, int failureThreshold) {
+        return track(new DegradedReads(properties(loadThreads, queueCapacity, failureThreshold), meterRegistry, 10));
+    }
+
+    private DegradedReads track(DegradedReads reads) {
+        created.add(reads);
+        return reads;
+    }
+
+    private static DegradedReadsProperties properties(int loadThreads, int queueCapacity, int failureThreshold) {
+        DegradedReadsProperties properties = new DegradedReadsProperties();
+        properties.setLoadThreads(loadThreads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setFailureThreshold(failureThreshold);
+        properties.setTimeout(Duration.ofSeconds(5));
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    private String failingLoad() {
+        loads.incrementAndGet();
+        throw new CannotCreateTransactionException("Connection refused");
+    }
+
+    private String blockUntilReleased(String value) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void awaitQueued(DegradedReads reads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reads.queuedReads() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(reads.queuedReads()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,212 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the {@link IdBatchLoader} merges the ids requested within one window into
+ * a single load on the first caller's thread, loads a full batch without waiting for the
+ * window, hands every caller its own row or not-found exception, fails every caller of a
+ * failed batch, and lets an interrupted caller stop waiting without dropping the batch.
+ */
+class IdBatchLoaderTest {
+
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(30);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> loadedBatches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void idsRequestedWithinTheWindowAreLoadedTogether() throws Exception {
+        IdBatchLoader<String> loader = loader(Duration.ofSeconds(1), 10, this::rowsOfEvenIds);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int id : new int[]{2, 4, 4, 6}) {
+            results.add(callers.submit(() -> loader.load(id)));
+        }
+
+        assertThat(get(results)).containsExactly("row 2", "row 4", "row 4", "row 6");
+        assertThat(loadedBatches).hasSize(1);
+        assertThat(loadedBatches.get(0)).containsExactlyInAnyOrder(2, 4, 6);
+        assertThat(counter("ebookshop.id-batching.batches")).isEqualTo(1);
+        assertThat(counter("ebookshop.id-batching.ids")).isEqualTo(3);
+    }
+
+    @Test
+    void expiredWindowIsLoadedOnTheFirstCallersThread() throws Exception {
+        List<String> loadingThreads = new CopyOnWriteArrayList<>();
+        IdBatchLoader<String> loader = loader(Duration.ofMillis(20), 10, ids -> {
+            loadingThreads.add(Thread.currentThread().getName());
+            return rowsOfEvenIds(ids);
+        });
+
+        Future<String> first = callers.submit(() -> {
+            Thread.currentThread().setName("first caller");
+            return loader.load(2);
+        });
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("row 2");
+        assertThat(loadingThreads).containsExactly("first caller");
+    }
+
+    @Test
+    void interruptedCallerStopsWaitingWithoutDroppingTheBatch() throws Exception {
+        IdBatchLoader<String> loader = loader(LONG_WINDOW, 3, this::rowsOfEvenIds);
+        Future<String> leader = callers.submit(() -> loader.load(2));
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                loader.load(4);
+            } catch (CancellationException e) {
+                interruptKept.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        awaitPending(loader, 1);
+        waiter.start();
+        awaitPending(loader, 2);
+        awaitState(waiter, Thread.State.WAITING);
+
+        waiter.interrupt();
+        waiter.join(5_000);
+        Future<String> last = callers.submit(() -> loader.load(6));
+
+        assertThat(interruptKept).isTrue();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("row 2");
+        assertThat(last.get(5, TimeUnit.SECONDS)).isEqualTo("row 6");
+        assertThat(loadedBatches).hasSize(1);
+        assertThat(loadedBatches.get(0)).containsExactlyInAnyOrder(2, 4, 6);
+    }
+
+    @Test
+    void fullBatchIsLoadedWithoutWaitingForTheWindow() throws Exception {
+        IdBatchLoader<String> loader = loader(LONG_WINDOW, 2, this::rowsOfEvenIds);
+
+        Future<String> first = callers.submit(() -> loader.load(2));
+        Future<String> second = callers.submit(() -> loader.load(4));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("row 2");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("row 4");
+        assertThat(loadedBatches).hasSize(1);
+        assertThat(loadedBatches.get(0)).containsExactlyInAnyOrder(2, 4);
+    }
+
+    @Test
+    void missingIdFailsOnlyItsOwnCaller() throws Exception {
+        IdBatchLoader<String> loader = loader(LONG_WINDOW, 2, this::rowsOfEvenIds);
+
+        Future<String> found = callers.submit(() -> loader.load(2));
+        Future<String> missing = callers.submit(() -> loader.load(3));
+
+        assertThat(found.get(5, TimeUnit.SECONDS)).isEqualTo("row 2");
+        assertThatThrownBy(() -> missing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(IllegalArgumentException.class).hasMessage("Not found: 3");
+    }
+
+    @Test
+    void failedBatchFailsEveryCaller() {
+        IllegalStateException failure = new IllegalStateException("database down");
+        IdBatchLoader<String> loader = loader(LONG_WINDOW, 2, ids -> {
+            throw failure;
+        });
+
+        Future<String> first = callers.submit(() -> loader.load(2));
+        Future<String> second = callers.submit(() -> loader.load(4));
+
+        for (Future<String> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+    }
+
+    @Test
+    void batchSizeOfOneLoadsEveryIdAlone() {
+        IdBatchLoader<String> loader = loader(LONG_WINDOW, 1, this::rowsOfEvenIds);
+
+        assertThat(loader.load(2)).isEqualTo("row 2");
+        assertThat(loader.load(4)).isEqualTo("row 4");
+        assertThat(loadedBatches).containsExactly(List.of(2), List.of(4));
+    }
+
+    private IdBatchLoader<String> loader(Duration window, int maxBatchSize,
+                                         Function<List<Integer>, Map<Integer, String>> batchLoad) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return new IdBatchLoader<>(window, maxBatchSize,
+                ids -> {
+                    loadedBatches.add(ids);
+                    return batchLoad.apply(ids);
+                },
+                id -> new IllegalArgumentException("Not found: " + id),
+                new TransactionTemplate(transactionManager),
+                Counter.builder("ebookshop.id-batching.batches").register(meterRegistry),
+                Counter.builder("ebookshop.id-batching.ids").register(meterRegistry));
+    }
+
+    private static void awaitPending(IdBatchLoader<?> loader, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loader.pendingCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(loader.pendingCount()).isEqualTo(count);
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(thread.getState()).isEqualTo(state);
+    }
+
+    private Map<Integer, String> rowsOfEvenIds(List<Integer> ids) {
+        return ids.stream()
+                .filter(id -> id % 2 == 0)
+                .collect(Collectors.toMap(Function.identity(), id -> "row " + id));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static List<String> get(List<Future<String>> results) throws Exception {
+        List<String> values = new ArrayList<>();
+        for (Future<String> result : results) {
+            values.add(result.get(5, TimeUnit.SECONDS));
+        }
+        return values;
+    }
+}
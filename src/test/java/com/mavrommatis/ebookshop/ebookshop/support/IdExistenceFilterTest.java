@@ -0,0 +1,134 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import com.mavrommatis.ebookshop.ebookshop.dao.CacheInvalidationRepository;
+import com.mavrommatis.ebookshop.ebookshop.dao.CustomerRepository;
+import com.mavrommatis.ebookshop.ebookshop.entity.CacheInvalidationEntity;
+import com.mavrommatis.ebookshop.ebookshop.entity.CustomerEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies how the {@link IdExistenceFilter} follows inserts and deletes across commits and
+ * rollbacks: an inserted id is reported as possibly present at once and stays so if its
+ * transaction rolls back (only costing a database check), but its insert never reaches the
+ * {@link CacheInvalidationLog}; a deleted id is only dropped once the delete commits. Without
+ * the log the filter stays off, since it would never learn the inserts of other instances.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({IdExistenceFilter.class, CacheInvalidationLog.class, IdExistenceFilterTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdExistenceFilterTest {
+
+    @Autowired
+    private IdExistenceFilter idFilter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CacheInvalidationRepository invalidationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void loadFilter() {
+        transaction = new TransactionTemplate(transactionManager);
+        idFilter.load();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        customerRepository.deleteAll();
+        invalidationRepository.deleteAll();
+    }
+
+    @Test
+    void committedInsertIsKnownAndLogged() {
+        int id = transaction.execute(status -> customerRepository.save(customer("committed")).getCustomerId());
+
+        assertThat(idFilter.mightExist(CustomerEntity.class, id)).isTrue();
+        assertThat(idFilter.mightExist(CustomerEntity.class, id + 1_000)).isFalse();
+        assertThat(invalidationRepository.findAll())
+                .extracting(CacheInvalidationEntity::getKind, CacheInvalidationEntity::getEntryKey)
+                .containsExactly(tuple(CacheInvalidationEntity.Kind.INSERT, id));
+    }
+
+    @Test
+    void rolledBackInsertOnlyCostsADatabaseCheck() {
+        int id = transaction.execute(status -> {
+            int saved = customerRepository.saveAndFlush(customer("rolled-back")).getCustomerId();
+            assertThat(idFilter.mightExist(CustomerEntity.class, saved)).isTrue();
+            status.setRollbackOnly();
+            return saved;
+        });
+
+        assertThat(idFilter.mightExist(CustomerEntity.class, id)).isTrue();
+        assertThat(customerRepository.existsById(id)).isFalse();
+        assertThat(invalidationRepository.count()).isZero();
+    }
+
+    @Test
+    void deletedIdIsDroppedOnlyWhenTheDeleteCommits() {
+        int id = transaction.execute(status -> customerRepository.save(customer("deleted")).getCustomerId());
+
+        transaction.executeWithoutResult(status -> {
+            customerRepository.deleteById(id);
+            customerRepository.flush();
+            assertThat(idFilter.mightExist(CustomerEntity.class, id)).isTrue();
+            status.setRollbackOnly();
+        });
+        assertThat(idFilter.mightExist(CustomerEntity.class, id)).isTrue();
+
+        transaction.executeWithoutResult(status -> customerRepository.deleteById(id));
+        assertThat(idFilter.mightExist(CustomerEntity.class, id)).isFalse();
+    }
+
+    @Test
+    void filterIsOffWithoutTheInvalidationLog() {
+        CacheInvalidationLog disabledLog = mock(CacheInvalidationLog.class);
+        when(disabledLog.isEnabled()).thenReturn(false);
+        IdExistenceFilter filter = new IdExistenceFilter(entityManagerFactory, new SimpleMeterRegistry(),
+                disabledLog, true);
+        filter.registerListeners();
+        filter.load();
+
+        assertThat(filter.mightExist(CustomerEntity.class, 1_000_000)).isTrue();
+    }
+
+    private static CustomerEntity customer(String name) {
+        return new CustomerEntity(name + "@example.com", "secret", name);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
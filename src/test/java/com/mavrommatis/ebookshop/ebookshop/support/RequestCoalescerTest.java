@@ -0,0 +1,149 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that the {@link RequestCoalescer} runs one load for concurrent callers of a key,
+ * hands the leader's exception to every waiter without keeping it for later calls, and lets
+ * an interrupted waiter give up without cancelling the load for the others.
+ */
+class RequestCoalescerTest {
+
+    private static final int WAITERS = 3;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.load("book", 1, () -> blockingLoad("value")));
+        List<Future<String>> waiters = startWaiters(() -> coalescer.load("book", 1, () -> "other"));
+
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> waiter : waiters) {
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(coalescer.load("book", 2, () -> "another key")).isEqualTo("another key");
+        assertThat(coalescer.load("author", 1, () -> "another loader")).isEqualTo("another loader");
+    }
+
+    @Test
+    void leaderExceptionIsThrownToEveryWaiterAndNotKept() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database down");
+        Future<String> leader = executor.submit(() -> coalescer.load("book", 1, () -> {
+            blockingLoad("unused");
+            throw failure;
+        }));
+        List<Future<String>> waiters = startWaiters(() -> coalescer.load("book", 1, () -> "other"));
+
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        for (Future<String> waiter : waiters) {
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(coalescer.load("book", 1, () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void interruptedWaiterStopsWaitingWithoutCancellingTheLoad() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.load("book", 1, () -> blockingLoad("value")));
+        started.await(5, TimeUnit.SECONDS);
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread cancelled = new Thread(() -> {
+            try {
+                coalescer.load("book", 1, () -> "other");
+            } catch (CancellationException e) {
+                interruptKept.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        cancelled.start();
+        awaitCollapsed(1);
+        List<Future<String>> waiters = startWaiters(() -> coalescer.load("book", 1, () -> "other"));
+        awaitCollapsed(WAITERS + 1);
+
+        cancelled.interrupt();
+        cancelled.join(5_000);
+        release.countDown();
+
+        assertThat(interruptKept).isTrue();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> waiter : waiters) {
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    private String blockingLoad(String value) {
+        loads.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    /**
+     * Starts the waiters once the leader is loading and returns when all of them are waiting.
+     */
+    private List<Future<String>> startWaiters(Callable<String> call) throws Exception {
+        started.await(5, TimeUnit.SECONDS);
+        double before = collapsed();
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(call));
+        }
+        awaitCollapsed(before + WAITERS);
+        return waiters;
+    }
+
+    private void awaitCollapsed(double count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (collapsed() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(collapsed()).isEqualTo(count);
+    }
+
+    private double collapsed() {
+        return meterRegistry.find("ebookshop.coalescer.collapsed").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mavrommatis.ebookshop.ebookshop.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the {@link ReservingDataSource} lets a thread that already holds a
+ * connection take another one even when first connections are exhausted, as the id
+ * generator does inside a transaction, while a first connection waits for a permit and gives
+ * up after the connection timeout; closing a first connection hands its permit back.
+ */
+class ReservingDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    private ReservingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ReservingDataSource(pool, 3, 1, Duration.ofMillis(200));
+    }
+
+    @Test
+    void nestedConnectionIsServedWhenFirstConnectionsAreExhausted() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection other = openOnAnotherThread().get(5, TimeUnit.SECONDS);
+        assertThat(dataSource.availableFirstConnections()).isZero();
+
+        Connection nested = dataSource.getConnection();
+        nested.close();
+        first.close();
+
+        assertThat(dataSource.availableFirstConnections()).isEqualTo(1);
+        other.close();
+    }
+
+    @Test
+    void firstConnectionTimesOutWhileThePermitsAreHeld() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection other = openOnAnotherThread().get(5, TimeUnit.SECONDS);
+
+        Future<Connection> waiting = openOnAnotherThread();
+
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(SQLTransientConnectionException.class);
+        first.close();
+        other.close();
+    }
+
+    @Test
+    void closedFirstConnectionReleasesItsPermitOnce() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection other = openOnAnotherThread().get(5, TimeUnit.SECONDS);
+        Future<Connection> waiting = openOnAnotherThread();
+
+        first.close();
+        first.close();
+
+        Connection served = waiting.get(5, TimeUnit.SECONDS);
+        assertThat(dataSource.availableFirstConnections()).isZero();
+        verify(pool, times(3)).getConnection();
+        served.close();
+        other.close();
+        assertThat(dataSource.availableFirstConnections()).isEqualTo(2);
+    }
+
+    /**
+     * Opens a connection on a new thread, which holds no connection yet.
+     */
+    private Future<Connection> openOnAnotherThread() {
+        FutureTask<Connection> task = new FutureTask<>(() -> dataSource.getConnection());
+        new Thread(task).start();
+        return task;
+    }
+}